@@ -17,14 +17,22 @@ package io.springlets.boot.autoconfigure.context.web;
 
 import io.springlets.data.web.config.EnableSpringletsDataWebSupport;
 import io.springlets.format.EntityFormatAnnotationFormatterFactory;
+import io.springlets.format.EntityRequestCache;
 import io.springlets.format.config.EnableSpringletsEntityFormatWebSupport;
+import io.springlets.format.config.SpringletsEntityFormatProperties;
 
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.web.WebMvcAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 
 /**
@@ -39,6 +47,31 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter
 @ConditionalOnWebApplication
 @ConditionalOnClass({EntityFormatAnnotationFormatterFactory.class, WebMvcConfigurerAdapter.class})
 @AutoConfigureAfter(WebMvcAutoConfiguration.class)
+@EnableConfigurationProperties
 public class SpringletsEntityFormatWebAutoConfiguration {
 
+  @Bean
+  @ConfigurationProperties(prefix = "springlets.entityformat")
+  public SpringletsEntityFormatProperties springletsEntityFormatProperties(
+      Environment environment) {
+    SpringletsEntityFormatProperties properties = new SpringletsEntityFormatProperties();
+    // By default, refresh the expressions from i18n messages as often as the messages are
+    properties.getMessageCache().setCacheSeconds(
+        environment.getProperty("spring.messages.cache-seconds", Integer.class, -1));
+    return properties;
+  }
+
+  /**
+   * Registers the cache of the entities parsed during the current request when
+   * `springlets.entityformat.request-cache.enabled` is `true`, so its statistics are
+   * available for monitoring.
+   * @return the entity request cache
+   */
+  @Bean
+  @ConditionalOnMissingBean
+  @ConditionalOnProperty(prefix = "springlets.entityformat.request-cache", name = "enabled")
+  public EntityRequestCache entityRequestCache() {
+    return new EntityRequestCache();
+  }
+
 }
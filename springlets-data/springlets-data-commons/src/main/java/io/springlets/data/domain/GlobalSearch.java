@@ -17,6 +17,8 @@ package io.springlets.data.domain;
 
 import org.springframework.util.Assert;
 
+import java.util.regex.Pattern;
+
 /**
  * Defines a global text search. This Value Object is used to define
  * global data searches in an entity or group of entities to validate
@@ -28,6 +30,7 @@ public final class GlobalSearch {
 
   private final String searchText;
   private final boolean regexp;
+  private volatile Pattern pattern;
 
   /**
    * Create a new instance of global text search.
@@ -71,6 +74,27 @@ public final class GlobalSearch {
     return regexp;
   }
 
+  /**
+   * Returns the compiled regular expression of the search text. It is compiled
+   * only the first time it is requested.
+   *
+   * @return the regular expression, or null if the search text is not a
+   *         regular expression
+   * @throws java.util.regex.PatternSyntaxException if the search text is not a
+   *         valid regular expression
+   */
+  public Pattern getPattern() {
+    if (!regexp) {
+      return null;
+    }
+    Pattern compiled = pattern;
+    if (compiled == null) {
+      compiled = Pattern.compile(searchText);
+      pattern = compiled;
+    }
+    return compiled;
+  }
+
   /**
    * Indicates if some text matches with the search criteria.
    *
@@ -83,7 +107,7 @@ public final class GlobalSearch {
     }
 
     if (isRegexp()) {
-      return text.matches(searchText);
+      return getPattern().matcher(text).matches();
     } else {
       return text.contains(searchText);
     }
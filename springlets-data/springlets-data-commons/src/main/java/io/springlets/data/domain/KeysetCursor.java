@@ -0,0 +1,194 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.domain;
+
+import org.springframework.util.Assert;
+import org.springframework.util.Base64Utils;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Position of the last element of a page loaded with keyset (seek) pagination.
+ * It contains the values of the attributes used to order the data, including the
+ * identifier used as the last order, so the following page can be loaded by looking
+ * for the data placed after those values, instead of skipping all the data of the
+ * previous pages with an offset.
+ *
+ * It also contains a key of the ordering the values belong to, and the offset of the
+ * page it leads to, so a cursor created with a different ordering, or used to load
+ * another page, can be detected and ignored.
+ *
+ * The cursor is sent to the client as an opaque URL safe token, see {@link #encode()}
+ * and {@link #decode(String)}.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public final class KeysetCursor {
+
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  private static final char NULL_VALUE = '-';
+
+  private static final char LENGTH_SEPARATOR = ':';
+
+  private final String sortKey;
+  private final long offset;
+  private final List<String> values;
+
+  /**
+   * Create a new keyset cursor.
+   *
+   * @param sortKey the key of the ordering the values belong to
+   * @param offset the offset of the page placed after the cursor position
+   * @param values the values of the ordering attributes of the last element, as Strings.
+   *        They might contain null values.
+   */
+  public KeysetCursor(String sortKey, long offset, List<String> values) {
+    Assert.notNull(sortKey, "The cursor sort key is required");
+    Assert.isTrue(offset >= 0, "The cursor offset can't be negative");
+    Assert.notEmpty(values, "The cursor values are required");
+    this.sortKey = sortKey;
+    this.offset = offset;
+    this.values = Collections.unmodifiableList(new ArrayList<String>(values));
+  }
+
+  /**
+   * Returns the key of the ordering the cursor values belong to.
+   *
+   * @return the sort key
+   */
+  public String getSortKey() {
+    return sortKey;
+  }
+
+  /**
+   * Returns the offset of the page placed after the cursor position, which is the
+   * only page the cursor can be used to load.
+   *
+   * @return the page offset
+   */
+  public long getOffset() {
+    return offset;
+  }
+
+  /**
+   * Returns the values of the ordering attributes of the last element of the page.
+   *
+   * @return the values, as Strings
+   */
+  public List<String> getValues() {
+    return values;
+  }
+
+  /**
+   * Returns the cursor as an URL safe token to send to the client.
+   *
+   * @return the cursor token
+   */
+  public String encode() {
+    StringBuilder builder = new StringBuilder();
+    append(builder, sortKey);
+    append(builder, String.valueOf(offset));
+    for (String value : values) {
+      append(builder, value);
+    }
+    return Base64Utils.encodeToUrlSafeString(builder.toString().getBytes(UTF8));
+  }
+
+  /**
+   * Creates a cursor from a token created with {@link #encode()}.
+   *
+   * @param token the cursor token
+   * @return the cursor
+   * @throws IllegalArgumentException if the token is not a valid cursor token
+   */
+  public static KeysetCursor decode(String token) {
+    Assert.hasText(token, "The cursor token is required");
+    String decoded = new String(Base64Utils.decodeFromUrlSafeString(token), UTF8);
+
+    List<String> fields = new ArrayList<String>();
+    int pos = 0;
+    while (pos < decoded.length()) {
+      if (decoded.charAt(pos) == NULL_VALUE) {
+        fields.add(null);
+        pos++;
+        continue;
+      }
+      int separator = decoded.indexOf(LENGTH_SEPARATOR, pos);
+      Assert.isTrue(separator > pos, "Invalid cursor token");
+      int length = parseLength(decoded.substring(pos, separator));
+      int end = separator + 1 + length;
+      Assert.isTrue(end <= decoded.length(), "Invalid cursor token");
+      fields.add(decoded.substring(separator + 1, end));
+      pos = end;
+    }
+    Assert.isTrue(fields.size() > 2 && fields.get(0) != null && fields.get(1) != null,
+        "Invalid cursor token");
+    long offset = parseNumber(fields.get(1));
+    Assert.isTrue(offset >= 0, "Invalid cursor token");
+    return new KeysetCursor(fields.get(0), offset, fields.subList(2, fields.size()));
+  }
+
+  private static void append(StringBuilder builder, String value) {
+    if (value == null) {
+      builder.append(NULL_VALUE);
+    } else {
+      builder.append(value.length()).append(LENGTH_SEPARATOR).append(value);
+    }
+  }
+
+  private static int parseLength(String length) {
+    return (int) Math.min(parseNumber(length), Integer.MAX_VALUE);
+  }
+
+  private static long parseNumber(String number) {
+    try {
+      return Long.parseLong(number);
+    } catch (NumberFormatException ex) {
+      throw new IllegalArgumentException("Invalid cursor token", ex);
+    }
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof KeysetCursor)) {
+      return false;
+    }
+    KeysetCursor other = (KeysetCursor) obj;
+    return sortKey.equals(other.sortKey) && offset == other.offset
+        && values.equals(other.values);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = sortKey.hashCode();
+    result = 31 * result + (int) (offset ^ (offset >>> 32));
+    return 31 * result + values.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "KeysetCursor [sortKey=" + sortKey + ", offset=" + offset + ", values=" + values
+        + "]";
+  }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.domain;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Page of data loaded with keyset (seek) pagination. Along with the page data, it
+ * provides the {@link KeysetCursor} to load the following page, if there is one.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ *
+ * @param <T> the page data type
+ */
+public class KeysetPage<T> extends PageImpl<T> {
+
+  private static final long serialVersionUID = 4853294561073486173L;
+
+  private final KeysetCursor nextCursor;
+
+  /**
+   * Create a new keyset page.
+   *
+   * @param content the page data
+   * @param pageable the requested page information
+   * @param total the total number of data
+   * @param nextCursor the cursor to load the following page, or null if this is the last one
+   */
+  public KeysetPage(List<T> content, Pageable pageable, long total, KeysetCursor nextCursor) {
+    super(content, pageable, total);
+    this.nextCursor = nextCursor;
+  }
+
+  /**
+   * Returns the cursor to load the following page.
+   *
+   * @return the cursor, or null if this is the last page
+   */
+  public KeysetCursor getNextCursor() {
+    return nextCursor;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return nextCursor != null;
+  }
+
+  @Override
+  public boolean isLast() {
+    return !hasNext();
+  }
+
+  /**
+   * Returns the token of the cursor to load the page following the given one, if it has
+   * been loaded with keyset pagination.
+   *
+   * @param page the page of data
+   * @return the cursor token, or null if the page is not a {@link KeysetPage} or it is the
+   *         last one
+   */
+  public static String getNextCursorToken(Page<?> page) {
+    if (page instanceof KeysetPage) {
+      KeysetCursor cursor = ((KeysetPage<?>) page).getNextCursor();
+      return cursor == null ? null : cursor.encode();
+    }
+    return null;
+  }
+
+}
@@ -16,6 +16,7 @@
 package io.springlets.data.web;
 
 import io.springlets.data.domain.GlobalSearch;
+import io.springlets.data.web.datatables.DatatablesParameters;
 
 import org.springframework.core.MethodParameter;
 import org.springframework.util.StringUtils;
@@ -65,11 +66,20 @@ public class GlobalSearchHandlerMethodArgumentResolver implements HandlerMethodA
   public GlobalSearch resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
       NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
 
-    String searchValue = webRequest.getParameter(getSearchValueParameter());
+    String searchValue;
+    String regexp;
+    DatatablesParameters parameters = getParsedParameters(webRequest);
+    if (parameters != null) {
+      searchValue = parameters.getSearchValue();
+      regexp = parameters.getSearchRegex();
+    } else {
+      searchValue = webRequest.getParameter(getSearchValueParameter());
+      regexp = webRequest.getParameter(getRegexpParameter());
+    }
+
     if (StringUtils.isEmpty(searchValue)) {
       return null;
     }
-    String regexp = webRequest.getParameter(getRegexpParameter());
     if ("true".equalsIgnoreCase(regexp)) {
       return new GlobalSearch(searchValue, true);
     } else if ("false".equalsIgnoreCase(regexp)) {
@@ -79,4 +89,17 @@ public class GlobalSearchHandlerMethodArgumentResolver implements HandlerMethodA
     return new GlobalSearch(searchValue);
   }
 
+  /**
+   * Returns the datatables parameters of the current request, if they have already been
+   * parsed by another datatables argument resolver and the default search parameter
+   * names are used. Otherwise the search parameters are read directly from the request.
+   */
+  private DatatablesParameters getParsedParameters(NativeWebRequest webRequest) {
+    if (DEFAULT_SEARCH_VALUE_PARAMETER.equals(getSearchValueParameter())
+        && DEFAULT_REGEXP_PARAMETER.equals(getRegexpParameter())) {
+      return DatatablesParameters.getParsed(webRequest);
+    }
+    return null;
+  }
+
 }
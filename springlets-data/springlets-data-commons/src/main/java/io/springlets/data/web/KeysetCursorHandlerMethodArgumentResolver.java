@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.web;
+
+import io.springlets.data.domain.KeysetCursor;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Extracts the keyset pagination cursor from web requests and thus allows
+ * injecting {@link KeysetCursor} instances into controller methods. It can be used
+ * with datatables and select2 data requests, as the cursor token returned with a page of
+ * data is sent back in its own request parameter (_cursor_ by default) to load the
+ * following page.
+ *
+ * If the request doesn't contain a valid cursor token, a null value is provided,
+ * so the first page of data is loaded.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class KeysetCursorHandlerMethodArgumentResolver implements HandlerMethodArgumentResolver {
+
+  private static final String DEFAULT_CURSOR_PARAMETER = "cursor";
+
+  private String cursorParameter = DEFAULT_CURSOR_PARAMETER;
+
+  public String getCursorParameter() {
+    return cursorParameter;
+  }
+
+  public void setCursorParameter(String cursorParameter) {
+    this.cursorParameter = cursorParameter;
+  }
+
+  @Override
+  public boolean supportsParameter(MethodParameter parameter) {
+    return KeysetCursor.class.equals(parameter.getParameterType());
+  }
+
+  @Override
+  public KeysetCursor resolveArgument(MethodParameter parameter,
+      ModelAndViewContainer mavContainer, NativeWebRequest webRequest,
+      WebDataBinderFactory binderFactory) {
+
+    String token = webRequest.getParameter(getCursorParameter());
+    if (!StringUtils.hasText(token)) {
+      return null;
+    }
+    try {
+      return KeysetCursor.decode(token);
+    } catch (IllegalArgumentException ex) {
+      return null;
+    }
+  }
+
+}
@@ -16,6 +16,7 @@
 package io.springlets.data.web.config;
 
 import io.springlets.data.web.GlobalSearchHandlerMethodArgumentResolver;
+import io.springlets.data.web.KeysetCursorHandlerMethodArgumentResolver;
 import io.springlets.data.web.datatables.DatatablesColumnsHandlerMethodArgumentResolver;
 import io.springlets.data.web.datatables.DatatablesPageableHandlerMethodArgumentResolver;
 import io.springlets.data.web.datatables.DatatablesSortHandlerMethodArgumentResolver;
@@ -29,7 +30,9 @@ import java.util.List;
 
 /**
  * Configuration class to register {@link GlobalSearchHandlerMethodArgumentResolver},
- * {@link DatatablesPageableHandlerMethodArgumentResolver} and {@link DatatablesSortHandlerMethodArgumentResolver}.
+ * {@link DatatablesPageableHandlerMethodArgumentResolver},
+ * {@link DatatablesSortHandlerMethodArgumentResolver} and
+ * {@link KeysetCursorHandlerMethodArgumentResolver}.
  * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
  */
 @Configuration
@@ -55,12 +58,18 @@ public class SpringletsDataWebConfiguration extends WebMvcConfigurerAdapter {
     return new DatatablesColumnsHandlerMethodArgumentResolver();
   }
 
+  @Bean
+  public KeysetCursorHandlerMethodArgumentResolver keysetCursorResolver() {
+    return new KeysetCursorHandlerMethodArgumentResolver();
+  }
+
   @Override
   public void addArgumentResolvers(List<HandlerMethodArgumentResolver> argumentResolvers) {
     argumentResolvers.add(globalSearchResolver());
     argumentResolvers.add(datatablesPageableResolver());
     argumentResolvers.add(datatablesSortResolver());
     argumentResolvers.add(datatablesColumnsResolver());
+    argumentResolvers.add(keysetCursorResolver());
   }
 
 }
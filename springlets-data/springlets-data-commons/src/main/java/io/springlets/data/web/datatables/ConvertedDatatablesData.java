@@ -3,9 +3,6 @@
  */
 package io.springlets.data.web.datatables;
 
-import java.beans.PropertyDescriptor;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -16,7 +13,7 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.data.domain.Page;
 
-import io.springlets.data.web.datatables.DatatablesColumns.Column;
+import io.springlets.data.domain.KeysetPage;
 
 /**
  * Response data for data requests performed by datatables component.
@@ -57,6 +54,7 @@ public class ConvertedDatatablesData<T> extends DatatablesData<Map<String, Objec
       ConversionService conversionService) {
     this(data.getContent(), recordsTotal, data.getTotalElements(), draw, conversionService, null,
         DEFAULT_PROPERTY_SEPARATOR);
+    setCursor(KeysetPage.getNextCursorToken(data));
   }
 
   /**
@@ -73,6 +71,7 @@ public class ConvertedDatatablesData<T> extends DatatablesData<Map<String, Objec
       ConversionService conversionService, DatatablesColumns columns) {
     this(data.getContent(), recordsTotal, data.getTotalElements(), draw, conversionService, columns,
         DEFAULT_PROPERTY_SEPARATOR);
+    setCursor(KeysetPage.getNextCursorToken(data));
   }
 
   /**
@@ -108,67 +107,67 @@ public class ConvertedDatatablesData<T> extends DatatablesData<Map<String, Objec
   public ConvertedDatatablesData(List<T> data, Long recordsTotal, Long recordsFiltered,
       Integer draw, ConversionService conversionService, DatatablesColumns columns,
       String propertySeparator) {
+    this(data, recordsTotal, recordsFiltered, draw, conversionService, columns,
+        propertySeparator, null);
+  }
+
+  /**
+   * Create a response for datatables with data obtained from a previous request,
+   * converting the data in parallel if there are lots of them, like when exporting
+   * all the data (length=-1).
+   *
+   * @param data the data to show
+   * @param recordsTotal the total number of available data
+   * @param recordsFiltered the number of data after filtering
+   * @param draw counts datatables requests. It must be sent by datatables value
+   * in the data request.
+   * @param conversionService to convert the data values to String
+   * @param columns parameters sent by datatables
+   * @param propertySeparator String to use as separator when use properties of
+   *             object-properties (WARNING: don't use "." [dot]
+   *             see https://github.com/DISID/springlets/issues/64)
+   * @param parallelConversion to convert the data in parallel, or null to convert
+   *             the data sequentially
+   */
+  public ConvertedDatatablesData(List<T> data, Long recordsTotal, Long recordsFiltered,
+      Integer draw, ConversionService conversionService, DatatablesColumns columns,
+      String propertySeparator, DatatablesParallelConversion parallelConversion) {
     super(
         convertAll(data, conversionService, columns,
-            propertySeparator != null ? propertySeparator : DEFAULT_PROPERTY_SEPARATOR),
+            propertySeparator != null ? propertySeparator : DEFAULT_PROPERTY_SEPARATOR,
+            parallelConversion),
         recordsTotal, recordsFiltered, draw, null);
   }
 
   private static List<Map<String, Object>> convertAll(List<?> data,
-      ConversionService conversionService, DatatablesColumns columns, String propertySeparator) {
+      ConversionService conversionService, DatatablesColumns columns, String propertySeparator,
+      DatatablesParallelConversion parallelConversion) {
 
     if (data == null) {
       return null;
     }
 
-    List<Map<String, Object>> converted = new ArrayList<>(data.size());
-
-    for (Object value : data) {
-      Map<String, Object> convertedValue = columns == null ? convert(value, conversionService)
-          : convert(value, conversionService, columns, propertySeparator);
-      converted.add(convertedValue);
-    }
-
-    return converted;
-  }
-
-  private static Map<String, Object> convert(Object value, ConversionService conversionService) {
-
-    BeanWrapper bean = new BeanWrapperImpl(value);
-    PropertyDescriptor[] properties = bean.getPropertyDescriptors();
-    Map<String, Object> convertedValue = new HashMap<>(properties.length);
-
-    for (int i = 0; i < properties.length; i++) {
-      String name = properties[i].getName();
-      Object propertyValue = bean.getPropertyValue(name);
-      if (propertyValue != null
-          && conversionService.canConvert(propertyValue.getClass(), String.class)) {
-        TypeDescriptor source = bean.getPropertyTypeDescriptor(name);
-        String convertedPropertyValue =
-            (String) conversionService.convert(propertyValue, source, TYPE_STRING);
-        convertedValue.put(name, convertedPropertyValue);
-      }
-    }
-
-    return convertedValue;
-  }
-
-  private static Map<String, Object> convert(Object value, ConversionService conversionService,
-      DatatablesColumns columns, String propertySeparator) {
-
-    BeanWrapper bean = new BeanWrapperImpl(value);
-    Map<String, Object> convertedValue = new HashMap<>();
+    String[] properties = DatatablesConversionPlan.getColumnProperties(columns);
 
-    for (Column column : columns.getColumns()) {
-      String property = column.getData();
-      convertedValue.put(property,
-          convertProperty(bean, property, conversionService, propertySeparator));
+    if (parallelConversion != null) {
+      return parallelConversion.convertAll(data, properties, propertySeparator,
+          conversionService);
     }
-
-    return convertedValue;
+    return DatatablesConversionPlan.convertAll(data, properties, propertySeparator,
+        conversionService);
   }
 
-  private static Object convertProperty(BeanWrapper parentBean, String property,
+  /**
+   * Converts to String the value of a property, which may be a property of an
+   * object-property, using the given separator between the property names.
+   *
+   * @param parentBean the bean to get the property value from
+   * @param property the property to convert
+   * @param conversionService to convert the property value to String
+   * @param propertySeparator the separator between property names
+   * @return the converted value
+   */
+  static Object convertProperty(BeanWrapper parentBean, String property,
       ConversionService conversionService, String propertySeparator) {
 
     int dotIndex = property.indexOf(propertySeparator);
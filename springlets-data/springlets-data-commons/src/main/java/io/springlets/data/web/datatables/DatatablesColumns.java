@@ -16,25 +16,48 @@
 package io.springlets.data.web.datatables;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
 
 /**
  * Information about Datatables columns configuration: name, if it is searchable, ...
+ *
+ * The columns are stored in an array by their index. The list of columns, and the lists of
+ * searchable and orderable columns, are created only once and then returned without
+ * copying them, until a column value changes. Once the columns have been parsed
+ * from the request parameters, they can't be changed.
  * 
  * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
  * @see https://datatables.net/manual/server-side
  */
 public class DatatablesColumns {
 
-  private final Map<Integer, InternalColumn> columns;
+  private static final InternalColumn[] NO_COLUMNS = new InternalColumn[0];
+
+  private InternalColumn[] columns;
+
+  private List<Column> columnList;
+
+  private List<Column> searchableColumns;
+
+  private List<Column> orderableColumns;
+
+  private boolean readOnly;
 
   /**
    * Creates a new instance.
    */
   public DatatablesColumns() {
-    columns = new TreeMap<>();
+    columns = NO_COLUMNS;
+  }
+
+  /**
+   * Creates a new instance with the expected number of column positions.
+   * @param columnCount the expected number of column positions
+   */
+  public DatatablesColumns(int columnCount) {
+    columns = columnCount > 0 ? new InternalColumn[columnCount] : NO_COLUMNS;
   }
 
   /**
@@ -42,9 +65,66 @@ public class DatatablesColumns {
    * @return the list of columns
    */
   public Iterable<Column> getColumns() {
-    List<Column> values = new ArrayList<>(columns.size());
-    values.addAll(columns.values());
-    return values;
+    return getColumnList();
+  }
+
+  /**
+   * Returns the list of column configurations, ordered by their index.
+   * The returned list can't be modified.
+   * @return the list of columns
+   */
+  public List<Column> getColumnList() {
+    List<Column> list = columnList;
+    if (list == null) {
+      list = filterColumns(false, false);
+      columnList = list;
+    }
+    return list;
+  }
+
+  /**
+   * Returns the list of searchable columns, ordered by their index.
+   * The returned list can't be modified.
+   * @return the list of searchable columns
+   */
+  public List<Column> getSearchableColumns() {
+    List<Column> list = searchableColumns;
+    if (list == null) {
+      list = filterColumns(true, false);
+      searchableColumns = list;
+    }
+    return list;
+  }
+
+  /**
+   * Returns the list of orderable columns, ordered by their index.
+   * The returned list can't be modified.
+   * @return the list of orderable columns
+   */
+  public List<Column> getOrderableColumns() {
+    List<Column> list = orderableColumns;
+    if (list == null) {
+      list = filterColumns(false, true);
+      orderableColumns = list;
+    }
+    return list;
+  }
+
+  /**
+   * Returns the column configuration in the given index.
+   * @param index the index of the column
+   * @return the column, or null if there is no column with that index
+   */
+  public Column getColumn(int index) {
+    return index >= 0 && index < columns.length ? columns[index] : null;
+  }
+
+  /**
+   * Returns the number of column configurations.
+   * @return the number of columns
+   */
+  public int size() {
+    return getColumnList().size();
   }
 
   /**
@@ -53,7 +133,7 @@ public class DatatablesColumns {
    * @param data the data value
    */
   public void setData(int index, String data) {
-    getColumn(index).setData(data);
+    getOrCreateColumn(index).setData(data);
   }
 
   /**
@@ -62,7 +142,7 @@ public class DatatablesColumns {
    * @param name the name value
    */
   public void setName(int index, String name) {
-    getColumn(index).setName(name);
+    getOrCreateColumn(index).setName(name);
   }
 
   /**
@@ -71,7 +151,7 @@ public class DatatablesColumns {
    * @param searchable the searchable value
    */
   public void setSearchable(int index, boolean searchable) {
-    getColumn(index).setSearchable(searchable);
+    getOrCreateColumn(index).setSearchable(searchable);
   }
 
   /**
@@ -80,7 +160,7 @@ public class DatatablesColumns {
    * @param orderable the orderable value
    */
   public void setOrderable(int index, boolean orderable) {
-    getColumn(index).setOrderable(orderable);
+    getOrCreateColumn(index).setOrderable(orderable);
   }
 
   /**
@@ -89,7 +169,7 @@ public class DatatablesColumns {
    * @param regexp the search using regex value
    */
   public void setSearchRegexp(int index, boolean regexp) {
-    getColumn(index).setSearchRegex(regexp);
+    getOrCreateColumn(index).setSearchRegex(regexp);
   }
 
   /**
@@ -98,23 +178,62 @@ public class DatatablesColumns {
    * @param search
    */
   public void setSearch(int index, String search) {
-    getColumn(index).setSearch(search);
+    getOrCreateColumn(index).setSearch(search);
+  }
+
+  /**
+   * Returns if the columns can't be changed anymore.
+   * @return if the columns are read only
+   */
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+
+  /**
+   * Makes the columns read only, once all the column values have been set.
+   */
+  void setReadOnly() {
+    getColumnList();
+    getSearchableColumns();
+    getOrderableColumns();
+    readOnly = true;
   }
 
   @Override
   public String toString() {
-    return "DatatablesColumns [columns=" + columns + "]";
+    return "DatatablesColumns [columns=" + getColumnList() + "]";
   }
 
-  private InternalColumn getColumn(int index) {
-    InternalColumn column = columns.get(index);
+  private InternalColumn getOrCreateColumn(int index) {
+    if (readOnly) {
+      throw new IllegalStateException("The datatables columns can't be changed once parsed");
+    }
+    if (index >= columns.length) {
+      columns = Arrays.copyOf(columns, Math.max(index + 1, columns.length * 2));
+    }
+    InternalColumn column = columns[index];
     if (column == null) {
       column = new InternalColumn(index);
-      columns.put(index, column);
+      columns[index] = column;
     }
+    columnList = null;
+    searchableColumns = null;
+    orderableColumns = null;
     return column;
   }
 
+  private List<Column> filterColumns(boolean searchable, boolean orderable) {
+    List<Column> values = new ArrayList<Column>(columns.length);
+    for (InternalColumn column : columns) {
+      if (column != null && (!searchable || column.isSearchable())
+          && (!orderable || column.isOrderable())) {
+        values.add(column);
+      }
+    }
+    return values.isEmpty() ? Collections.<Column>emptyList()
+        : Collections.unmodifiableList(values);
+  }
+
   /**
    * Configuration of a column in datatables.
    * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
@@ -13,8 +13,6 @@ import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
 
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
 
 /**
  * Resolves controller method parameters of type {@link DatatablesColumns}.
@@ -58,7 +56,7 @@ public class DatatablesColumnsHandlerMethodArgumentResolver
       NativeWebRequest request, WebDataBinderFactory binderFactory) throws Exception {
 
     DatatablesColumns columns =
-        new ColumnsParametersParser(maxColumns, request.getParameterMap()).getColumns();
+        new ColumnsParametersParser(maxColumns, DatatablesParameters.get(request)).getColumns();
 
     return columns;
   }
@@ -73,7 +71,7 @@ public class DatatablesColumnsHandlerMethodArgumentResolver
   static class ColumnsParametersParser {
 
     private int maxColumns;
-    private Map<String, String[]> parameters;
+    private DatatablesParameters parameters;
 
     /**
      * Creates a new parser instance.
@@ -81,67 +79,65 @@ public class DatatablesColumnsHandlerMethodArgumentResolver
      * @param parameterMap the parameters to parse
      */
     public ColumnsParametersParser(int maxColumns, Map<String, String[]> parameterMap) {
+      this(maxColumns, DatatablesParameters.parse(parameterMap));
+    }
+
+    /**
+     * Creates a new parser instance.
+     * @param maxColumns the maximum number of columns to process
+     * @param parameters the already parsed datatables parameters
+     */
+    public ColumnsParametersParser(int maxColumns, DatatablesParameters parameters) {
       this.maxColumns = maxColumns;
-      this.parameters = parameterMap;
+      this.parameters = parameters;
     }
 
     /**
      * Parses the parameters and creates a new {@link DatatablesColumns} instance with the 
-     * information provided.
+     * information provided, which can't be changed afterwards.
      * @return a {@link DatatablesColumns} with the parameters values
      */
     public DatatablesColumns getColumns() {
-      DatatablesColumns columns = new DatatablesColumns();
-
-      Set<Entry<String, String[]>> entrySet = parameters.entrySet();
-
-      for (Entry<String, String[]> entry : entrySet) {
-        String parameter = entry.getKey();
-        String value = getParameter(parameter);
-        if (!StringUtils.isEmpty(value) && Datatables.isColumn(parameter)) {
-          addColumnValue(columns, parameter, value);
+      int columnCount = Math.min(parameters.getColumnCount(), maxColumns);
+      DatatablesColumns columns = new DatatablesColumns(columnCount);
+
+      for (int index = 0; index < columnCount; index++) {
+        for (ColumnParamType type : ColumnParamType.values()) {
+          String value = parameters.getColumnParameter(index, type);
+          if (!StringUtils.isEmpty(value)) {
+            addColumnValue(columns, index, type, value);
+          }
         }
       }
 
+      columns.setReadOnly();
       return columns;
     }
 
-    private void addColumnValue(DatatablesColumns columns, String parameter, String value) {
-      ColumnParamType type = Datatables.columnParameterType(parameter);
-      int index = Datatables.columnIndex(parameter);
-      if (type != null && isValidIndex(index)) {
-        switch (type) {
-          case DATA:
-            columns.setData(index, value);
-            break;
-          case NAME:
-            columns.setName(index, value);
-            break;
-          case ORDERABLE:
-            columns.setOrderable(index, Boolean.valueOf(value));
-            break;
-          case REGEX:
-            columns.setSearchRegexp(index, Boolean.valueOf(value));
-            break;
-          case SEARCH:
-            columns.setSearch(index, value);
-            break;
-          case SEARCHABLE:
-            columns.setSearchable(index, Boolean.valueOf(value));
-            break;
-          default:
-            break;
-        }
+    private void addColumnValue(DatatablesColumns columns, int index, ColumnParamType type,
+        String value) {
+      switch (type) {
+        case DATA:
+          columns.setData(index, value);
+          break;
+        case NAME:
+          columns.setName(index, value);
+          break;
+        case ORDERABLE:
+          columns.setOrderable(index, Boolean.valueOf(value));
+          break;
+        case REGEX:
+          columns.setSearchRegexp(index, Boolean.valueOf(value));
+          break;
+        case SEARCH:
+          columns.setSearch(index, value);
+          break;
+        case SEARCHABLE:
+          columns.setSearchable(index, Boolean.valueOf(value));
+          break;
+        default:
+          break;
       }
     }
-
-    private boolean isValidIndex(int index) {
-      return index > -1 && index < maxColumns;
-    }
-
-    private String getParameter(String name) {
-      String[] values = parameters.get(name);
-      return (values == null || values.length == 0) ? null : values[0];
-    }
   }
 }
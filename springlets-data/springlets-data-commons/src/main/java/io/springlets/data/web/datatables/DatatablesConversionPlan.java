@@ -0,0 +1,399 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.web.datatables;
+
+import io.springlets.data.web.datatables.DatatablesColumns.Column;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.Property;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiled plan to convert the properties of the objects of a given class to String,
+ * as done by {@link ConvertedDatatablesData} and {@link StreamingDatatablesDataSerializer}.
+ *
+ * The property names are split and their getter methods and {@link TypeDescriptor}s
+ * are resolved only once, and then reused for all the objects of the same class.
+ * The plans are cached by the object class and the columns properties, so they are
+ * also reused between requests.
+ *
+ * If a property can't be resolved through its getter method, it is converted
+ * through a {@link BeanWrapperImpl} instead.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+final class DatatablesConversionPlan {
+
+  private static final TypeDescriptor TYPE_STRING = TypeDescriptor.valueOf(String.class);
+
+  private static final MethodType READER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  private static final Map<PlanKey, DatatablesConversionPlan> PLANS =
+      new ConcurrentReferenceHashMap<PlanKey, DatatablesConversionPlan>(64);
+
+  private final Class<?> type;
+
+  private final String[] names;
+
+  private final PropertyChain[] chains;
+
+  private final boolean allProperties;
+
+  private final String propertySeparator;
+
+  private DatatablesConversionPlan(Class<?> type, String[] names, PropertyChain[] chains,
+      boolean allProperties, String propertySeparator) {
+    this.type = type;
+    this.names = names;
+    this.chains = chains;
+    this.allProperties = allProperties;
+    this.propertySeparator = propertySeparator;
+  }
+
+  /**
+   * Returns the plan to convert the given objects class.
+   *
+   * @param type the class of the objects to convert
+   * @param columns the columns to convert, or null to convert all the object properties
+   * @param propertySeparator separator between the property names of object-properties
+   * @return the conversion plan
+   */
+  static DatatablesConversionPlan forType(Class<?> type, DatatablesColumns columns,
+      String propertySeparator) {
+    return forType(type, getColumnProperties(columns), propertySeparator);
+  }
+
+  /**
+   * Returns the plan to convert the given objects class.
+   *
+   * @param type the class of the objects to convert
+   * @param properties the properties to convert, or null to convert all the object properties
+   * @param propertySeparator separator between the property names of object-properties
+   * @return the conversion plan
+   */
+  static DatatablesConversionPlan forType(Class<?> type, String[] properties,
+      String propertySeparator) {
+    PlanKey key = new PlanKey(type, properties, propertySeparator);
+    DatatablesConversionPlan plan = PLANS.get(key);
+    if (plan == null) {
+      plan = properties == null ? compile(type, propertySeparator)
+          : compile(type, properties, propertySeparator);
+      PLANS.put(key, plan);
+    }
+    return plan;
+  }
+
+  /**
+   * Converts the given objects to Maps of String values, in the same order.
+   *
+   * @param data the objects to convert
+   * @param properties the properties to convert, or null to convert all the object properties
+   * @param propertySeparator separator between the property names of object-properties
+   * @param conversionService to convert the property values to String
+   * @return the converted objects
+   */
+  static List<Map<String, Object>> convertAll(List<?> data, String[] properties,
+      String propertySeparator, ConversionService conversionService) {
+    List<Map<String, Object>> converted = new ArrayList<Map<String, Object>>(data.size());
+    DatatablesConversionPlan plan = null;
+    for (Object value : data) {
+      if (plan == null || !plan.getType().equals(value.getClass())) {
+        plan = forType(value.getClass(), properties, propertySeparator);
+      }
+      converted.add(plan.convert(value, conversionService));
+    }
+    return converted;
+  }
+
+  /**
+   * Returns the properties of the given columns, without duplicates, as the same
+   * property might be shown in more than one column.
+   *
+   * @param columns the datatables columns
+   * @return the column properties, or null if columns is null
+   */
+  static String[] getColumnProperties(DatatablesColumns columns) {
+    if (columns == null) {
+      return null;
+    }
+    Set<String> properties = new LinkedHashSet<String>();
+    for (Column column : columns.getColumns()) {
+      properties.add(column.getData());
+    }
+    return properties.toArray(new String[properties.size()]);
+  }
+
+  private static DatatablesConversionPlan compile(Class<?> type, String propertySeparator) {
+    PropertyDescriptor[] descriptors = BeanUtils.getPropertyDescriptors(type);
+    List<String> names = new ArrayList<String>(descriptors.length);
+    List<PropertyChain> chains = new ArrayList<PropertyChain>(descriptors.length);
+    for (PropertyDescriptor descriptor : descriptors) {
+      if (descriptor.getReadMethod() != null) {
+        names.add(descriptor.getName());
+        chains.add(new PropertyChain(descriptor.getName(), new String[] {descriptor.getName()}));
+      }
+    }
+    return new DatatablesConversionPlan(type, names.toArray(new String[names.size()]),
+        chains.toArray(new PropertyChain[chains.size()]), true, propertySeparator);
+  }
+
+  private static DatatablesConversionPlan compile(Class<?> type, String[] properties,
+      String propertySeparator) {
+    PropertyChain[] chains = new PropertyChain[properties.length];
+    for (int i = 0; i < properties.length; i++) {
+      String[] names = StringUtils.delimitedListToStringArray(properties[i], propertySeparator);
+      chains[i] = new PropertyChain(properties[i],
+          names.length > 0 ? names : new String[] {properties[i]});
+    }
+    return new DatatablesConversionPlan(type, properties, chains, false, propertySeparator);
+  }
+
+  /**
+   * Returns the class of the objects converted by this plan.
+   * @return the objects class
+   */
+  Class<?> getType() {
+    return type;
+  }
+
+  /**
+   * Returns the number of properties converted by this plan.
+   * @return the number of properties
+   */
+  int size() {
+    return names.length;
+  }
+
+  /**
+   * Returns the name of the property in the given position.
+   * @param index the property position
+   * @return the property name
+   */
+  String getName(int index) {
+    return names[index];
+  }
+
+  /**
+   * Returns if the properties with a null or not convertible value must be omitted.
+   * This is the case when all the object properties are converted, instead of
+   * the ones of the datatables columns.
+   * @return if the properties without a converted value must be omitted
+   */
+  boolean isOmitNullValues() {
+    return allProperties;
+  }
+
+  /**
+   * Converts to String the value of the property in the given position.
+   *
+   * @param value the object to get the property from
+   * @param index the property position
+   * @param conversionService to convert the property value to String
+   * @return the converted value
+   */
+  String convert(Object value, int index, ConversionService conversionService) {
+    PropertyChain chain = chains[index];
+    Object root = value;
+    PropertyReader reader = null;
+    for (PropertyStep step : chain.steps) {
+      if (value == null) {
+        return null;
+      }
+      reader = step.getReader(value.getClass());
+      if (reader == PropertyReader.UNRESOLVED) {
+        return (String) ConvertedDatatablesData.convertProperty(new BeanWrapperImpl(root),
+            chain.property, conversionService, propertySeparator);
+      }
+      value = reader.read(value);
+    }
+    return convertValue(value, reader.getTypeDescriptor(), conversionService);
+  }
+
+  /**
+   * Converts all the properties of the given object to a Map of String values.
+   *
+   * @param value the object to convert
+   * @param conversionService to convert the property values to String
+   * @return the converted properties
+   */
+  Map<String, Object> convert(Object value, ConversionService conversionService) {
+    Map<String, Object> converted = new HashMap<String, Object>(names.length * 4 / 3 + 1);
+    for (int i = 0; i < names.length; i++) {
+      String convertedValue = convert(value, i, conversionService);
+      if (convertedValue != null || !allProperties) {
+        converted.put(names[i], convertedValue);
+      }
+    }
+    return converted;
+  }
+
+  private String convertValue(Object value, TypeDescriptor source,
+      ConversionService conversionService) {
+    if (value == null) {
+      return null;
+    }
+    if (allProperties) {
+      return conversionService.canConvert(value.getClass(), String.class)
+          ? (String) conversionService.convert(value, source, TYPE_STRING) : null;
+    }
+    if (source.isAssignableTo(TYPE_STRING)) {
+      return (String) value;
+    }
+    return (String) conversionService.convert(value, source, TYPE_STRING);
+  }
+
+  /**
+   * A chain of properties to read from the converted object, like _owner/name_.
+   */
+  private static final class PropertyChain {
+
+    private final String property;
+
+    private final PropertyStep[] steps;
+
+    PropertyChain(String property, String[] names) {
+      this.property = property;
+      this.steps = new PropertyStep[names.length];
+      for (int i = 0; i < names.length; i++) {
+        steps[i] = new PropertyStep(names[i]);
+      }
+    }
+  }
+
+  /**
+   * One of the properties of a {@link PropertyChain}, with its readers for each
+   * of the classes where the property has been read.
+   */
+  private static final class PropertyStep {
+
+    private final String name;
+
+    private final Map<Class<?>, PropertyReader> readers =
+        new ConcurrentReferenceHashMap<Class<?>, PropertyReader>(4);
+
+    PropertyStep(String name) {
+      this.name = name;
+    }
+
+    PropertyReader getReader(Class<?> clazz) {
+      PropertyReader reader = readers.get(clazz);
+      if (reader == null) {
+        reader = PropertyReader.resolve(clazz, name);
+        readers.put(clazz, reader);
+      }
+      return reader;
+    }
+  }
+
+  /**
+   * Reads a property value through a {@link MethodHandle} of its getter method.
+   */
+  private static final class PropertyReader {
+
+    static final PropertyReader UNRESOLVED = new PropertyReader(null, null);
+
+    private final MethodHandle handle;
+
+    private final TypeDescriptor typeDescriptor;
+
+    PropertyReader(MethodHandle handle, TypeDescriptor typeDescriptor) {
+      this.handle = handle;
+      this.typeDescriptor = typeDescriptor;
+    }
+
+    static PropertyReader resolve(Class<?> clazz, String name) {
+      try {
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(clazz, name);
+        if (descriptor != null && descriptor.getReadMethod() != null) {
+          Method getter = descriptor.getReadMethod();
+          ReflectionUtils.makeAccessible(getter);
+          return new PropertyReader(MethodHandles.lookup().unreflect(getter).asType(READER_TYPE),
+              new TypeDescriptor(new Property(clazz, getter, descriptor.getWriteMethod())));
+        }
+      } catch (IllegalAccessException ex) {
+        // Use a BeanWrapper instead
+      } catch (RuntimeException ex) {
+        // Use a BeanWrapper instead
+      }
+      return UNRESOLVED;
+    }
+
+    Object read(Object target) {
+      try {
+        return (Object) handle.invokeExact(target);
+      } catch (Throwable ex) {
+        ReflectionUtils.rethrowRuntimeException(ex);
+        return null;
+      }
+    }
+
+    TypeDescriptor getTypeDescriptor() {
+      return typeDescriptor;
+    }
+  }
+
+  private static final class PlanKey {
+
+    private final Class<?> type;
+    private final String[] properties;
+    private final String propertySeparator;
+
+    PlanKey(Class<?> type, String[] properties, String propertySeparator) {
+      this.type = type;
+      this.properties = properties;
+      this.propertySeparator = propertySeparator;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof PlanKey)) {
+        return false;
+      }
+      PlanKey otherKey = (PlanKey) other;
+      return type.equals(otherKey.type) && Arrays.equals(properties, otherKey.properties)
+          && ObjectUtils.nullSafeEquals(propertySeparator, otherKey.propertySeparator);
+    }
+
+    @Override
+    public int hashCode() {
+      return (type.hashCode() * 31 + Arrays.hashCode(properties)) * 31
+          + ObjectUtils.nullSafeHashCode(propertySeparator);
+    }
+  }
+
+}
@@ -15,6 +15,10 @@
  */
 package io.springlets.data.web.datatables;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.springlets.data.domain.KeysetPage;
+
 import org.springframework.data.domain.Page;
 
 import java.util.List;
@@ -35,6 +39,7 @@ public class DatatablesData<T> {
   private Long recordsFiltered;
   private final Integer draw;
   private String error;
+  private String cursor;
 
   /**
    * Create a response for datatables with data obtained from a previous request.
@@ -86,6 +91,7 @@ public class DatatablesData<T> {
    */
   public DatatablesData(Page<T> dataPage, Long recordsTotal, Integer draw) {
     this(dataPage.getContent(), recordsTotal, dataPage.getTotalElements(), draw);
+    setCursor(KeysetPage.getNextCursorToken(dataPage));
   }
 
   protected DatatablesData(Long recordsTotal, Long recordsFiltered, Integer draw, String error) {
@@ -114,4 +120,19 @@ public class DatatablesData<T> {
   public String getError() {
     return error;
   }
+
+  /**
+   * Returns the token of the cursor to load the following page, if the data
+   * has been loaded with keyset pagination. It is not included in the
+   * response if there isn't any.
+   * @return the cursor token, or null
+   */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public String getCursor() {
+    return cursor;
+  }
+
+  protected void setCursor(String cursor) {
+    this.cursor = cursor;
+  }
 }
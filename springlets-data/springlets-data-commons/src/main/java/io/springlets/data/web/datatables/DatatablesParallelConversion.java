@@ -0,0 +1,305 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.web.datatables;
+
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.context.request.RequestAttributes;
+
+import java.lang.annotation.Annotation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Configuration to convert the data of a {@link ConvertedDatatablesData} in parallel,
+ * for requests with lots of data, like the ones to export all the data (length=-1).
+ *
+ * The data is split in chunks which are converted through the given {@link Executor},
+ * while the current thread converts the first chunk. The converted data keeps the
+ * same order. The current {@link LocaleContext}, and the {@link SecurityContext} if
+ * Spring Security is available, are also available in the threads which convert the
+ * chunks. The {@link RequestAttributes} are not, as the request objects are not
+ * thread-safe, so the converters which rely on the current request, like the ones
+ * using a request scoped cache, behave as if there wasn't any request in those threads.
+ *
+ * If the number of data is below a threshold, the data is converted sequentially
+ * in the current thread.
+ *
+ * IMPORTANT: only detached data, like DTOs or projections, can be converted in parallel.
+ * Converting a managed JPA entity might load its lazy associations through the
+ * persistence context of the current thread, which is not thread-safe. So if any of the
+ * data is a JPA entity, all of them are converted sequentially, unless they are declared
+ * to be detached with {@link #setDetachedEntities(boolean)}.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class DatatablesParallelConversion {
+
+  /**
+   * Default minimum number of data to convert in parallel.
+   */
+  public static final int DEFAULT_THRESHOLD = 1000;
+
+  /**
+   * Default number of data to convert in each chunk.
+   */
+  public static final int DEFAULT_CHUNK_SIZE = 250;
+
+  private static final Class<? extends Annotation> ENTITY_ANNOTATION = getEntityAnnotation();
+
+  private static final boolean SECURITY_PRESENT = ClassUtils.isPresent(
+      "org.springframework.security.core.context.SecurityContextHolder",
+      DatatablesParallelConversion.class.getClassLoader());
+
+  private final Executor executor;
+
+  private int threshold = DEFAULT_THRESHOLD;
+
+  private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+  private boolean detachedEntities = false;
+
+  /**
+   * Creates a new parallel conversion configuration.
+   * @param executor to convert the data chunks
+   */
+  public DatatablesParallelConversion(Executor executor) {
+    Assert.notNull(executor, "An executor is required to convert data in parallel");
+    this.executor = executor;
+  }
+
+  /**
+   * Returns the minimum number of data to convert in parallel.
+   * @return the threshold
+   */
+  public int getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Sets the minimum number of data to convert in parallel. Below this number,
+   * the data is converted sequentially.
+   * @param threshold the minimum number of data
+   */
+  public void setThreshold(int threshold) {
+    this.threshold = threshold;
+  }
+
+  /**
+   * Returns the number of data to convert in each chunk.
+   * @return the chunk size
+   */
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  /**
+   * Sets the number of data to convert in each chunk.
+   * @param chunkSize the number of data, must be greater than 0
+   */
+  public void setChunkSize(int chunkSize) {
+    Assert.isTrue(chunkSize > 0, "The chunk size must be greater than 0");
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Returns if the JPA entities to convert are detached, so they can be converted
+   * in parallel.
+   * @return if the JPA entities are detached
+   */
+  public boolean isDetachedEntities() {
+    return detachedEntities;
+  }
+
+  /**
+   * Sets if the JPA entities to convert are detached, and all the data used to convert them
+   * has already been loaded, so they can be converted in parallel. By default, JPA entities
+   * are converted sequentially in the current thread.
+   * @param detachedEntities if the JPA entities are detached
+   */
+  public void setDetachedEntities(boolean detachedEntities) {
+    this.detachedEntities = detachedEntities;
+  }
+
+  /**
+   * Converts the given objects to Maps of String values, in the same order.
+   *
+   * @param data the objects to convert
+   * @param properties the properties to convert, or null to convert all the object properties
+   * @param propertySeparator separator between the property names of object-properties
+   * @param conversionService to convert the property values to String
+   * @return the converted objects
+   */
+  List<Map<String, Object>> convertAll(List<?> data, String[] properties,
+      String propertySeparator, ConversionService conversionService) {
+    int size = data.size();
+    if (size < threshold || size <= chunkSize || isManagedEntity(data)) {
+      return DatatablesConversionPlan.convertAll(data, properties, propertySeparator,
+          conversionService);
+    }
+
+    List<FutureTask<List<Map<String, Object>>>> tasks =
+        new ArrayList<FutureTask<List<Map<String, Object>>>>(size / chunkSize + 1);
+    for (int from = chunkSize; from < size; from += chunkSize) {
+      List<?> chunk = data.subList(from, Math.min(from + chunkSize, size));
+      FutureTask<List<Map<String, Object>>> task = new FutureTask<List<Map<String, Object>>>(
+          new ChunkConversion(chunk, properties, propertySeparator, conversionService));
+      try {
+        executor.execute(task);
+      } catch (RejectedExecutionException ex) {
+        task.run();
+      }
+      tasks.add(task);
+    }
+
+    List<Map<String, Object>> converted = new ArrayList<Map<String, Object>>(size);
+    converted.addAll(DatatablesConversionPlan.convertAll(data.subList(0, chunkSize), properties,
+        propertySeparator, conversionService));
+    for (FutureTask<List<Map<String, Object>>> task : tasks) {
+      converted.addAll(getResult(task, tasks));
+    }
+    return converted;
+  }
+
+  /**
+   * Returns if any of the data is a JPA entity which might be managed by the persistence
+   * context of the current thread.
+   */
+  private boolean isManagedEntity(List<?> data) {
+    if (detachedEntities || ENTITY_ANNOTATION == null) {
+      return false;
+    }
+    Class<?> checkedType = null;
+    for (Object element : data) {
+      // The data is usually of a single type, so it is checked only once
+      if (element != null && element.getClass() != checkedType) {
+        checkedType = element.getClass();
+        if (AnnotationUtils.findAnnotation(checkedType, ENTITY_ANNOTATION) != null) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Class<? extends Annotation> getEntityAnnotation() {
+    ClassLoader classLoader = DatatablesParallelConversion.class.getClassLoader();
+    if (!ClassUtils.isPresent("javax.persistence.Entity", classLoader)) {
+      return null;
+    }
+    return (Class<? extends Annotation>) ClassUtils.resolveClassName("javax.persistence.Entity",
+        classLoader);
+  }
+
+  private static List<Map<String, Object>> getResult(FutureTask<List<Map<String, Object>>> task,
+      List<FutureTask<List<Map<String, Object>>>> tasks) {
+    try {
+      return task.get();
+    } catch (InterruptedException ex) {
+      cancelAll(tasks);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while converting the datatables data", ex);
+    } catch (ExecutionException ex) {
+      cancelAll(tasks);
+      ReflectionUtils.rethrowRuntimeException(ex.getCause());
+      return null;
+    }
+  }
+
+  private static void cancelAll(List<FutureTask<List<Map<String, Object>>>> tasks) {
+    for (FutureTask<List<Map<String, Object>>> task : tasks) {
+      task.cancel(true);
+    }
+  }
+
+  /**
+   * Converts a chunk of data with the {@link LocaleContext} and {@link SecurityContext}
+   * of the thread which created it.
+   */
+  private static final class ChunkConversion implements Callable<List<Map<String, Object>>> {
+
+    private final List<?> chunk;
+    private final String[] properties;
+    private final String propertySeparator;
+    private final ConversionService conversionService;
+    private final LocaleContext localeContext;
+    private final Object securityContext;
+
+    ChunkConversion(List<?> chunk, String[] properties, String propertySeparator,
+        ConversionService conversionService) {
+      this.chunk = chunk;
+      this.properties = properties;
+      this.propertySeparator = propertySeparator;
+      this.conversionService = conversionService;
+      this.localeContext = LocaleContextHolder.getLocaleContext();
+      this.securityContext = SECURITY_PRESENT ? SecurityContextPropagation.getContext() : null;
+    }
+
+    @Override
+    public List<Map<String, Object>> call() {
+      LocaleContext previousLocaleContext = LocaleContextHolder.getLocaleContext();
+      Object previousSecurityContext = null;
+      LocaleContextHolder.setLocaleContext(localeContext);
+      if (SECURITY_PRESENT) {
+        previousSecurityContext = SecurityContextPropagation.getContext();
+        SecurityContextPropagation.setContext(securityContext);
+      }
+      try {
+        return DatatablesConversionPlan.convertAll(chunk, properties, propertySeparator,
+            conversionService);
+      } finally {
+        LocaleContextHolder.setLocaleContext(previousLocaleContext);
+        if (SECURITY_PRESENT) {
+          SecurityContextPropagation.setContext(previousSecurityContext);
+        }
+      }
+    }
+  }
+
+  /**
+   * Inner class to avoid a hard dependency on Spring Security.
+   */
+  private static final class SecurityContextPropagation {
+
+    static Object getContext() {
+      return SecurityContextHolder.getContext();
+    }
+
+    static void setContext(Object context) {
+      if (context == null) {
+        SecurityContextHolder.clearContext();
+      } else {
+        SecurityContextHolder.setContext((SecurityContext) context);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,388 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.web.datatables;
+
+import io.springlets.data.web.datatables.Datatables.ColumnParamType;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * All the parameters sent by the datatables component in a data request, parsed
+ * in a single pass over the request parameters and without using regular expressions:
+ * *columns[i][...]*, *order[i][...]*, *search[...]*, *start*, *length* and *draw*.
+ *
+ * The parsed parameters are stored as a request attribute, so the request parameters
+ * are parsed only once, even if many datatables method arguments are resolved
+ * in the same request.
+ *
+ * Only the first value of each parameter is taken into account, and the column and
+ * order indexes are limited to three digits, as in the {@link Datatables} utilities.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ * @see https://datatables.net/manual/server-side
+ */
+public class DatatablesParameters {
+
+  private static final String PARAMETERS_ATTRIBUTE = DatatablesParameters.class.getName();
+
+  private static final String COLUMNS_PREFIX = "columns[";
+
+  private static final String ORDER_PREFIX = "order[";
+
+  private static final String SEARCH_VALUE = "search[value]";
+
+  private static final String SEARCH_REGEX = "search[regex]";
+
+  private static final int MAX_INDEX_DIGITS = 3;
+
+  private static final int ORDER_COLUMN = 0;
+
+  private static final int ORDER_DIR = 1;
+
+  private static final ColumnParamType[] COLUMN_PARAM_TYPES = ColumnParamType.values();
+
+  private final List<String[]> columns = new ArrayList<String[]>();
+
+  private final List<String[]> orders = new ArrayList<String[]>();
+
+  private int orderCount;
+
+  private String searchValue;
+
+  private String searchRegex;
+
+  private String start;
+
+  private String length;
+
+  private String draw;
+
+  private DatatablesParameters() {
+    // Use the parse or get methods instead
+  }
+
+  /**
+   * Returns the datatables parameters of the given request, parsing them only the first time
+   * they are requested in the current request.
+   *
+   * @param request the current request
+   * @return the datatables parameters
+   */
+  public static DatatablesParameters get(NativeWebRequest request) {
+    DatatablesParameters parameters = getParsed(request);
+    if (parameters == null) {
+      parameters = parse(request.getParameterMap());
+      request.setAttribute(PARAMETERS_ATTRIBUTE, parameters, RequestAttributes.SCOPE_REQUEST);
+    }
+    return parameters;
+  }
+
+  /**
+   * Returns the datatables parameters of the given request only if they have already
+   * been parsed in the current request.
+   *
+   * @param request the current request
+   * @return the datatables parameters, or null if they have not been parsed yet
+   */
+  public static DatatablesParameters getParsed(NativeWebRequest request) {
+    Object parameters =
+        request.getAttribute(PARAMETERS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    return parameters instanceof DatatablesParameters ? (DatatablesParameters) parameters : null;
+  }
+
+  /**
+   * Parses the datatables parameters from the given parameters.
+   *
+   * @param parameterMap the request parameters
+   * @return the datatables parameters
+   */
+  public static DatatablesParameters parse(Map<String, String[]> parameterMap) {
+    DatatablesParameters parameters = new DatatablesParameters();
+    if (parameterMap != null) {
+      for (Entry<String, String[]> entry : parameterMap.entrySet()) {
+        parameters.add(entry.getKey(), entry.getValue());
+      }
+    }
+    return parameters;
+  }
+
+  /**
+   * Returns the index of the order position of an *order[i][column]* parameter.
+   *
+   * @param name the parameter name
+   * @return the order position, or -1 if the parameter is not an *order[i][column]* one
+   */
+  static int orderColumnIndex(String name) {
+    if (name == null || !name.startsWith(ORDER_PREFIX)) {
+      return -1;
+    }
+    int end = indexEnd(name, ORDER_PREFIX.length());
+    if (end < 0) {
+      return -1;
+    }
+    int index = parseIndex(name, ORDER_PREFIX.length(), end);
+    return orderField(name, end + 1) == ORDER_COLUMN ? index : -1;
+  }
+
+  private void add(String name, String[] values) {
+    if (name == null || name.isEmpty()) {
+      return;
+    }
+    String value = values == null || values.length == 0 ? null : values[0];
+    switch (name.charAt(0)) {
+      case 'c':
+        addColumn(name, value);
+        break;
+      case 'o':
+        addOrder(name, value);
+        break;
+      case 's':
+        if (SEARCH_VALUE.equals(name)) {
+          searchValue = value;
+        } else if (SEARCH_REGEX.equals(name)) {
+          searchRegex = value;
+        } else if (Datatables.PARAMETER_START.equals(name)) {
+          start = value;
+        }
+        break;
+      case 'l':
+        if (Datatables.PARAMETER_LENGTH.equals(name)) {
+          length = value;
+        }
+        break;
+      case 'd':
+        if (Datatables.PARAMETER_DRAW.equals(name)) {
+          draw = value;
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void addColumn(String name, String value) {
+    if (!name.startsWith(COLUMNS_PREFIX)) {
+      return;
+    }
+    int end = indexEnd(name, COLUMNS_PREFIX.length());
+    if (end < 0) {
+      return;
+    }
+    ColumnParamType type = columnParamType(name, end + 1);
+    if (type != null) {
+      int index = parseIndex(name, COLUMNS_PREFIX.length(), end);
+      getOrCreate(columns, index, COLUMN_PARAM_TYPES.length)[type.ordinal()] = value;
+    }
+  }
+
+  private void addOrder(String name, String value) {
+    if (!name.startsWith(ORDER_PREFIX)) {
+      return;
+    }
+    int end = indexEnd(name, ORDER_PREFIX.length());
+    if (end < 0) {
+      return;
+    }
+    int field = orderField(name, end + 1);
+    if (field >= 0) {
+      int index = parseIndex(name, ORDER_PREFIX.length(), end);
+      getOrCreate(orders, index, 2)[field] = value;
+      if (field == ORDER_COLUMN && index >= orderCount) {
+        orderCount = index + 1;
+      }
+    }
+  }
+
+  /**
+   * Returns the position of the ']' which closes an index of up to three digits
+   * starting in the given position, or -1 if there is not a valid index.
+   */
+  private static int indexEnd(String name, int from) {
+    int pos = from;
+    while (pos < name.length() && pos - from <= MAX_INDEX_DIGITS) {
+      char current = name.charAt(pos);
+      if (current == ']') {
+        return pos > from ? pos : -1;
+      }
+      if (current < '0' || current > '9') {
+        return -1;
+      }
+      pos++;
+    }
+    return -1;
+  }
+
+  private static int parseIndex(String name, int from, int end) {
+    int index = 0;
+    for (int i = from; i < end; i++) {
+      index = index * 10 + (name.charAt(i) - '0');
+    }
+    return index;
+  }
+
+  /**
+   * Returns the column parameter type of the rest of a *columns[i]* parameter name,
+   * like *[data]* or *[search][regex]*.
+   */
+  private static ColumnParamType columnParamType(String name, int from) {
+    if (name.startsWith("[data]", from)) {
+      return ColumnParamType.DATA;
+    }
+    if (name.startsWith("[name]", from)) {
+      return ColumnParamType.NAME;
+    }
+    if (name.startsWith("[searchable]", from)) {
+      return ColumnParamType.SEARCHABLE;
+    }
+    if (name.startsWith("[orderable]", from)) {
+      return ColumnParamType.ORDERABLE;
+    }
+    if (name.startsWith("[regex]", from)) {
+      return ColumnParamType.REGEX;
+    }
+    if (name.startsWith("[search]", from)) {
+      return name.endsWith("[search][regex]") ? ColumnParamType.REGEX : ColumnParamType.SEARCH;
+    }
+    return null;
+  }
+
+  /**
+   * Returns the order field of the rest of an *order[i]* parameter name,
+   * or -1 if it is not *[column]* or *[dir]*.
+   */
+  private static int orderField(String name, int from) {
+    if (name.startsWith("[column]", from)) {
+      return ORDER_COLUMN;
+    }
+    if (name.startsWith("[dir]", from)) {
+      return ORDER_DIR;
+    }
+    return -1;
+  }
+
+  private static String[] getOrCreate(List<String[]> list, int index, int size) {
+    while (list.size() <= index) {
+      list.add(null);
+    }
+    String[] values = list.get(index);
+    if (values == null) {
+      values = new String[size];
+      list.set(index, values);
+    }
+    return values;
+  }
+
+  private static String getValue(List<String[]> list, int index, int field) {
+    if (index < 0 || index >= list.size()) {
+      return null;
+    }
+    String[] values = list.get(index);
+    return values == null ? null : values[field];
+  }
+
+  /**
+   * Returns the number of column positions, that is, the highest column index
+   * with a parameter plus one.
+   * @return the number of column positions
+   */
+  public int getColumnCount() {
+    return columns.size();
+  }
+
+  /**
+   * Returns the value of a column parameter.
+   * @param index the column index
+   * @param type the column parameter type
+   * @return the parameter value, or null if it has not been sent
+   */
+  public String getColumnParameter(int index, ColumnParamType type) {
+    return getValue(columns, index, type.ordinal());
+  }
+
+  /**
+   * Returns the number of order positions, that is, the highest position with an
+   * *order[i][column]* parameter plus one.
+   * @return the number of order positions
+   */
+  public int getOrderCount() {
+    return orderCount;
+  }
+
+  /**
+   * Returns the value of the *order[i][column]* parameter in the given position.
+   * @param pos the order position
+   * @return the index of the column to order by, or null if it has not been sent
+   */
+  public String getOrderColumn(int pos) {
+    return getValue(orders, pos, ORDER_COLUMN);
+  }
+
+  /**
+   * Returns the value of the *order[i][dir]* parameter in the given position.
+   * @param pos the order position
+   * @return the order direction, or null if it has not been sent
+   */
+  public String getOrderDirection(int pos) {
+    return getValue(orders, pos, ORDER_DIR);
+  }
+
+  /**
+   * Returns the value of the *search[value]* parameter.
+   * @return the global search text
+   */
+  public String getSearchValue() {
+    return searchValue;
+  }
+
+  /**
+   * Returns the value of the *search[regex]* parameter.
+   * @return if the global search text is a regular expression
+   */
+  public String getSearchRegex() {
+    return searchRegex;
+  }
+
+  /**
+   * Returns the value of the *start* parameter.
+   * @return the paging first record indicator
+   */
+  public String getStart() {
+    return start;
+  }
+
+  /**
+   * Returns the value of the *length* parameter.
+   * @return the number of records to show
+   */
+  public String getLength() {
+    return length;
+  }
+
+  /**
+   * Returns the value of the *draw* parameter.
+   * @return the draw counter
+   */
+  public String getDraw() {
+    return draw;
+  }
+
+}
@@ -15,6 +15,8 @@
  */
 package io.springlets.data.web.datatables;
 
+import io.springlets.data.web.datatables.Datatables.ColumnParamType;
+
 import org.springframework.core.MethodParameter;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.domain.Sort.Order;
@@ -26,8 +28,6 @@ import org.springframework.web.method.support.ModelAndViewContainer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Resolves controller method parameters of type {@link DatatablesSort}.
@@ -69,7 +69,7 @@ public class DatatablesSortHandlerMethodArgumentResolver extends SortHandlerMeth
       WebDataBinderFactory binderFactory) {
 
     DatatablesSort sort =
-        new SortParametersParser(maxOrderedColumns, request.getParameterMap()).getSort();
+        new SortParametersParser(maxOrderedColumns, DatatablesParameters.get(request)).getSort();
 
     return sort;
   }
@@ -83,10 +83,8 @@ public class DatatablesSortHandlerMethodArgumentResolver extends SortHandlerMeth
    */
   static class SortParametersParser {
 
-    private static final Pattern PATTERN = Pattern.compile("order\\[([0-9]{1,3})?\\]\\[column\\]");
-
     private final int maxColumnCount;
-    private Map<String, String[]> parameters;
+    private DatatablesParameters parameters;
 
     /**
      * Crea una instancia con un número máximo de columnas soportadas para
@@ -98,6 +96,16 @@ public class DatatablesSortHandlerMethodArgumentResolver extends SortHandlerMeth
      * @param map
      */
     public SortParametersParser(int maxOrderedColumns, Map<String, String[]> parameters) {
+      this(maxOrderedColumns, DatatablesParameters.parse(parameters));
+    }
+
+    /**
+     * Creates a new instance with a maximum number of columns to order by.
+     *
+     * @param maxOrderedColumns maximum number of columns to order by
+     * @param parameters the already parsed datatables parameters
+     */
+    public SortParametersParser(int maxOrderedColumns, DatatablesParameters parameters) {
       this.maxColumnCount = maxOrderedColumns;
       this.parameters = parameters;
     }
@@ -118,20 +126,7 @@ public class DatatablesSortHandlerMethodArgumentResolver extends SortHandlerMeth
      */
     int getColumnCount() {
 
-      if (parameters == null || parameters.isEmpty()) {
-        return 0;
-      }
-
-      int columnCount = -1;
-      for (String paramName : parameters.keySet()) {
-        int columnNumber = getColumnPosition(paramName);
-        if (columnNumber > columnCount) {
-          columnCount = columnNumber;
-        }
-      }
-
-      // The column array is zero based
-      columnCount++;
+      int columnCount = parameters.getOrderCount();
 
       // Just in case there is an error or someone is tampering with the parameters
       return columnCount > maxColumnCount ? maxColumnCount : columnCount;
@@ -148,15 +143,7 @@ public class DatatablesSortHandlerMethodArgumentResolver extends SortHandlerMeth
      */
 
     static int getColumnPosition(String paramName) {
-      Matcher matcher = PATTERN.matcher(paramName);
-      while (matcher.find()) {
-        try {
-          return Integer.parseInt(matcher.group(1));
-        } catch (NumberFormatException ex) {
-          // Ignore number, it has a format error or its is not a number
-        }
-      }
-      return -1;
+      return DatatablesParameters.orderColumnIndex(paramName);
     }
     /**
      * Returns the name of the property whose datatables column is available
@@ -168,13 +155,19 @@ public class DatatablesSortHandlerMethodArgumentResolver extends SortHandlerMeth
      * @return the name of the property
      */
     String getPropertyNameInOrderPosition(int pos) {
-      String columnPosition = getParameter(Datatables.orderColumnIndexParameter(pos));
+      String columnPosition = parameters.getOrderColumn(pos);
 
       if (columnPosition == null) {
         return null;
       }
 
-      return getParameter(Datatables.columnNameParameter(columnPosition));
+      try {
+        return parameters.getColumnParameter(Integer.parseInt(columnPosition),
+            ColumnParamType.DATA);
+      } catch (NumberFormatException ex) {
+        // Ignore column position, it has a format error or its is not a number
+        return null;
+      }
     }
 
     /**
@@ -184,7 +177,7 @@ public class DatatablesSortHandlerMethodArgumentResolver extends SortHandlerMeth
      * @return the ordering {@link Direction}
      */
     Direction getOrderDirection(int pos) {
-      String direction = getParameter(Datatables.orderDirectionParameter(pos));
+      String direction = parameters.getOrderDirection(pos);
       if ("desc".equals(direction)) {
         return Direction.DESC;
       }
@@ -232,11 +225,6 @@ public class DatatablesSortHandlerMethodArgumentResolver extends SortHandlerMeth
 
       return new DatatablesSort(orderList);
     }
-
-    private String getParameter(String name) {
-      String[] values = parameters.get(name);
-      return (values == null || values.length == 0) ? null : values[0];
-    }
   }
 
 }
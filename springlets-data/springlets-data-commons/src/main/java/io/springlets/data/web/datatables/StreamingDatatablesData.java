@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.web.datatables;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import io.springlets.data.domain.KeysetPage;
+
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Response data for data requests performed by datatables component, which converts
+ * the data the same way as {@link ConvertedDatatablesData}, but while it is being
+ * serialized to JSON.
+ *
+ * Instead of creating a Map of String values for each object before serializing
+ * the response, the {@link StreamingDatatablesDataSerializer} converts each property
+ * value through the {@link ConversionService} and writes it directly to the JSON output,
+ * so no intermediate data is kept in memory. This is useful for responses with
+ * lots of rows.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ *
+ * @param <T> Response data type
+ */
+@JsonSerialize(using = StreamingDatatablesDataSerializer.class)
+public class StreamingDatatablesData<T> extends DatatablesData<T> {
+
+  private final ConversionService conversionService;
+  private final DatatablesColumns columns;
+  private final String propertySeparator;
+
+  /**
+   * Create a response for datatables with data obtained from a previous request.
+   *
+   * @param data the data to show
+   * @param recordsTotal the total number of available data
+   * @param draw counts datatables requests. It must be sent by datatables value
+   * in the data request.
+   * @param conversionService to convert the data values to String
+   */
+  public StreamingDatatablesData(Page<T> data, Long recordsTotal, Integer draw,
+      ConversionService conversionService) {
+    this(data.getContent(), recordsTotal, data.getTotalElements(), draw, conversionService, null,
+        ConvertedDatatablesData.DEFAULT_PROPERTY_SEPARATOR);
+    setCursor(KeysetPage.getNextCursorToken(data));
+  }
+
+  /**
+   * Create a response for datatables with data obtained from a previous request.
+   *
+   * @param data the data to show
+   * @param recordsTotal the total number of available data
+   * @param draw counts datatables requests. It must be sent by datatables value
+   * in the data request.
+   * @param conversionService to convert the data values to String
+   * @param columns parameters sent by datatables
+   */
+  public StreamingDatatablesData(Page<T> data, Long recordsTotal, Integer draw,
+      ConversionService conversionService, DatatablesColumns columns) {
+    this(data.getContent(), recordsTotal, data.getTotalElements(), draw, conversionService, columns,
+        ConvertedDatatablesData.DEFAULT_PROPERTY_SEPARATOR);
+    setCursor(KeysetPage.getNextCursorToken(data));
+  }
+
+  /**
+   * Create a response for datatables with data obtained from a previous request.
+   *
+   * @param data the data to show
+   * @param recordsTotal the total number of available data
+   * @param recordsFiltered the number of data after filtering
+   * @param draw counts datatables requests. It must be sent by datatables value
+   * in the data request.
+   * @param conversionService to convert the data values to String
+   * @param columns parameters sent by datatables
+   * @param propertySeparator String to use as separator when use properties of
+   *             object-properties (WARNING: don't use "." [dot]
+   *             see https://github.com/DISID/springlets/issues/64)
+   */
+  public StreamingDatatablesData(List<T> data, Long recordsTotal, Long recordsFiltered,
+      Integer draw, ConversionService conversionService, DatatablesColumns columns,
+      String propertySeparator) {
+    super(data, recordsTotal, recordsFiltered, draw, null);
+    this.conversionService = conversionService;
+    this.columns = columns;
+    this.propertySeparator = propertySeparator != null ? propertySeparator
+        : ConvertedDatatablesData.DEFAULT_PROPERTY_SEPARATOR;
+  }
+
+  /**
+   * Returns the service used to convert the data values to String.
+   * @return the conversion service
+   */
+  public ConversionService getConversionService() {
+    return conversionService;
+  }
+
+  /**
+   * Returns the columns parameters sent by datatables, which define the
+   * properties to write for each object.
+   * @return the columns, or null to write all the object properties
+   */
+  public DatatablesColumns getColumns() {
+    return columns;
+  }
+
+  /**
+   * Returns the separator between the property names of object-properties.
+   * @return the property separator
+   */
+  public String getPropertySeparator() {
+    return propertySeparator;
+  }
+}
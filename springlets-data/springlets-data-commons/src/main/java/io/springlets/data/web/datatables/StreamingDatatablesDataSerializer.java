@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.web.datatables;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import org.springframework.core.convert.ConversionService;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Jackson Serializer which writes a {@link StreamingDatatablesData} with the same JSON
+ * structure as a {@link ConvertedDatatablesData}, converting each property value
+ * to String while it is being written, without creating a Map for each object.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+@SuppressWarnings("rawtypes")
+public class StreamingDatatablesDataSerializer extends JsonSerializer<StreamingDatatablesData> {
+
+  @Override
+  public void serialize(StreamingDatatablesData value, JsonGenerator jgen,
+      SerializerProvider provider) throws IOException {
+    jgen.writeStartObject();
+    jgen.writeFieldName("data");
+    writeData(value, jgen);
+    provider.defaultSerializeField("recordsTotal", value.getRecordsTotal(), jgen);
+    provider.defaultSerializeField("recordsFiltered", value.getRecordsFiltered(), jgen);
+    provider.defaultSerializeField("draw", value.getDraw(), jgen);
+    provider.defaultSerializeField("error", value.getError(), jgen);
+    if (value.getCursor() != null) {
+      jgen.writeStringField("cursor", value.getCursor());
+    }
+    jgen.writeEndObject();
+  }
+
+  @Override
+  public Class<StreamingDatatablesData> handledType() {
+    return StreamingDatatablesData.class;
+  }
+
+  private void writeData(StreamingDatatablesData value, JsonGenerator jgen) throws IOException {
+    List<?> data = value.getData();
+    if (data == null) {
+      jgen.writeNull();
+      return;
+    }
+
+    ConversionService conversionService = value.getConversionService();
+    String[] properties = DatatablesConversionPlan.getColumnProperties(value.getColumns());
+    String propertySeparator = value.getPropertySeparator();
+    DatatablesConversionPlan plan = null;
+
+    jgen.writeStartArray();
+    for (Object row : data) {
+      if (plan == null || !plan.getType().equals(row.getClass())) {
+        plan = DatatablesConversionPlan.forType(row.getClass(), properties, propertySeparator);
+      }
+      writeRow(row, plan, conversionService, jgen);
+    }
+    jgen.writeEndArray();
+  }
+
+  private void writeRow(Object row, DatatablesConversionPlan plan,
+      ConversionService conversionService, JsonGenerator jgen) throws IOException {
+    jgen.writeStartObject();
+    for (int i = 0; i < plan.size(); i++) {
+      String convertedValue = plan.convert(row, i, conversionService);
+      if (convertedValue != null) {
+        jgen.writeStringField(plan.getName(i), convertedValue);
+      } else if (!plan.isOmitNullValues()) {
+        jgen.writeNullField(plan.getName(i));
+      }
+    }
+    jgen.writeEndObject();
+  }
+
+}
@@ -15,6 +15,10 @@
  */
 package io.springlets.data.web.select2;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.springlets.data.domain.KeysetPage;
+
 import org.springframework.data.domain.Page;
 import org.springframework.util.Assert;
 
@@ -73,7 +77,7 @@ public abstract class Select2DataSupport<T> {
    * @return the pagination information
    */
   public Pagination getPagination() {
-    return new Pagination(!page.isLast());
+    return new Pagination(!page.isLast(), KeysetPage.getNextCursorToken(page));
   }
 
   /**
@@ -133,13 +137,24 @@ public abstract class Select2DataSupport<T> {
    */
   protected static class Pagination {
     private final boolean more;
+    private final String cursor;
 
     /**
      * Creates a new {@link Pagination}.
      * @param more if there is more data available in following pages
      */
     public Pagination(boolean more) {
+      this(more, null);
+    }
+
+    /**
+     * Creates a new {@link Pagination} for data loaded with keyset pagination.
+     * @param more if there is more data available in following pages
+     * @param cursor the token of the cursor to load the following page
+     */
+    public Pagination(boolean more, String cursor) {
       this.more = more;
+      this.cursor = cursor;
     }
 
     /**
@@ -149,6 +164,17 @@ public abstract class Select2DataSupport<T> {
     public boolean isMore() {
       return more;
     }
+
+    /**
+     * The token of the cursor to load the following page, if the data has
+     * been loaded with keyset pagination. It is not included in the response
+     * if there isn't any.
+     * @return the cursor token, or null
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getCursor() {
+      return cursor;
+    }
   }
 
   protected Data<T> createData(T element) {
@@ -16,6 +16,8 @@
 package io.springlets.data.domain;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
@@ -55,4 +57,13 @@ public class GlobalSearchTest {
     assertFalse(search.matches("testABC"));
   }
 
+  @Test
+  public void regexpIsCompiledOnlyOnce() {
+    GlobalSearch search = new GlobalSearch("te.t", true);
+
+    assertSame(search.getPattern(), search.getPattern());
+    assertTrue(search.matches("text"));
+    assertNull(new GlobalSearch("test").getPattern());
+  }
+
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Arrays;
+
+/**
+ * Unit tests for the {@link KeysetCursor} and {@link KeysetPage} classes.
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class KeysetCursorTest {
+
+  @Test
+  public void shouldDecodeEncodedCursor() {
+    // Prepare
+    KeysetCursor cursor =
+        new KeysetCursor("a1b2", 20, Arrays.asList("Smith, John", null, "", "1:2", "42"));
+
+    // Exercise
+    String token = cursor.encode();
+    KeysetCursor decoded = KeysetCursor.decode(token);
+
+    // Validate
+    assertThat(token).matches("[A-Za-z0-9_=-]+");
+    assertThat(decoded).isEqualTo(cursor);
+    assertThat(decoded.getOffset()).isEqualTo(20L);
+    assertThat(decoded.getValues()).containsExactly("Smith, John", null, "", "1:2", "42");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectInvalidTokens() {
+    // Exercise
+    KeysetCursor.decode(new KeysetCursor("key", 2, Arrays.asList("value")).encode() + "AAA");
+  }
+
+  @Test
+  public void shouldProvideTheNextCursorTokenOfAKeysetPage() {
+    // Prepare
+    KeysetCursor cursor = new KeysetCursor("key", 2, Arrays.asList("3"));
+    KeysetPage<String> page =
+        new KeysetPage<String>(Arrays.asList("a", "b"), new PageRequest(0, 2), 10, cursor);
+    KeysetPage<String> lastPage =
+        new KeysetPage<String>(Arrays.asList("c"), new PageRequest(0, 2), 10, null);
+
+    // Exercise
+    String token = KeysetPage.getNextCursorToken(page);
+
+    // Validate
+    assertThat(KeysetCursor.decode(token)).isEqualTo(cursor);
+    assertThat(page.hasNext()).isTrue();
+    assertThat(lastPage.isLast()).isTrue();
+    assertThat(KeysetPage.getNextCursorToken(lastPage)).isNull();
+    assertThat(KeysetPage.getNextCursorToken(new PageImpl<String>(Arrays.asList("a")))).isNull();
+  }
+
+}
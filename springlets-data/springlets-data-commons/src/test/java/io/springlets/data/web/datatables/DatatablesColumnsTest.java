@@ -64,4 +64,38 @@ public class DatatablesColumnsTest {
     });
   }
 
+  @Test
+  public void checkSearchableAndOrderableColumnsAreAvailable() {
+    columns.setData(0, "data0");
+    columns.setSearchable(0, true);
+    columns.setData(2, "data2");
+    columns.setOrderable(2, true);
+
+    assertThat(columns.getColumnList()).hasSize(2);
+    assertThat(columns.getSearchableColumns()).extracting("data").containsExactly("data0");
+    assertThat(columns.getOrderableColumns()).extracting("data").containsExactly("data2");
+    assertThat(columns.getColumn(1)).isNull();
+    assertThat(columns.getColumn(2).getData()).isEqualTo("data2");
+  }
+
+  @Test
+  public void checkColumnsAreNotCopiedUntilChanged() {
+    columns.setData(0, "data0");
+    Iterable<Column> first = columns.getColumns();
+
+    assertThat(columns.getColumns()).isSameAs(first);
+
+    columns.setData(1, "data1");
+
+    assertThat(columns.getColumns()).isNotSameAs(first).hasSize(2);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void checkReadOnlyColumnsCantBeChanged() {
+    columns.setData(0, "data0");
+    columns.setReadOnly();
+
+    columns.setData(0, "other");
+  }
+
 }
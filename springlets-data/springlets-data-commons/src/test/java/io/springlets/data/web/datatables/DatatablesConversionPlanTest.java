@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.web.datatables;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import java.util.Map;
+
+/**
+ * Unit tests for the {@link DatatablesConversionPlan} class.
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class DatatablesConversionPlanTest {
+
+  private final ConversionService conversionService = new DefaultConversionService();
+
+  @Test
+  public void shouldReuseThePlanForTheSameTypeAndColumns() {
+    // Prepare
+    DatatablesColumns columns = createColumns("id", "owner/name");
+    DatatablesColumns sameColumns = createColumns("id", "owner/name");
+
+    // Exercise
+    DatatablesConversionPlan plan = DatatablesConversionPlan.forType(Pet.class, columns, "/");
+    DatatablesConversionPlan samePlan =
+        DatatablesConversionPlan.forType(Pet.class, sameColumns, "/");
+
+    // Validate
+    assertThat(samePlan).isSameAs(plan);
+  }
+
+  @Test
+  public void shouldConvertNestedProperties() {
+    // Prepare
+    DatatablesConversionPlan plan =
+        DatatablesConversionPlan.forType(Pet.class, createColumns("id", "owner/name"), "/");
+
+    // Exercise
+    Map<String, Object> withOwner =
+        plan.convert(new Pet(1L, new Owner("Alice")), conversionService);
+    Map<String, Object> withoutOwner = plan.convert(new Pet(2L, null), conversionService);
+
+    // Validate
+    assertThat(withOwner).containsEntry("id", "1").containsEntry("owner/name", "Alice");
+    assertThat(withoutOwner).containsEntry("id", "2").containsEntry("owner/name", null);
+  }
+
+  @Test
+  public void shouldOmitNotConvertiblePropertiesWithoutColumns() {
+    // Prepare
+    DatatablesConversionPlan plan = DatatablesConversionPlan.forType(Pet.class,
+        (DatatablesColumns) null, "/");
+
+    // Exercise
+    Map<String, Object> converted = plan.convert(new Pet(1L, null), conversionService);
+
+    // Validate
+    assertThat(converted).containsEntry("id", "1").doesNotContainKey("owner");
+  }
+
+  private DatatablesColumns createColumns(String... properties) {
+    DatatablesColumns columns = new DatatablesColumns();
+    for (int i = 0; i < properties.length; i++) {
+      columns.setData(i, properties[i]);
+    }
+    return columns;
+  }
+
+  public static class Pet {
+
+    private final Long id;
+    private final Owner owner;
+
+    Pet(Long id, Owner owner) {
+      this.id = id;
+      this.owner = owner;
+    }
+
+    public Long getId() {
+      return id;
+    }
+
+    public Owner getOwner() {
+      return owner;
+    }
+  }
+
+  public static class Owner {
+
+    private final String name;
+
+    Owner(String name) {
+      this.name = name;
+    }
+
+    public String getName() {
+      return name;
+    }
+  }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.web.datatables;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Unit tests for the {@link DatatablesParallelConversion} class.
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class DatatablesParallelConversionTest {
+
+  private ExecutorService executor;
+
+  private DatatablesParallelConversion parallelConversion;
+
+  private DefaultConversionService conversionService;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(2);
+    parallelConversion = new DatatablesParallelConversion(executor);
+    parallelConversion.setThreshold(10);
+    parallelConversion.setChunkSize(3);
+
+    // Converts the ids including the current locale
+    conversionService = new DefaultConversionService();
+    conversionService.addConverter(new Converter<Long, String>() {
+
+      @Override
+      public String convert(Long source) {
+        return source + "-" + LocaleContextHolder.getLocale();
+      }
+    });
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+    LocaleContextHolder.resetLocaleContext();
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Test
+  public void shouldConvertInParallelPreservingOrderAndLocale() {
+    // Prepare
+    LocaleContextHolder.setLocale(new Locale("ca"));
+    List<Item> items = createItems(25);
+
+    // Exercise
+    List<Map<String, Object>> converted =
+        parallelConversion.convertAll(items, new String[] {"id"}, "/", conversionService);
+
+    // Validate
+    assertThat(converted).hasSize(25);
+    for (int i = 0; i < 25; i++) {
+      assertThat(converted.get(i)).containsEntry("id", i + "-ca");
+    }
+  }
+
+  @Test
+  public void shouldConvertSequentiallyBelowThreshold() {
+    // Prepare
+    executor.shutdownNow();
+    List<Item> items = createItems(9);
+
+    // Exercise
+    List<Map<String, Object>> converted =
+        parallelConversion.convertAll(items, new String[] {"id"}, "/", conversionService);
+
+    // Validate
+    assertThat(converted).hasSize(9);
+    assertThat(converted.get(8)).containsEntry("id", "8-" + LocaleContextHolder.getLocale());
+  }
+
+  @Test
+  public void shouldNotShareTheRequestAttributesWithTheChunkThreads() {
+    // Prepare
+    final RequestAttributes requestAttributes = mock(RequestAttributes.class);
+    RequestContextHolder.setRequestAttributes(requestAttributes);
+    DefaultConversionService requestConversionService = new DefaultConversionService();
+    requestConversionService.addConverter(new Converter<Long, String>() {
+
+      @Override
+      public String convert(Long source) {
+        return String.valueOf(RequestContextHolder.getRequestAttributes() == requestAttributes);
+      }
+    });
+    List<Item> items = createItems(25);
+
+    // Exercise
+    List<Map<String, Object>> converted = parallelConversion.convertAll(items,
+        new String[] {"id"}, "/", requestConversionService);
+
+    // Validate: only the first chunk is converted in the current thread
+    for (int i = 0; i < 25; i++) {
+      assertThat(converted.get(i)).containsEntry("id", String.valueOf(i < 3));
+    }
+  }
+
+  private List<Item> createItems(int size) {
+    List<Item> items = new ArrayList<Item>(size);
+    for (long i = 0; i < size; i++) {
+      items.add(new Item(i));
+    }
+    return items;
+  }
+
+  public static class Item {
+
+    private final Long id;
+
+    Item(Long id) {
+      this.id = id;
+    }
+
+    public Long getId() {
+      return id;
+    }
+  }
+
+}
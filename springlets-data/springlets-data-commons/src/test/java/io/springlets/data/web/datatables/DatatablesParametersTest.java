@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.web.datatables;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.springlets.data.web.datatables.Datatables.ColumnParamType;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit tests for the {@link DatatablesParameters} class.
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DatatablesParametersTest {
+
+  @Mock
+  private NativeWebRequest request;
+
+  @Test
+  public void shouldParseAllTheDatatablesParameters() {
+    // Prepare
+    Map<String, String[]> map = new HashMap<String, String[]>();
+    map.put("draw", new String[] {"3"});
+    map.put("start", new String[] {"20"});
+    map.put("length", new String[] {"10"});
+    map.put("search[value]", new String[] {"text"});
+    map.put("search[regex]", new String[] {"false"});
+    map.put("columns[1][data]", new String[] {"name"});
+    map.put("columns[1][searchable]", new String[] {"true"});
+    map.put("columns[1][search][value]", new String[] {"search1"});
+    map.put("columns[1][search][regex]", new String[] {"true"});
+    map.put("order[0][column]", new String[] {"1"});
+    map.put("order[0][dir]", new String[] {"desc"});
+    map.put("other", new String[] {"value"});
+
+    // Exercise
+    DatatablesParameters parameters = DatatablesParameters.parse(map);
+
+    // Validate
+    assertThat(parameters.getDraw()).isEqualTo("3");
+    assertThat(parameters.getStart()).isEqualTo("20");
+    assertThat(parameters.getLength()).isEqualTo("10");
+    assertThat(parameters.getSearchValue()).isEqualTo("text");
+    assertThat(parameters.getSearchRegex()).isEqualTo("false");
+    assertThat(parameters.getColumnCount()).isEqualTo(2);
+    assertThat(parameters.getColumnParameter(0, ColumnParamType.DATA)).isNull();
+    assertThat(parameters.getColumnParameter(1, ColumnParamType.DATA)).isEqualTo("name");
+    assertThat(parameters.getColumnParameter(1, ColumnParamType.SEARCHABLE)).isEqualTo("true");
+    assertThat(parameters.getColumnParameter(1, ColumnParamType.SEARCH)).isEqualTo("search1");
+    assertThat(parameters.getColumnParameter(1, ColumnParamType.REGEX)).isEqualTo("true");
+    assertThat(parameters.getOrderCount()).isEqualTo(1);
+    assertThat(parameters.getOrderColumn(0)).isEqualTo("1");
+    assertThat(parameters.getOrderDirection(0)).isEqualTo("desc");
+  }
+
+  @Test
+  public void shouldIgnoreInvalidIndexes() {
+    // Prepare
+    Map<String, String[]> map = new HashMap<String, String[]>();
+    map.put("columns[a][data]", new String[] {"a"});
+    map.put("columns[1000][data]", new String[] {"1000"});
+    map.put("columns[][data]", new String[] {"empty"});
+    map.put("order[1x][column]", new String[] {"1"});
+
+    // Exercise
+    DatatablesParameters parameters = DatatablesParameters.parse(map);
+
+    // Validate
+    assertThat(parameters.getColumnCount()).isZero();
+    assertThat(parameters.getOrderCount()).isZero();
+  }
+
+  @Test
+  public void shouldParseTheRequestParametersOnlyOnce() {
+    // Prepare
+    Map<String, String[]> map = new HashMap<String, String[]>();
+    map.put("draw", new String[] {"1"});
+    when(request.getParameterMap()).thenReturn(map);
+
+    // Exercise
+    DatatablesParameters parameters = DatatablesParameters.get(request);
+
+    // Validate
+    assertThat(parameters.getDraw()).isEqualTo("1");
+    verify(request, times(1)).setAttribute(any(String.class), eq(parameters),
+        eq(RequestAttributes.SCOPE_REQUEST));
+  }
+
+}
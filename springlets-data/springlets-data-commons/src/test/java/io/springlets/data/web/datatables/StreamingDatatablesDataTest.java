@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.web.datatables;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.Test;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit tests for the {@link StreamingDatatablesData} class and its
+ * {@link StreamingDatatablesDataSerializer}.
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class StreamingDatatablesDataTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  private final ConversionService conversionService = new DefaultConversionService();
+
+  private final List<Customer> customers = Arrays.asList(new Customer(1L, "Alice", "Barcelona"),
+      new Customer(2L, "Bob", null));
+
+  @Test
+  public void shouldWriteTheSameJsonAsConvertedDataWithColumns() throws Exception {
+    // Prepare
+    DatatablesColumns columns = new DatatablesColumns();
+    columns.setData(0, "id");
+    columns.setData(1, "name");
+    columns.setData(2, "address/city");
+    columns.setData(3, "name");
+
+    // Exercise
+    JsonNode streamed = toJson(new StreamingDatatablesData<Customer>(customers, 10L, 2L, 3,
+        conversionService, columns, null));
+    JsonNode converted = toJson(new ConvertedDatatablesData<Customer>(customers, 10L, 2L, 3,
+        conversionService, columns, null));
+
+    // Validate
+    assertThat(streamed).isEqualTo(converted);
+    assertThat(streamed.get("data").get(0).get("address/city").asText()).isEqualTo("Barcelona");
+    assertThat(streamed.get("data").get(1).get("address/city").isNull()).isTrue();
+    assertThat(streamed.get("recordsTotal").asLong()).isEqualTo(10L);
+    assertThat(streamed.get("draw").asInt()).isEqualTo(3);
+  }
+
+  @Test
+  public void shouldWriteTheSameJsonAsConvertedDataWithoutColumns() throws Exception {
+    // Exercise
+    JsonNode streamed = toJson(new StreamingDatatablesData<Customer>(customers, 10L, 2L, 3,
+        conversionService, null, null));
+    JsonNode converted = toJson(new ConvertedDatatablesData<Customer>(customers, 10L, 2L, 3,
+        conversionService));
+
+    // Validate
+    assertThat(streamed).isEqualTo(converted);
+  }
+
+  private JsonNode toJson(DatatablesData<?> data) throws Exception {
+    return mapper.readTree(mapper.writeValueAsString(data));
+  }
+
+  public static class Customer {
+
+    private final Long id;
+    private final String name;
+    private final Address address;
+
+    Customer(Long id, String name, String city) {
+      this.id = id;
+      this.name = name;
+      this.address = new Address(city);
+    }
+
+    public Long getId() {
+      return id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public Address getAddress() {
+      return address;
+    }
+  }
+
+  public static class Address {
+
+    private final String city;
+
+    Address(String city) {
+      this.city = city;
+    }
+
+    public String getCity() {
+      return city;
+    }
+  }
+
+}
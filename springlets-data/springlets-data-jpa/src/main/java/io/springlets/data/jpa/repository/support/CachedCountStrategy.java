@@ -0,0 +1,141 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Expression;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.JPQLTemplates;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CountStrategy} which caches the number of elements of each query in a
+ * {@link CountCache}, so the count is performed only once for some time, and the following
+ * pages of the same query are loaded without counting. The total is calculated from the
+ * loaded page if possible, as in {@link CountStrategies#skipWhenPossible()}.
+ *
+ * The cached count is an estimation, as the data might change while it is cached,
+ * so it is never lower than the number of elements up to the loaded ones.
+ *
+ * The counts are cached by the queried entity type and the JPQL count query, including
+ * the values of its parameters, which are compared by their _equals_ method. The cache is
+ * registered in the {@link CountCacheEntityListener}, so the counts are evicted when an
+ * entity is inserted or deleted, if the entity declares that listener.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class CachedCountStrategy implements CountStrategy {
+
+  private final CountCache countCache;
+
+  /**
+   * Creates a new cached count strategy with its own cache.
+   *
+   * @param timeToLive how long the counts are kept
+   * @param unit the time unit of the time to live
+   */
+  public CachedCountStrategy(long timeToLive, TimeUnit unit) {
+    this(new CountCache(timeToLive, unit));
+  }
+
+  /**
+   * Creates a new cached count strategy.
+   *
+   * @param countCache the cache to store the counts
+   */
+  public CachedCountStrategy(CountCache countCache) {
+    Assert.notNull(countCache, "The count cache is required");
+    this.countCache = countCache;
+    CountCacheEntityListener.register(countCache);
+  }
+
+  /**
+   * Returns the cache where the counts are stored.
+   * @return the count cache
+   */
+  public CountCache getCountCache() {
+    return countCache;
+  }
+
+  @Override
+  public <M> Page<M> loadPage(JPQLQuery<?> query, Pageable pageable, Expression<M> expression) {
+    QueryMetadata metadata = query.getMetadata();
+    Class<?> entityType = getEntityType(metadata);
+    Object key = getKey(metadata);
+
+    List<M> results = query.select(expression).fetch();
+
+    Long cachedCount = countCache.get(entityType, key);
+    if (cachedCount == null) {
+      Page<M> page = CountStrategies.getPage(results, pageable, query);
+      countCache.put(entityType, key, page.getTotalElements(), isFiltered(metadata));
+      return page;
+    }
+
+    if (pageable == null) {
+      return new PageImpl<M>(results);
+    }
+    long loaded = pageable.getOffset() + results.size();
+    boolean lastPage = results.size() < pageable.getPageSize()
+        && (pageable.getOffset() == 0 || !results.isEmpty());
+    long total = lastPage ? loaded : Math.max(cachedCount, loaded);
+    return new PageImpl<M>(results, pageable, total);
+  }
+
+  /**
+   * Returns the type of the entity the query is performed on.
+   */
+  static Class<?> getEntityType(QueryMetadata metadata) {
+    List<JoinExpression> joins = metadata.getJoins();
+    return joins.isEmpty() ? Object.class : joins.get(0).getTarget().getType();
+  }
+
+  /**
+   * Returns if the result of a query might change when its entities are updated.
+   */
+  static boolean isFiltered(QueryMetadata metadata) {
+    return metadata.getWhere() != null || metadata.getHaving() != null
+        || metadata.getJoins().size() > 1;
+  }
+
+  /**
+   * Returns a key which identifies the data of a query, without taking into account the
+   * projection, the ordering or the pagination: the JPQL count query, with its parameters
+   * replaced by labels, and the values of those parameters by label.
+   */
+  static Object getKey(QueryMetadata metadata) {
+    JPQLSerializer serializer = new JPQLSerializer(JPQLTemplates.DEFAULT);
+    serializer.serialize(metadata, true, null);
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    for (Map.Entry<Object, String> constant : serializer.getConstantToLabel().entrySet()) {
+      parameters.put(constant.getValue(), constant.getKey());
+    }
+    return Arrays.asList(serializer.toString(), parameters);
+  }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.dsl.SimpleExpression;
+import com.querydsl.core.types.dsl.StringPath;
+
+import io.springlets.data.domain.GlobalSearch;
+
+/**
+ * {@link GlobalSearchStrategy} which looks for the entities whose String attributes
+ * contain the search text, ignoring case, or whose number attributes contain it
+ * when converted to text.
+ *
+ * WARNING: this creates a very inefficient query, as it can't use any index.
+ * If you have many entity instances to query, use instead an indexed text search
+ * solution for better performance, like the {@link IndexedGlobalSearchStrategy}.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class ContainsGlobalSearchStrategy implements GlobalSearchStrategy {
+
+  @Override
+  public Predicate createPredicate(GlobalSearch globalSearch, Class<?> entityType,
+      SimpleExpression<?> idPath, Path<?>... attributes) {
+    String text = globalSearch.getText();
+    BooleanBuilder searchCondition = new BooleanBuilder();
+    for (int i = 0; i < attributes.length; i++) {
+      Path<?> path = attributes[i];
+      if (path instanceof StringPath) {
+        StringPath stringPath = (StringPath) path;
+        searchCondition.or(stringPath.containsIgnoreCase(text));
+      } else if (path instanceof NumberExpression) {
+        searchCondition.or(((NumberExpression<?>) path).like("%".concat(text).concat("%")));
+      }
+    }
+    return searchCondition.getValue();
+  }
+
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import org.springframework.util.Assert;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of the number of elements of entity queries, which are kept for a time to live.
+ * The counts are stored by entity type and a key of the query filters, so all the counts
+ * of an entity type can be evicted when its data changes.
+ *
+ * The number of counts stored by entity type is limited, so caching the counts of queries
+ * with user provided filters doesn't consume too much memory.
+ *
+ * The counts of filtered queries are marked as such, as they might change when the
+ * entities are updated, not only when they are inserted or deleted.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class CountCache {
+
+  private static final int DEFAULT_MAX_ENTRIES = 1000;
+
+  private final long timeToLive;
+
+  private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+  private final ConcurrentMap<Class<?>, ConcurrentMap<Object, CachedCount>> counts =
+      new ConcurrentHashMap<Class<?>, ConcurrentMap<Object, CachedCount>>();
+
+  /**
+   * Creates a new count cache.
+   *
+   * @param timeToLive how long the counts are kept
+   * @param unit the time unit of the time to live
+   */
+  public CountCache(long timeToLive, TimeUnit unit) {
+    Assert.isTrue(timeToLive >= 0, "The time to live can't be negative");
+    Assert.notNull(unit, "The time unit is required");
+    this.timeToLive = unit.toMillis(timeToLive);
+  }
+
+  /**
+   * Returns the maximum number of counts stored for each entity type.
+   * @return the maximum number of counts
+   */
+  public int getMaxEntries() {
+    return maxEntries;
+  }
+
+  /**
+   * Sets the maximum number of counts stored for each entity type.
+   * @param maxEntries the maximum number of counts
+   */
+  public void setMaxEntries(int maxEntries) {
+    Assert.isTrue(maxEntries > 0, "The maximum number of counts must be positive");
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * Returns a cached count.
+   *
+   * @param entityType the type of the counted entities
+   * @param key the key of the query filters, compared with its _equals_ method
+   * @return the count, or null if it is not cached or it has expired
+   */
+  public Long get(Class<?> entityType, Object key) {
+    ConcurrentMap<Object, CachedCount> entityCounts = counts.get(entityType);
+    if (entityCounts == null) {
+      return null;
+    }
+    CachedCount count = entityCounts.get(key);
+    if (count == null) {
+      return null;
+    }
+    if (count.isExpired(currentTimeMillis())) {
+      entityCounts.remove(key, count);
+      return null;
+    }
+    return count.value;
+  }
+
+  /**
+   * Stores the count of a filtered query.
+   *
+   * @param entityType the type of the counted entities
+   * @param key the key of the query filters, compared with its _equals_ method
+   * @param count the number of elements
+   */
+  public void put(Class<?> entityType, Object key, long count) {
+    put(entityType, key, count, true);
+  }
+
+  /**
+   * Stores a count.
+   *
+   * @param entityType the type of the counted entities
+   * @param key the key of the query filters, compared with its _equals_ method
+   * @param count the number of elements
+   * @param filtered if the query has filters or joins whose result might change when
+   * the entities are updated
+   */
+  public void put(Class<?> entityType, Object key, long count, boolean filtered) {
+    ConcurrentMap<Object, CachedCount> entityCounts = counts.get(entityType);
+    if (entityCounts == null) {
+      entityCounts = new ConcurrentHashMap<Object, CachedCount>();
+      ConcurrentMap<Object, CachedCount> previous = counts.putIfAbsent(entityType, entityCounts);
+      if (previous != null) {
+        entityCounts = previous;
+      }
+    }
+    long now = currentTimeMillis();
+    if (entityCounts.size() >= maxEntries && !entityCounts.containsKey(key)) {
+      removeExpired(entityCounts, now);
+      if (entityCounts.size() >= maxEntries) {
+        entityCounts.clear();
+      }
+    }
+    entityCounts.put(key, new CachedCount(count, now + timeToLive, filtered));
+  }
+
+  /**
+   * Removes the cached counts of an entity type, as well as the ones of its
+   * parent and child entity types, which share the same data.
+   *
+   * @param entityType the entity type whose data has changed
+   */
+  public void evict(Class<?> entityType) {
+    for (Iterator<Class<?>> it = counts.keySet().iterator(); it.hasNext();) {
+      Class<?> type = it.next();
+      if (type.isAssignableFrom(entityType) || entityType.isAssignableFrom(type)) {
+        it.remove();
+      }
+    }
+  }
+
+  /**
+   * Removes the cached counts of the filtered queries of an entity type, as well as the
+   * ones of its parent and child entity types, which share the same data.
+   *
+   * @param entityType the entity type whose data has been updated
+   */
+  public void evictFiltered(Class<?> entityType) {
+    for (Map.Entry<Class<?>, ConcurrentMap<Object, CachedCount>> entry : counts.entrySet()) {
+      Class<?> type = entry.getKey();
+      if (type.isAssignableFrom(entityType) || entityType.isAssignableFrom(type)) {
+        for (Iterator<CachedCount> it = entry.getValue().values().iterator(); it.hasNext();) {
+          if (it.next().filtered) {
+            it.remove();
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes all the cached counts.
+   */
+  public void clear() {
+    counts.clear();
+  }
+
+  /**
+   * Returns the current time, used to check the expiration of the counts.
+   * @return the current time in milliseconds
+   */
+  protected long currentTimeMillis() {
+    return System.currentTimeMillis();
+  }
+
+  private static void removeExpired(ConcurrentMap<Object, CachedCount> entityCounts, long now) {
+    for (Iterator<CachedCount> it = entityCounts.values().iterator(); it.hasNext();) {
+      if (it.next().isExpired(now)) {
+        it.remove();
+      }
+    }
+  }
+
+  private static final class CachedCount {
+
+    private final long value;
+
+    private final long expiration;
+
+    private final boolean filtered;
+
+    CachedCount(long value, long expiration, boolean filtered) {
+      this.value = value;
+      this.expiration = expiration;
+      this.filtered = filtered;
+    }
+
+    boolean isExpired(long now) {
+      return now >= expiration;
+    }
+  }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.persistence.EntityListeners;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener which evicts the cached counts of an entity type from the registered
+ * {@link CountCache} instances when an entity of that type is inserted or deleted. When
+ * an entity is updated, only the counts of the filtered queries are evicted, as the
+ * updated attributes might be used in their filters.
+ * It has to be declared in the entities whose counts are cached, with the
+ * {@link EntityListeners} annotation, or as a default entity listener in the _orm.xml_ file:
+ *
+ * <pre class="code">
+ * &#64;Entity
+ * &#64;EntityListeners(CountCacheEntityListener.class)
+ * public class Owner {
+ * </pre>
+ *
+ * The counts are evicted once the current transaction has been committed, so a count
+ * performed by a concurrent request before the commit is not cached after the eviction.
+ * If there isn't any transaction, they are evicted immediately.
+ *
+ * As the entity listeners are created by the JPA provider, the caches are registered
+ * in a static registry, which only holds weak references to them. The caches set with
+ * {@link QueryDslRepositorySupportExt#setTotalCountCache(CountCache)} are
+ * registered automatically. A cache registered many times, like a cache shared by many
+ * repositories, is kept until it has been unregistered the same number of times.
+ *
+ * Bulk insert, update or delete queries don't notify the entity listeners, so the counts
+ * cached before them are kept until their time to live expires.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class CountCacheEntityListener {
+
+  private static final Map<CountCache, Integer> CACHES = new WeakHashMap<CountCache, Integer>();
+
+  /**
+   * Registers a cache whose counts must be evicted when the entities change.
+   *
+   * @param countCache the count cache
+   */
+  public static void register(CountCache countCache) {
+    synchronized (CACHES) {
+      Integer registrations = CACHES.get(countCache);
+      CACHES.put(countCache, registrations == null ? 1 : registrations + 1);
+    }
+  }
+
+  /**
+   * Unregisters a cache.
+   *
+   * @param countCache the count cache
+   */
+  public static void unregister(CountCache countCache) {
+    synchronized (CACHES) {
+      Integer registrations = CACHES.get(countCache);
+      if (registrations == null || registrations <= 1) {
+        CACHES.remove(countCache);
+      } else {
+        CACHES.put(countCache, registrations - 1);
+      }
+    }
+  }
+
+  /**
+   * Evicts the cached counts of the type of the entity which has been inserted or deleted,
+   * once the current transaction has been committed.
+   *
+   * @param entity the inserted or deleted entity
+   */
+  @PostPersist
+  @PostRemove
+  public void evictCounts(Object entity) {
+    evictAfterCommit(entity.getClass(), false);
+  }
+
+  /**
+   * Evicts the cached counts of the filtered queries of the type of the entity which has
+   * been updated, once the current transaction has been committed.
+   *
+   * @param entity the updated entity
+   */
+  @PostUpdate
+  public void evictFilteredCounts(Object entity) {
+    evictAfterCommit(entity.getClass(), true);
+  }
+
+  private static void evictAfterCommit(final Class<?> entityType, final boolean onlyFiltered) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronizationAdapter() {
+
+            @Override
+            public void afterCommit() {
+              evict(entityType, onlyFiltered);
+            }
+          });
+    } else {
+      evict(entityType, onlyFiltered);
+    }
+  }
+
+  /**
+   * Evicts the cached counts of an entity type from all the registered caches.
+   *
+   * @param entityType the entity type
+   */
+  public static void evict(Class<?> entityType) {
+    evict(entityType, false);
+  }
+
+  private static void evict(Class<?> entityType, boolean onlyFiltered) {
+    List<CountCache> caches;
+    synchronized (CACHES) {
+      if (CACHES.isEmpty()) {
+        return;
+      }
+      caches = new ArrayList<CountCache>(CACHES.keySet());
+    }
+    for (CountCache cache : caches) {
+      if (onlyFiltered) {
+        cache.evictFiltered(entityType);
+      } else {
+        cache.evict(entityType);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.jpa.JPQLQuery;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils.TotalSupplier;
+
+import java.util.List;
+
+/**
+ * The available {@link CountStrategy} implementations:
+ *
+ * * {@link #exact()}: counts the elements before loading the data. This is the default one.
+ * * {@link #skipWhenPossible()}: loads the data first and only counts the elements if the
+ *   total can't be calculated from the loaded page, as when the page is smaller than the
+ *   page size. It is the same strategy used by Spring Data repositories.
+ * * {@link #fetchOneMore()}: never counts the elements. It loads one more element than
+ *   the page size just to know if there is a following page, as needed by the select2
+ *   components, which only use the _more_ flag. The total of the page is the number
+ *   of elements up to the loaded ones.
+ * * {@link CachedCountStrategy}: caches the count of the elements for some time.
+ * * {@link WindowCountStrategy}: loads the data and the count of the elements in a single
+ *   query, with the _count(*) over()_ window function.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public final class CountStrategies {
+
+  private static final CountStrategy EXACT = new ExactCountStrategy();
+
+  private static final CountStrategy SKIP_WHEN_POSSIBLE = new SkipWhenPossibleCountStrategy();
+
+  private static final CountStrategy FETCH_ONE_MORE = new FetchOneMoreCountStrategy();
+
+  private CountStrategies() {
+    // Utility class
+  }
+
+  /**
+   * Returns the strategy which always counts the elements before loading the data.
+   * @return the count strategy
+   */
+  public static CountStrategy exact() {
+    return EXACT;
+  }
+
+  /**
+   * Returns the strategy which only counts the elements if the total can't be
+   * calculated from the loaded page.
+   * @return the count strategy
+   */
+  public static CountStrategy skipWhenPossible() {
+    return SKIP_WHEN_POSSIBLE;
+  }
+
+  /**
+   * Returns the strategy which loads an additional element instead of counting,
+   * to know if there is a following page.
+   * @return the count strategy
+   */
+  public static CountStrategy fetchOneMore() {
+    return FETCH_ONE_MORE;
+  }
+
+  /**
+   * Returns the page with the loaded data, calculating the total number of elements
+   * from the page if possible, or counting them with the given query otherwise.
+   */
+  static <M> Page<M> getPage(List<M> content, Pageable pageable, final JPQLQuery<?> query) {
+    return PageableExecutionUtils.getPage(content, pageable, new TotalSupplier() {
+
+      @Override
+      public long get() {
+        return query.fetchCount();
+      }
+    });
+  }
+
+  private static class ExactCountStrategy implements CountStrategy {
+
+    @Override
+    public <M> Page<M> loadPage(JPQLQuery<?> query, Pageable pageable,
+        Expression<M> expression) {
+      long totalFound = query.fetchCount();
+      List<M> results = query.select(expression).fetch();
+      return new PageImpl<M>(results, pageable, totalFound);
+    }
+  }
+
+  private static class SkipWhenPossibleCountStrategy implements CountStrategy {
+
+    @Override
+    public <M> Page<M> loadPage(JPQLQuery<?> query, Pageable pageable,
+        Expression<M> expression) {
+      List<M> results = query.select(expression).fetch();
+      return getPage(results, pageable, query);
+    }
+  }
+
+  private static class FetchOneMoreCountStrategy implements CountStrategy {
+
+    @Override
+    public <M> Page<M> loadPage(JPQLQuery<?> query, Pageable pageable,
+        Expression<M> expression) {
+      if (pageable == null) {
+        List<M> results = query.select(expression).fetch();
+        return new PageImpl<M>(results);
+      }
+      query.limit(pageable.getPageSize() + 1L);
+      List<M> results = query.select(expression).fetch();
+      long total = pageable.getOffset() + results.size();
+      if (results.size() > pageable.getPageSize()) {
+        results = results.subList(0, pageable.getPageSize());
+      }
+      return new PageImpl<M>(results, pageable, total);
+    }
+  }
+
+}
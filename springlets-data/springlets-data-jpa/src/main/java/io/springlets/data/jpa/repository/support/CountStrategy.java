@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.jpa.JPQLQuery;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Strategy to load a page of data and obtain the total number of elements of the query,
+ * which is usually as expensive as loading the data itself. See {@link CountStrategies}
+ * for the available implementations.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ * @see QueryDslRepositorySupportExt#loadPage(JPQLQuery, Pageable, Expression)
+ */
+public interface CountStrategy {
+
+  /**
+   * Loads a page of data with the provided pagination criteria, along with the
+   * total number of elements.
+   *
+   * @param <M> the data type to load, usually a JPA Entity or a projection bean
+   * @param query the query with the pagination and ordering criteria already applied
+   * @param pageable the already applied pagination and ordering criteria
+   * @param expression the entity or projection to build with the query data
+   * @return the loaded data page
+   */
+  <M> Page<M> loadPage(JPQLQuery<?> query, Pageable pageable, Expression<M> expression);
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import io.springlets.data.domain.GlobalSearch;
+
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import javax.persistence.EntityManager;
+
+/**
+ * {@link GlobalSearchIndex} which uses the full-text search functions of the database,
+ * through native queries. The database keeps the full-text index up to date by itself,
+ * so the changes of the entities don't have to be notified to this index.
+ *
+ * Every entity type to search has to be registered with the native query which returns
+ * the identifiers of the entities which meet the search text, received as the first
+ * positional parameter (_?1_), ordered by relevance. The static methods of this class
+ * create those queries for the supported databases. As an example:
+ *
+ * `index.register(Person.class, DatabaseGlobalSearchIndex.postgresqlQuery("english",
+ * "person", "id", "name", "surname"))`
+ *
+ * The full-text syntax of the database is used to interpret the search text, so the
+ * {@link IndexedGlobalSearchStrategy} performs the regular expression searches with its
+ * fallback strategy.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class DatabaseGlobalSearchIndex implements GlobalSearchIndex {
+
+  private static final Pattern TEXT_SEARCH_CONFIG = Pattern.compile("[A-Za-z_][\\w.]*");
+
+  private final EntityManager entityManager;
+
+  private final ConversionService conversionService = new DefaultConversionService();
+
+  private final Map<Class<?>, String> queries = new ConcurrentHashMap<Class<?>, String>();
+
+  /**
+   * Creates a new database global search index.
+   *
+   * @param entityManager the entity manager to perform the native queries, usually
+   * the shared one, injected with _@PersistenceContext_
+   */
+  public DatabaseGlobalSearchIndex(EntityManager entityManager) {
+    Assert.notNull(entityManager, "The entity manager is required");
+    this.entityManager = entityManager;
+  }
+
+  /**
+   * Creates the PostgreSQL query which searches the given columns of a table. The
+   * text search configuration is given explicitly, so the query can use a _GIN_ index
+   * over the same _tsvector_ expression, which must be created as:
+   *
+   * `create index person_search on person using gin (to_tsvector('english',
+   * coalesce(name, '') || ' ' || coalesce(surname, '')))`
+   *
+   * with the same configuration and columns, in the same order, as the query.
+   *
+   * @param textSearchConfig the text search configuration, like _english_ or _simple_
+   * @param table the table of the entities
+   * @param idColumn the primary key column of the table
+   * @param columns the full-text indexed columns
+   * @return the native query
+   */
+  public static String postgresqlQuery(String textSearchConfig, String table, String idColumn,
+      String... columns) {
+    Assert.isTrue(textSearchConfig != null
+        && TEXT_SEARCH_CONFIG.matcher(textSearchConfig).matches(),
+        "A valid text search configuration is required");
+    assertQueryParts(table, idColumn, columns);
+    StringBuilder document = new StringBuilder();
+    for (String column : columns) {
+      if (document.length() > 0) {
+        document.append(" || ' ' || ");
+      }
+      document.append("coalesce(").append(column).append(", '')");
+    }
+    String config = "'" + textSearchConfig + "'";
+    String vector = "to_tsvector(" + config + ", " + document + ")";
+    String tsquery = "plainto_tsquery(" + config + ", ?1)";
+    return "select " + idColumn + " from " + table + " where " + vector + " @@ " + tsquery
+        + " order by ts_rank(" + vector + ", " + tsquery + ") desc";
+  }
+
+  /**
+   * Creates the MySQL or MariaDB query which searches the given columns of a table,
+   * which must have a _FULLTEXT_ index on the same columns. The results are ordered
+   * by relevance by the database.
+   *
+   * @param table the table of the entities
+   * @param idColumn the primary key column of the table
+   * @param columns the full-text indexed columns
+   * @return the native query
+   */
+  public static String mysqlQuery(String table, String idColumn, String... columns) {
+    assertQueryParts(table, idColumn, columns);
+    return "select " + idColumn + " from " + table + " where match("
+        + StringUtils.arrayToCommaDelimitedString(columns)
+        + ") against (?1 in natural language mode)";
+  }
+
+  /**
+   * Creates the Oracle query which searches a column of a table, which must have an
+   * Oracle Text _CONTEXT_ index. Use a _MULTI_COLUMN_DATASTORE_ to index more columns.
+   *
+   * @param table the table of the entities
+   * @param idColumn the primary key column of the table
+   * @param column the full-text indexed column
+   * @return the native query
+   */
+  public static String oracleQuery(String table, String idColumn, String column) {
+    assertQueryParts(table, idColumn, column);
+    return "select " + idColumn + " from " + table + " where contains(" + column
+        + ", ?1, 1) > 0 order by score(1) desc";
+  }
+
+  private static void assertQueryParts(String table, String idColumn, String... columns) {
+    Assert.hasText(table, "The table is required");
+    Assert.hasText(idColumn, "The primary key column is required");
+    Assert.notEmpty(columns, "At least a column to search is required");
+  }
+
+  /**
+   * Registers the native query which searches the entities of the given type.
+   *
+   * @param entityType the entity type
+   * @param query the native query which returns the identifiers of the entities which
+   * meet the search text, received as the first positional parameter
+   * @see #postgresqlQuery(String, String, String, String...)
+   * @see #mysqlQuery(String, String, String...)
+   * @see #oracleQuery(String, String, String)
+   */
+  public void register(Class<?> entityType, String query) {
+    Assert.notNull(entityType, "The entity type is required");
+    Assert.hasText(query, "The full-text search query is required");
+    queries.put(entityType, query);
+  }
+
+  @Override
+  public boolean supports(Class<?> entityType) {
+    return queries.containsKey(entityType);
+  }
+
+  @Override
+  public List<?> findIds(Class<?> entityType, GlobalSearch globalSearch, int maxResults) {
+    String query = queries.get(entityType);
+    Assert.notNull(query, "The entity type " + entityType + " is not indexed");
+
+    List<?> rows = entityManager.createNativeQuery(query)
+        .setParameter(1, globalSearch.getText()).setMaxResults(maxResults).getResultList();
+
+    // The native queries return the identifiers with the JDBC types
+    Class<?> idType = ClassUtils.resolvePrimitiveIfNecessary(
+        entityManager.getMetamodel().entity(entityType).getIdType().getJavaType());
+    List<Object> ids = new ArrayList<Object>(rows.size());
+    for (Object row : rows) {
+      ids.add(conversionService.convert(row, idType));
+    }
+    return ids;
+  }
+
+  /**
+   * Does nothing, as the database updates the full-text index.
+   */
+  @Override
+  public void index(Object entity) {
+    // Nothing to do
+  }
+
+  /**
+   * Does nothing, as the database updates the full-text index.
+   */
+  @Override
+  public void remove(Object entity) {
+    // Nothing to do
+  }
+
+}
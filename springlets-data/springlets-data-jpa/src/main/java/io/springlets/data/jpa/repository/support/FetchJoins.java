@@ -0,0 +1,123 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import com.querydsl.core.types.CollectionExpression;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.MapExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.JPQLQuery;
+
+import java.util.List;
+
+import javax.persistence.AttributeNode;
+import javax.persistence.EntityGraph;
+import javax.persistence.Subgraph;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.Metamodel;
+import javax.persistence.metamodel.PluralAttribute;
+
+/**
+ * Adds to a query the fetch joins of the associations to load along with the queried
+ * entities, to avoid loading each one of them lazily afterwards.
+ *
+ * The fetch joins are only performed by the data query. The count query of the same
+ * JPQLQuery keeps the joins, but without fetching the associations.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+final class FetchJoins {
+
+  private FetchJoins() {
+    // Utility class
+  }
+
+  /**
+   * Adds a left fetch join of each association.
+   *
+   * @param query the query to add the joins to
+   * @param associations the associations to fetch
+   * @return if any of the associations is a collection
+   */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  static boolean apply(JPQLQuery<?> query, Path<?>... associations) {
+    boolean collection = false;
+    for (Path<?> association : associations) {
+      if (association instanceof CollectionExpression) {
+        query.leftJoin((CollectionExpression) association);
+        collection = true;
+      } else if (association instanceof MapExpression) {
+        query.leftJoin((MapExpression) association);
+        collection = true;
+      } else if (association instanceof EntityPath) {
+        query.leftJoin((EntityPath) association);
+      } else {
+        throw new IllegalArgumentException("The path is not an association: " + association);
+      }
+      query.fetchJoin();
+    }
+    return collection;
+  }
+
+  /**
+   * Adds a left fetch join of each association of the entity graph, including the
+   * associations of its subgraphs. The basic attributes of the entity graph can't be
+   * joined, so they are skipped and loaded as defined by their mapping.
+   *
+   * @param query the query to add the joins to
+   * @param root the queried entity
+   * @param entityGraph the entity graph with the attributes to fetch
+   * @param metamodel the metamodel of the persistence unit
+   * @return if any of the fetched attributes is a collection
+   */
+  static boolean apply(JPQLQuery<?> query, PathBuilder<?> root, EntityGraph<?> entityGraph,
+      Metamodel metamodel) {
+    return apply(query, root, metamodel.managedType(root.getType()),
+        entityGraph.getAttributeNodes(), metamodel);
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private static boolean apply(JPQLQuery<?> query, PathBuilder<?> parent, ManagedType<?> type,
+      List<AttributeNode<?>> attributeNodes, Metamodel metamodel) {
+    boolean collection = false;
+    for (AttributeNode<?> attributeNode : attributeNodes) {
+      String name = attributeNode.getAttributeName();
+      Attribute<?, ?> attribute = type.getAttribute(name);
+      if (!attribute.isAssociation()) {
+        continue;
+      }
+      Class javaType = attribute instanceof PluralAttribute
+          ? ((PluralAttribute<?, ?, ?>) attribute).getElementType().getJavaType()
+          : attribute.getJavaType();
+
+      PathBuilder alias =
+          new PathBuilder(javaType, parent.getMetadata().getName() + "_" + name);
+      query.leftJoin((EntityPath) parent.get(name, javaType), alias);
+      query.fetchJoin();
+      collection |= attribute.isCollection();
+
+      for (Object value : attributeNode.getSubgraphs().values()) {
+        Subgraph<?> subgraph = (Subgraph<?>) value;
+        collection |= apply(query, alias, metamodel.managedType(subgraph.getClassType()),
+            subgraph.getAttributeNodes(), metamodel);
+      }
+    }
+    return collection;
+  }
+
+}
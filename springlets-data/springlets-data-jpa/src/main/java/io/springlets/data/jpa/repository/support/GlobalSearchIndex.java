@@ -0,0 +1,69 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import io.springlets.data.domain.GlobalSearch;
+
+import java.util.List;
+
+/**
+ * Full-text index of entities, used by the {@link IndexedGlobalSearchStrategy} to
+ * resolve the identifiers of the entities which meet a {@link GlobalSearch}.
+ * It might be implemented with an embedded search library like Lucene, an external
+ * search server or the full-text search functions of the database.
+ *
+ * The index is kept up to date by the {@link GlobalSearchIndexEntityListener}, which
+ * notifies the changes of the entities once they have been committed.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public interface GlobalSearchIndex {
+
+  /**
+   * Returns if the entities of the given type are indexed.
+   *
+   * @param entityType the entity type
+   * @return if the entity type is indexed
+   */
+  boolean supports(Class<?> entityType);
+
+  /**
+   * Returns the identifiers of the entities which meet the global search,
+   * ordered by relevance. The {@link IndexedGlobalSearchStrategy} doesn't use the index
+   * for the regular expression searches.
+   *
+   * @param entityType the type of the entities to search
+   * @param globalSearch the global search
+   * @param maxResults the maximum number of identifiers to return
+   * @return the identifiers of the entities found
+   */
+  List<?> findIds(Class<?> entityType, GlobalSearch globalSearch, int maxResults);
+
+  /**
+   * Adds an entity to the index, or updates it if it was already indexed.
+   *
+   * @param entity the inserted or updated entity
+   */
+  void index(Object entity);
+
+  /**
+   * Removes an entity from the index.
+   *
+   * @param entity the deleted entity
+   */
+  void remove(Object entity);
+
+}
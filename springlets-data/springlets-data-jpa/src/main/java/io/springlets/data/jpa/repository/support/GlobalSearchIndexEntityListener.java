@@ -0,0 +1,158 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import javax.persistence.EntityListeners;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA entity listener which keeps the registered {@link GlobalSearchIndex} instances
+ * up to date. The entities to index have to declare it with the {@link EntityListeners}
+ * annotation:
+ *
+ * <pre class="code">
+ * &#64;Entity
+ * &#64;EntityListeners(GlobalSearchIndexEntityListener.class)
+ * public class Owner {
+ * </pre>
+ *
+ * The inserted, updated or deleted entities are indexed once the current transaction has
+ * been committed, so the index never contains uncommitted data. If there isn't any
+ * transaction, they are indexed immediately.
+ *
+ * As the entity listeners are created by the JPA provider, the indexes are registered
+ * in a static registry, which only holds weak references to them.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class GlobalSearchIndexEntityListener {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(GlobalSearchIndexEntityListener.class);
+
+  private static final Set<GlobalSearchIndex> INDEXES =
+      Collections.newSetFromMap(new WeakHashMap<GlobalSearchIndex, Boolean>());
+
+  /**
+   * Registers an index to keep up to date.
+   *
+   * @param index the global search index
+   */
+  public static void register(GlobalSearchIndex index) {
+    synchronized (INDEXES) {
+      INDEXES.add(index);
+    }
+  }
+
+  /**
+   * Unregisters an index.
+   *
+   * @param index the global search index
+   */
+  public static void unregister(GlobalSearchIndex index) {
+    synchronized (INDEXES) {
+      INDEXES.remove(index);
+    }
+  }
+
+  /**
+   * Indexes an inserted or updated entity.
+   *
+   * @param entity the inserted or updated entity
+   */
+  @PostPersist
+  @PostUpdate
+  public void index(Object entity) {
+    afterCommit(new IndexUpdate(entity, false));
+  }
+
+  /**
+   * Removes a deleted entity from the indexes.
+   *
+   * @param entity the deleted entity
+   */
+  @PostRemove
+  public void remove(Object entity) {
+    afterCommit(new IndexUpdate(entity, true));
+  }
+
+  private static void afterCommit(final IndexUpdate update) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronizationAdapter() {
+
+            @Override
+            public void afterCommit() {
+              update.run();
+            }
+          });
+    } else {
+      update.run();
+    }
+  }
+
+  /**
+   * Update of an entity in the indexes which support its type.
+   */
+  private static class IndexUpdate implements Runnable {
+
+    private final Object entity;
+
+    private final boolean remove;
+
+    IndexUpdate(Object entity, boolean remove) {
+      this.entity = entity;
+      this.remove = remove;
+    }
+
+    @Override
+    public void run() {
+      List<GlobalSearchIndex> indexes;
+      synchronized (INDEXES) {
+        indexes = new ArrayList<GlobalSearchIndex>(INDEXES);
+      }
+      for (GlobalSearchIndex index : indexes) {
+        if (!index.supports(entity.getClass())) {
+          continue;
+        }
+        try {
+          if (remove) {
+            index.remove(entity);
+          } else {
+            index.index(entity);
+          }
+        } catch (RuntimeException ex) {
+          // The data has already been committed, so just report the error
+          LOG.error("Error updating the global search index with the entity " + entity, ex);
+        }
+      }
+    }
+  }
+
+}
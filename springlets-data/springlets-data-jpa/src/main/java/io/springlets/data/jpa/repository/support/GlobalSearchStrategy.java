@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.SimpleExpression;
+
+import io.springlets.data.domain.GlobalSearch;
+
+/**
+ * Strategy to perform a {@link GlobalSearch} on the entities of a repository, by creating
+ * the predicate to add to the query.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ * @see QueryDslRepositorySupportExt#applyGlobalSearch(GlobalSearch,
+ *      com.querydsl.jpa.JPQLQuery, Path...)
+ */
+public interface GlobalSearchStrategy {
+
+  /**
+   * Creates the predicate to look for the entities which meet the global search.
+   *
+   * @param globalSearch the global search to perform
+   * @param entityType the type of the entities to search
+   * @param idPath the path of the entity identifier
+   * @param attributes the entity attributes to perform the search on
+   * @return the predicate, or null if the search doesn't apply any condition
+   */
+  Predicate createPredicate(GlobalSearch globalSearch, Class<?> entityType,
+      SimpleExpression<?> idPath, Path<?>... attributes);
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.SimpleExpression;
+
+import io.springlets.data.domain.GlobalSearch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import java.util.List;
+
+/**
+ * {@link GlobalSearchStrategy} which resolves the identifiers of the entities which meet
+ * the search from a full-text {@link GlobalSearchIndex}, and restricts the query to those
+ * identifiers. The query just has to look for the entities by their primary key, instead
+ * of comparing the text with every attribute of every entity.
+ *
+ * The number of identifiers used is limited by the _maxResults_ property, which is 1000 by
+ * default, as many databases limit the number of values of an _in_ condition. If the index
+ * finds more entities than that, the search is performed with another strategy instead of
+ * returning a truncated result. The fallback strategy is also used to search the entity
+ * types not supported by the index and the regular expression searches, and it is the
+ * {@link ContainsGlobalSearchStrategy} by default.
+ *
+ * The index is registered in the {@link GlobalSearchIndexEntityListener}, so it is
+ * updated when the entities which declare that listener are committed.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class IndexedGlobalSearchStrategy implements GlobalSearchStrategy {
+
+  private static final Logger LOG = LoggerFactory.getLogger(IndexedGlobalSearchStrategy.class);
+
+  private static final int DEFAULT_MAX_RESULTS = 1000;
+
+  private final GlobalSearchIndex index;
+
+  private final GlobalSearchStrategy fallbackStrategy;
+
+  private int maxResults = DEFAULT_MAX_RESULTS;
+
+  /**
+   * Creates a new indexed global search strategy.
+   *
+   * @param index the full-text index of the entities
+   */
+  public IndexedGlobalSearchStrategy(GlobalSearchIndex index) {
+    this(index, new ContainsGlobalSearchStrategy());
+  }
+
+  /**
+   * Creates a new indexed global search strategy.
+   *
+   * @param index the full-text index of the entities
+   * @param fallbackStrategy the strategy to search the entities not supported by the index
+   */
+  public IndexedGlobalSearchStrategy(GlobalSearchIndex index,
+      GlobalSearchStrategy fallbackStrategy) {
+    Assert.notNull(index, "The global search index is required");
+    Assert.notNull(fallbackStrategy, "The fallback global search strategy is required");
+    this.index = index;
+    this.fallbackStrategy = fallbackStrategy;
+    GlobalSearchIndexEntityListener.register(index);
+  }
+
+  /**
+   * Returns the maximum number of identifiers to resolve from the index.
+   * @return the maximum number of identifiers
+   */
+  public int getMaxResults() {
+    return maxResults;
+  }
+
+  /**
+   * Sets the maximum number of identifiers to resolve from the index.
+   * @param maxResults the maximum number of identifiers
+   */
+  public void setMaxResults(int maxResults) {
+    Assert.isTrue(maxResults > 0, "The maximum number of results must be positive");
+    this.maxResults = maxResults;
+  }
+
+  @Override
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public Predicate createPredicate(GlobalSearch globalSearch, Class<?> entityType,
+      SimpleExpression<?> idPath, Path<?>... attributes) {
+    // The full-text indexes don't support regular expressions
+    if (globalSearch.isRegexp() || !index.supports(entityType)) {
+      return fallbackStrategy.createPredicate(globalSearch, entityType, idPath, attributes);
+    }
+
+    // Ask for one more identifier to know if the results would be truncated
+    List<?> ids = index.findIds(entityType, globalSearch, maxResults + 1);
+    if (ids == null || ids.isEmpty()) {
+      // No entity meets the search
+      return idPath.isNull();
+    }
+    if (ids.size() > maxResults) {
+      LOG.debug("The global search ({}) exceeds the maximum number of results ({}), "
+          + "using the fallback strategy", globalSearch.getText(), maxResults);
+      return fallbackStrategy.createPredicate(globalSearch, entityType, idPath, attributes);
+    }
+    return ((SimpleExpression) idPath).in(ids);
+  }
+
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.OrderSpecifier.NullHandling;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.ComparableExpression;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.dsl.SimpleExpression;
+
+import io.springlets.data.domain.KeysetCursor;
+
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.util.Assert;
+import org.springframework.util.NumberUtils;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Ordering attributes used to perform keyset (seek) pagination: the attributes to
+ * order by, always ending with the entity identifier, so the ordering is absolute.
+ *
+ * Instead of skipping the data of the previous pages with an offset, the following page
+ * is loaded looking for the data placed after the last element of the previous page,
+ * with the equivalent of a *(a, b, id) > (:a, :b, :id)* row value comparison, which
+ * can use an index over the ordering attributes. As it isn't supported by JPQL and
+ * the attributes might be ordered in different directions, it is expanded to:
+ *
+ * *(a > :a) or (a = :a and b > :b) or (a = :a and b = :b and id > :id)*
+ *
+ * Null values are placed first in ascending order and last in descending order, the same
+ * as if they were lower than any other value.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+final class Keyset {
+
+  private static final DefaultConversionService CONVERSION_SERVICE =
+      new DefaultConversionService();
+
+  private final List<Path<?>> paths = new ArrayList<Path<?>>();
+
+  private final List<Order> directions = new ArrayList<Order>();
+
+  private String sortKey;
+
+  /**
+   * Adds an attribute to order by.
+   *
+   * @param path the attribute
+   * @param direction the order direction
+   * @return this keyset
+   */
+  Keyset add(Path<?> path, Order direction) {
+    Assert.isTrue(path instanceof ComparableExpression || path instanceof NumberExpression,
+        "Keyset pagination requires comparable attributes: " + path);
+    paths.add(path);
+    directions.add(direction);
+    sortKey = null;
+    return this;
+  }
+
+  /**
+   * Returns the number of attributes to order by.
+   * @return the number of attributes
+   */
+  int size() {
+    return paths.size();
+  }
+
+  /**
+   * Returns the attributes to order by, whose values must be loaded along
+   * with each element to create the cursor.
+   * @return the attributes
+   */
+  Expression<?>[] getPaths() {
+    return paths.toArray(new Expression<?>[paths.size()]);
+  }
+
+  /**
+   * Returns a key which identifies the ordering, to check a cursor has been created
+   * with the same ordering.
+   * @return the ordering key
+   */
+  String getSortKey() {
+    if (sortKey == null) {
+      StringBuilder key = new StringBuilder();
+      for (int i = 0; i < paths.size(); i++) {
+        key.append(paths.get(i)).append(' ').append(directions.get(i)).append(',');
+      }
+      sortKey = Integer.toHexString(key.toString().hashCode());
+    }
+    return sortKey;
+  }
+
+  /**
+   * Returns the order specifiers to apply to the query.
+   * @return the order specifiers
+   */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  OrderSpecifier<?>[] getOrderSpecifiers() {
+    OrderSpecifier<?>[] specifiers = new OrderSpecifier<?>[paths.size()];
+    for (int i = 0; i < specifiers.length; i++) {
+      Order direction = directions.get(i);
+      NullHandling nullHandling =
+          direction == Order.ASC ? NullHandling.NullsFirst : NullHandling.NullsLast;
+      specifiers[i] = new OrderSpecifier(direction, (Expression) paths.get(i), nullHandling);
+    }
+    return specifiers;
+  }
+
+  /**
+   * Returns if the cursor has been created with this ordering, to load the page
+   * with the given offset.
+   *
+   * @param cursor the cursor
+   * @param offset the offset of the page to load
+   * @return if the cursor can be applied
+   */
+  boolean isApplicable(KeysetCursor cursor, long offset) {
+    return isOrderedBy(cursor) && cursor.getOffset() == offset;
+  }
+
+  private boolean isOrderedBy(KeysetCursor cursor) {
+    return cursor != null && getSortKey().equals(cursor.getSortKey())
+        && cursor.getValues().size() == paths.size();
+  }
+
+  /**
+   * Creates the predicate to look for the data placed after the cursor position.
+   *
+   * @param cursor the cursor created with this ordering
+   * @return the predicate
+   * @throws IllegalArgumentException if a cursor value is not valid for its attribute type
+   */
+  Predicate after(KeysetCursor cursor) {
+    Assert.isTrue(isOrderedBy(cursor), "The cursor has been created with another ordering");
+    List<String> values = cursor.getValues();
+
+    BooleanBuilder after = new BooleanBuilder();
+    BooleanBuilder previousEqual = new BooleanBuilder();
+    for (int i = 0; i < paths.size(); i++) {
+      Path<?> path = paths.get(i);
+      Object value = fromString(values.get(i), path.getType());
+      Predicate greater = after(path, value, directions.get(i));
+      if (greater != null) {
+        after.or(new BooleanBuilder(previousEqual).and(greater));
+      }
+      previousEqual.and(equal(path, value));
+    }
+    return after.getValue();
+  }
+
+  /**
+   * Creates the cursor with the values of the ordering attributes of an element.
+   *
+   * @param values the values of the ordering attributes, in the same order
+   * @param offset the offset of the page placed after the element
+   * @return the cursor
+   */
+  KeysetCursor createCursor(Object[] values, long offset) {
+    List<String> cursorValues = new ArrayList<String>(values.length);
+    for (Object value : values) {
+      cursorValues.add(toString(value));
+    }
+    return new KeysetCursor(getSortKey(), offset, cursorValues);
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private static Predicate after(Path<?> path, Object value, Order direction) {
+    boolean ascending = direction == Order.ASC;
+    if (value == null) {
+      // Nulls are placed first in ascending order and last in descending one
+      return ascending ? ((SimpleExpression<?>) path).isNotNull() : null;
+    }
+    if (path instanceof NumberExpression) {
+      NumberExpression number = (NumberExpression) path;
+      return ascending ? number.gt((Number) value)
+          : number.lt((Number) value).or(number.isNull());
+    }
+    ComparableExpression comparable = (ComparableExpression) path;
+    return ascending ? comparable.gt((Comparable) value)
+        : comparable.lt((Comparable) value).or(comparable.isNull());
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private static Predicate equal(Path<?> path, Object value) {
+    SimpleExpression expression = (SimpleExpression) path;
+    return value == null ? expression.isNull() : expression.eq(value);
+  }
+
+  /**
+   * Converts an ordering attribute value to the String to store in a cursor.
+   */
+  static String toString(Object value) {
+    if (value == null) {
+      return null;
+    }
+    if (value instanceof Timestamp) {
+      // Keep the nanoseconds
+      return value.toString();
+    }
+    if (value instanceof Date) {
+      return String.valueOf(((Date) value).getTime());
+    }
+    if (value instanceof Calendar) {
+      return String.valueOf(((Calendar) value).getTimeInMillis());
+    }
+    if (value instanceof Enum) {
+      return ((Enum<?>) value).name();
+    }
+    return value.toString();
+  }
+
+  /**
+   * Converts a cursor value to the type of its ordering attribute.
+   *
+   * @throws IllegalArgumentException if the value is not valid for the type
+   */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  static Object fromString(String value, Class<?> type) {
+    if (value == null || String.class.equals(type)) {
+      return value;
+    }
+    if (Number.class.isAssignableFrom(type)) {
+      return NumberUtils.parseNumber(value, (Class<Number>) type);
+    }
+    if (Boolean.class.equals(type)) {
+      return Boolean.valueOf(value);
+    }
+    if (type.isEnum()) {
+      return Enum.valueOf((Class<Enum>) type, value);
+    }
+    if (Timestamp.class.equals(type)) {
+      return Timestamp.valueOf(value);
+    }
+    if (Date.class.isAssignableFrom(type) || Calendar.class.isAssignableFrom(type)) {
+      long time = NumberUtils.parseNumber(value, Long.class);
+      if (java.sql.Date.class.equals(type)) {
+        return new java.sql.Date(time);
+      }
+      if (Calendar.class.isAssignableFrom(type)) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(time);
+        return calendar;
+      }
+      return new Date(time);
+    }
+    try {
+      return CONVERSION_SERVICE.convert(value, type);
+    } catch (RuntimeException ex) {
+      throw new IllegalArgumentException("Invalid cursor value for type " + type.getName(), ex);
+    }
+  }
+
+}
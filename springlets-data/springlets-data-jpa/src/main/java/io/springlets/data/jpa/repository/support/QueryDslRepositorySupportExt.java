@@ -15,18 +15,27 @@
  */
 package io.springlets.data.jpa.repository.support;
 
+import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.Tuple;
 import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Ops;
 import com.querydsl.core.types.Order;
 import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.OrderSpecifier.NullHandling;
 import com.querydsl.core.types.Path;
-import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.PathBuilder;
-import com.querydsl.core.types.dsl.StringPath;
 import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.impl.AbstractJPAQuery;
 
 import io.springlets.data.domain.GlobalSearch;
+import io.springlets.data.domain.KeysetCursor;
+import io.springlets.data.domain.KeysetPage;
+import io.springlets.data.web.datatables.ConvertedDatatablesData;
+import io.springlets.data.web.datatables.DatatablesColumns;
+import io.springlets.data.web.datatables.DatatablesColumns.Column;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,15 +44,26 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.mapping.PropertyReferenceException;
 import org.springframework.data.jpa.repository.support.QueryDslRepositorySupport;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
 import javax.persistence.metamodel.EntityType;
 import javax.persistence.metamodel.Metamodel;
 import javax.persistence.metamodel.SingularAttribute;
@@ -58,8 +78,18 @@ public class QueryDslRepositorySupportExt<T> extends QueryDslRepositorySupport {
 
   private static final Logger LOG = LoggerFactory.getLogger(QueryDslRepositorySupportExt.class);
 
+  private static final String HIBERNATE_FETCH_SIZE = "org.hibernate.fetchSize";
+
+  private static final String ECLIPSELINK_FETCH_SIZE = "eclipselink.jdbc.fetch-size";
+
   private final Class<T> domainClass;
   private PathBuilder<Object> entityIdPath = null;
+  private SearchPredicateBuilder searchPredicateBuilder = new SearchPredicateBuilder();
+  private GlobalSearchStrategy globalSearchStrategy = new ContainsGlobalSearchStrategy();
+  private CountStrategy countStrategy = CountStrategies.exact();
+  private CountCache totalCountCache;
+  private final ConcurrentMap<List<Object>, List<OrderSpecifier<?>>> orderSpecifierCache =
+      new ConcurrentHashMap<List<Object>, List<OrderSpecifier<?>>>();
 
   /**
    * Creates a new {@link QueryDslRepositorySupport} instance for the given domain type.
@@ -117,6 +147,11 @@ public class QueryDslRepositorySupportExt<T> extends QueryDslRepositorySupport {
    * In this case, the {@link Pageable} defines an order by a fullName
    * attribute, but que query will order by name and surname instead.
    *
+   * If all the attributes to order by are mapped, the ordering is applied directly as
+   * {@link OrderSpecifier}s, which are created only once for each mapped attribute,
+   * direction, case sensitivity and null handling, and reused in the following queries
+   * of the repository.
+   *
    * @param pageable the ordering and paging
    * @param query
    * @param attributeMapping definition of a mapping of order attribute names
@@ -130,33 +165,25 @@ public class QueryDslRepositorySupportExt<T> extends QueryDslRepositorySupport {
       return query;
     }
 
-    Pageable mappedPageable;
     Sort sort = pageable.getSort();
     if (sort != null) {
-      List<Sort.Order> mappedOrders = new ArrayList<Sort.Order>();
-      for (Sort.Order order : sort) {
-        if (!attributeMapping.containsKey(order.getProperty())) {
-          LOG.warn(
-              "The property (%1) is not included in the attributeMapping, will order "
-                  + "using the property as it is",
-              order.getProperty());
-          mappedOrders.add(order);
-        } else {
-          Path<?>[] paths = attributeMapping.get(order.getProperty());
-          for (Path<?> path : paths) {
-            Sort.Order mappedOrder =
-                new Sort.Order(order.getDirection(), preparePropertyPath(path));
-            mappedOrders.add(mappedOrder);
-          }
+      List<OrderSpecifier<?>> orderSpecifiers = getOrderSpecifiers(sort, attributeMapping);
+      if (orderSpecifiers != null) {
+        if (orderSpecifiers.isEmpty()) {
+          return query;
         }
+        query.offset(pageable.getOffset());
+        query.limit(pageable.getPageSize());
+        return query.orderBy(orderSpecifiers.toArray(new OrderSpecifier<?>[0]));
       }
-      if (mappedOrders.isEmpty()) {
+      Sort mappedSort = mapSort(sort, attributeMapping);
+      if (mappedSort == null) {
         // No properties to order by are available, so don't apply ordering and return the query
         // as it is
         return query;
       }
-      mappedPageable =
-          new PageRequest(pageable.getPageNumber(), pageable.getPageSize(), new Sort(mappedOrders));
+      Pageable mappedPageable =
+          new PageRequest(pageable.getPageNumber(), pageable.getPageSize(), mappedSort);
       return applyPagination(mappedPageable, query);
     } else {
       return applyPagination(pageable, query);
@@ -164,6 +191,117 @@ public class QueryDslRepositorySupportExt<T> extends QueryDslRepositorySupport {
 
   }
 
+  /**
+   * Applies the given {@link Sort} to the given {@link JPQLQuery}, without any
+   * paging. Allows to map the attributes to order as provided in the {@link Sort}
+   * to real entity attributes, as in
+   * {@link #applyPagination(Pageable, JPQLQuery, Map)}.
+   *
+   * @param sort the ordering, might be null
+   * @param query the query to apply to
+   * @param attributeMapping definition of a mapping of order attribute names
+   *        to real entity ones
+   * @return the updated query
+   */
+  protected JPQLQuery<T> applySorting(Sort sort, JPQLQuery<T> query,
+      Map<String, Path<?>[]> attributeMapping) {
+    if (sort == null) {
+      return query;
+    }
+    List<OrderSpecifier<?>> orderSpecifiers = getOrderSpecifiers(sort, attributeMapping);
+    if (orderSpecifiers != null) {
+      return query.orderBy(orderSpecifiers.toArray(new OrderSpecifier<?>[0]));
+    }
+    Sort mappedSort = mapSort(sort, attributeMapping);
+    return mappedSort == null ? query : getQuerydsl().applySorting(mappedSort, query);
+  }
+
+  /**
+   * Returns the {@link OrderSpecifier}s to apply the given sort, if all its properties
+   * are included in the attribute mapping. The specifiers of each mapped property and
+   * order are created only once and cached in the repository, so they are applied
+   * without resolving the attributes of the entity again.
+   *
+   * @return the order specifiers, or null if any property is not mapped
+   */
+  private List<OrderSpecifier<?>> getOrderSpecifiers(Sort sort,
+      Map<String, Path<?>[]> attributeMapping) {
+    List<OrderSpecifier<?>> orderSpecifiers = new ArrayList<OrderSpecifier<?>>();
+    for (Sort.Order order : sort) {
+      Path<?>[] paths = attributeMapping.get(order.getProperty());
+      if (paths == null) {
+        return null;
+      }
+      orderSpecifiers.addAll(getOrderSpecifiers(order, paths));
+    }
+    return orderSpecifiers;
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private List<OrderSpecifier<?>> getOrderSpecifiers(Sort.Order sortOrder, Path<?>[] paths) {
+    // The attribute mappings are usually created on each request, so the paths
+    // are compared by value
+    List<Object> key = new ArrayList<Object>(paths.length + 3);
+    key.add(sortOrder.getDirection());
+    key.add(sortOrder.isIgnoreCase());
+    key.add(sortOrder.getNullHandling());
+    key.addAll(Arrays.asList(paths));
+
+    List<OrderSpecifier<?>> orderSpecifiers = orderSpecifierCache.get(key);
+    if (orderSpecifiers == null) {
+      Order order = sortOrder.isAscending() ? Order.ASC : Order.DESC;
+      NullHandling nullHandling = toNullHandling(sortOrder.getNullHandling());
+      List<OrderSpecifier<?>> created = new ArrayList<OrderSpecifier<?>>(paths.length);
+      for (Path<?> path : paths) {
+        PropertyPath propertyPath = PropertyPath.from(preparePropertyPath(path), domainClass);
+        Expression<?> target = createPath(getBuilder(), propertyPath);
+        if (sortOrder.isIgnoreCase() && String.class.equals(target.getType())) {
+          target = Expressions.stringOperation(Ops.LOWER, target);
+        }
+        created.add(new OrderSpecifier(order, target, nullHandling));
+      }
+      orderSpecifiers = Collections.unmodifiableList(created);
+      orderSpecifierCache.putIfAbsent(key, orderSpecifiers);
+    }
+    return orderSpecifiers;
+  }
+
+  private static NullHandling toNullHandling(Sort.NullHandling nullHandling) {
+    if (nullHandling == Sort.NullHandling.NULLS_FIRST) {
+      return NullHandling.NullsFirst;
+    }
+    if (nullHandling == Sort.NullHandling.NULLS_LAST) {
+      return NullHandling.NullsLast;
+    }
+    return NullHandling.Default;
+  }
+
+  /**
+   * Maps the properties of the given sort to real entity attributes.
+   *
+   * @return the mapped sort, or null if there isn't any property to order by
+   */
+  private Sort mapSort(Sort sort, Map<String, Path<?>[]> attributeMapping) {
+    List<Sort.Order> mappedOrders = new ArrayList<Sort.Order>();
+    for (Sort.Order order : sort) {
+      if (!attributeMapping.containsKey(order.getProperty())) {
+        LOG.warn(
+            "The property (%1) is not included in the attributeMapping, will order "
+                + "using the property as it is",
+            order.getProperty());
+        mappedOrders.add(order);
+      } else {
+        Path<?>[] paths = attributeMapping.get(order.getProperty());
+        for (Path<?> path : paths) {
+          Sort.Order mappedOrder = new Sort.Order(order.getDirection(),
+              preparePropertyPath(path), order.getNullHandling());
+          mappedOrders.add(order.isIgnoreCase() ? mappedOrder.ignoreCase() : mappedOrder);
+        }
+      }
+    }
+    return mappedOrders.isEmpty() ? null : new Sort(mappedOrders);
+  }
+
   /**
    * Creates a factory to easily build an attribute mapping to
    * real entity attribute names.
@@ -210,54 +348,204 @@ public class QueryDslRepositorySupportExt<T> extends QueryDslRepositorySupport {
   }
 
   /**
-   * Adds a global contains text filter on the provided attributes.
-   * WARNING: this creates a very inefficient query. If you have many entity
-   * instances to query, use instead an indexed text search solution for better
-   * performance.
+   * Adds a global search text filter on the provided attributes, using the repository
+   * {@link GlobalSearchStrategy}.
+   * WARNING: by default this creates a very inefficient query. If you have many entity
+   * instances to query, use instead a strategy which can use indexes, like the
+   * {@link TypedGlobalSearchStrategy} or the {@link IndexedGlobalSearchStrategy}.
    * @param text the text to look for
    * @param query
    * @param globalSearchAttributes the list of attributes to perform the
    *        filter on
    * @return the updated query
+   * @see #setGlobalSearchStrategy(GlobalSearchStrategy)
    */
   protected JPQLQuery<T> applyGlobalSearch(String text, JPQLQuery<T> query,
       Path<?>... globalSearchAttributes) {
-    if (text != null && !StringUtils.isEmpty(text) && globalSearchAttributes.length > 0) {
-      BooleanBuilder searchCondition = new BooleanBuilder();
-      for (int i = 0; i < globalSearchAttributes.length; i++) {
-        Path<?> path = globalSearchAttributes[i];
-        if (path instanceof StringPath) {
-          StringPath stringPath = (StringPath) path;
-          searchCondition.or(stringPath.containsIgnoreCase(text));
-        } else if (path instanceof NumberExpression) {
-          searchCondition.or(((NumberExpression<?>) path).like("%".concat(text).concat("%")));
-        }
-      }
-      return query.where(searchCondition);
+    if (StringUtils.hasText(text)) {
+      return applyGlobalSearch(new GlobalSearch(text), query, globalSearchAttributes);
     }
     return query;
   }
 
   /**
-   * Adds a global contains text filter on the provided attributes.
-   * WARNING: this creates a very inefficient query. If you have many entity
-   * instances to query, use instead an indexed text search solution for better
-   * performance.
+   * Adds a global search text filter on the provided attributes, using the repository
+   * {@link GlobalSearchStrategy}.
+   * WARNING: by default this creates a very inefficient query. If you have many entity
+   * instances to query, use instead a strategy which can use indexes, like the
+   * {@link TypedGlobalSearchStrategy} or the {@link IndexedGlobalSearchStrategy}.
+   * To perform the searches whose text is a regular expression in the database, use the
+   * {@link RegexpGlobalSearchStrategy}.
    * @param globalSearch Contains the text to look for
    * @param query
    * @param globalSearchAttributes the list of attributes to perform the
    *        filter on
    * @return the updated query
+   * @see #setGlobalSearchStrategy(GlobalSearchStrategy)
    */
   protected JPQLQuery<T> applyGlobalSearch(GlobalSearch globalSearch, JPQLQuery<T> query,
       Path<?>... globalSearchAttributes) {
     if (globalSearch != null) {
-      String txt = globalSearch.getText();
-      return applyGlobalSearch(txt, query, globalSearchAttributes);
+      Predicate searchCondition = getGlobalSearchStrategy().createPredicate(globalSearch,
+          domainClass, getEntityId(), globalSearchAttributes);
+      if (searchCondition != null) {
+        return query.where(searchCondition);
+      }
     }
     return query;
   }
 
+  /**
+   * Returns the strategy used to perform the global searches.
+   * @return the global search strategy
+   */
+  protected GlobalSearchStrategy getGlobalSearchStrategy() {
+    return globalSearchStrategy;
+  }
+
+  /**
+   * Sets the strategy to use to perform the global searches.
+   * @param globalSearchStrategy the global search strategy
+   */
+  public void setGlobalSearchStrategy(GlobalSearchStrategy globalSearchStrategy) {
+    this.globalSearchStrategy = globalSearchStrategy;
+  }
+
+  /**
+   * Adds the search filters of the searchable datatables columns to the query, so they
+   * are performed in the database. The predicates of each column depend on the type
+   * of the attribute, so they can use the database indexes, as created by the
+   * {@link SearchPredicateBuilder}.
+   *
+   * The column data may be mapped to one or more entity attributes. If a column
+   * is not mapped, its data is used as the entity property path, using
+   * {@link ConvertedDatatablesData#DEFAULT_PROPERTY_SEPARATOR} as separator between the
+   * nested properties.
+   *
+   * If a column search text can't be applied to the type of the column attributes,
+   * no data will be returned, as no data could match it.
+   *
+   * @param columns the datatables columns with their search values
+   * @param query the query to apply to
+   * @param mapping definition of a mapping of column data names to real entity attributes.
+   *        It might be null.
+   * @return the updated query
+   */
+  protected JPQLQuery<T> applyColumnSearch(DatatablesColumns columns, JPQLQuery<T> query,
+      AttributeMappingBuilder mapping) {
+    return applyColumnSearch(columns, query, mapping == null ? null : mapping.asMap());
+  }
+
+  /**
+   * Adds the search filters of the searchable datatables columns to the query, so they
+   * are performed in the database.
+   *
+   * @param columns the datatables columns with their search values
+   * @param query the query to apply to
+   * @param attributeMapping definition of a mapping of column data names to real
+   *        entity attributes. It might be null.
+   * @return the updated query
+   * @see #applyColumnSearch(DatatablesColumns, JPQLQuery, AttributeMappingBuilder)
+   */
+  protected JPQLQuery<T> applyColumnSearch(DatatablesColumns columns, JPQLQuery<T> query,
+      Map<String, Path<?>[]> attributeMapping) {
+    if (columns == null) {
+      return query;
+    }
+
+    BooleanBuilder searchCondition = new BooleanBuilder();
+    for (Column column : columns.getSearchableColumns()) {
+      String text = column.getSearch();
+      if (!StringUtils.hasText(text)) {
+        continue;
+      }
+      Path<?>[] paths = getColumnPaths(column.getData(), attributeMapping);
+      if (paths.length == 0) {
+        LOG.warn("The column ({}) can't be mapped to an entity attribute, it won't be filtered",
+            column.getData());
+        continue;
+      }
+      BooleanBuilder columnCondition = new BooleanBuilder();
+      for (Path<?> path : paths) {
+        Predicate predicate = getSearchPredicateBuilder().createPredicate(path, text);
+        if (predicate != null) {
+          columnCondition.or(predicate);
+        }
+      }
+      // If the text doesn't apply to the column attributes, no data can match it
+      searchCondition.and(columnCondition.hasValue() ? columnCondition : getEntityId().isNull());
+    }
+
+    return searchCondition.hasValue() ? query.where(searchCondition) : query;
+  }
+
+  /**
+   * Returns the builder used to create the search predicates.
+   * @return the search predicate builder
+   */
+  protected SearchPredicateBuilder getSearchPredicateBuilder() {
+    return searchPredicateBuilder;
+  }
+
+  /**
+   * Sets the builder to use to create the search predicates.
+   * @param searchPredicateBuilder the search predicate builder
+   */
+  public void setSearchPredicateBuilder(SearchPredicateBuilder searchPredicateBuilder) {
+    this.searchPredicateBuilder = searchPredicateBuilder;
+  }
+
+  /**
+   * Returns the entity attributes of a datatables column, from the attribute mapping
+   * or from the entity property path given by the column data.
+   */
+  private Path<?>[] getColumnPaths(String data, Map<String, Path<?>[]> attributeMapping) {
+    if (!StringUtils.hasText(data)) {
+      return new Path<?>[0];
+    }
+    if (attributeMapping != null && attributeMapping.containsKey(data)) {
+      return attributeMapping.get(data);
+    }
+    String property =
+        data.replace(ConvertedDatatablesData.DEFAULT_PROPERTY_SEPARATOR, ".");
+    try {
+      PropertyPath propertyPath = PropertyPath.from(property, domainClass);
+      return new Path<?>[] {createPath(getBuilder(), propertyPath)};
+    } catch (PropertyReferenceException ex) {
+      return new Path<?>[0];
+    }
+  }
+
+  /**
+   * Creates a typed path for the given property path, so the search predicates
+   * can take into account the property type.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Path<?> createPath(PathBuilder<?> parent, PropertyPath propertyPath) {
+    String name = propertyPath.getSegment();
+    if (propertyPath.hasNext()) {
+      return createPath(parent.get(name), propertyPath.next());
+    }
+    // Primitive attributes must be handled as their wrapper types
+    Class type = ClassUtils.resolvePrimitiveIfNecessary(propertyPath.getType());
+    if (String.class.equals(type)) {
+      return parent.getString(name);
+    }
+    if (Number.class.isAssignableFrom(type) && Comparable.class.isAssignableFrom(type)) {
+      return parent.getNumber(name, type);
+    }
+    if (Boolean.class.equals(type)) {
+      return parent.getBoolean(name);
+    }
+    if (type.isEnum()) {
+      return parent.getEnum(name, type);
+    }
+    if (Comparable.class.isAssignableFrom(type)) {
+      return parent.getComparable(name, type);
+    }
+    return parent.get(name, type);
+  }
+
   /**
    * Loads a page of data with the provided pagination criteria. It allows to
    * load full entities as well as projections.
@@ -280,6 +568,9 @@ public class QueryDslRepositorySupportExt<T> extends QueryDslRepositorySupport {
    *    employee.supervisor.id, employee.supervisor.firstName, employee.supervisor.lastName));
    * </pre>
    *
+   * The total number of elements is obtained with the repository {@link CountStrategy},
+   * which counts them before loading the data by default.
+   *
    * @param <M> the data type to load, usually a JPA Entity or a projection bean
    * @param query the query with the pagination and ordering criteria already applied
    * @param pageable the already applied pagination and ordering criteria
@@ -287,9 +578,482 @@ public class QueryDslRepositorySupportExt<T> extends QueryDslRepositorySupport {
    * @return the loaded data page
    */
   protected <M> Page<M> loadPage(JPQLQuery<T> query, Pageable pageable, Expression<M> expression) {
+    return loadPage(query, pageable, expression, getCountStrategy());
+  }
+
+  /**
+   * Loads a page of data with the provided pagination criteria, obtaining the total
+   * number of elements with the given {@link CountStrategy}. As an example, use
+   * {@link CountStrategies#fetchOneMore()} to load the data for a select2 component,
+   * which only needs to know if there are more pages.
+   *
+   * @param <M> the data type to load, usually a JPA Entity or a projection bean
+   * @param query the query with the pagination and ordering criteria already applied
+   * @param pageable the already applied pagination and ordering criteria
+   * @param expression the entity or projection to build with the query data
+   * @param countStrategy how to obtain the total number of elements
+   * @return the loaded data page
+   * @see #loadPage(JPQLQuery, Pageable, Expression)
+   */
+  protected <M> Page<M> loadPage(JPQLQuery<T> query, Pageable pageable, Expression<M> expression,
+      CountStrategy countStrategy) {
+    return countStrategy.loadPage(query, pageable, expression);
+  }
+
+  /**
+   * Loads a page of entities with the provided pagination criteria, fetching the given
+   * associations along with them, so they are not loaded lazily one by one afterwards,
+   * as when rendering the associations of each row of a datatables component.
+   *
+   * The associations are fetched with left fetch joins in the data query, while
+   * the count query doesn't fetch them. Collections can't be fetched when loading a page,
+   * as the JPA providers can't limit the rows of a query which fetches a collection,
+   * and Hibernate would load all the data to apply the pagination in memory. Use
+   * {@link #loadPageByIds(JPQLQuery, Pageable, Path...)} to fetch them instead.
+   *
+   * Without pagination, collections can be fetched, and the entities are deduplicated in
+   * memory. The query is not made _distinct_, as some databases, like PostgreSQL, don't
+   * allow to order a _distinct_ query by attributes which are not selected, like the ones
+   * of the joined associations. Take into account that Hibernate doesn't allow to fetch
+   * more than one _List_ association at once.
+   *
+   * Sample:
+   *
+   * <pre class="code">
+   * loadPage(query, pageable, QOwner.owner, QOwner.owner.address, QOwner.owner.pets);
+   * </pre>
+   *
+   * @param <M> the entity type to load
+   * @param query the query with the pagination and ordering criteria already applied
+   * @param pageable the already applied pagination and ordering criteria, or null to load
+   * all the entities
+   * @param expression the entity to load
+   * @param fetchedAssociations the associations of the entity to load along with it
+   * @return the loaded data page
+   * @throws IllegalArgumentException if a collection is fetched along with a page
+   * @see #loadPage(JPQLQuery, Pageable, Expression)
+   */
+  protected <M> Page<M> loadPage(JPQLQuery<T> query, Pageable pageable, Expression<M> expression,
+      Path<?>... fetchedAssociations) {
+    boolean collection = FetchJoins.apply(query, fetchedAssociations);
+    return loadFetchedPage(query, pageable, expression, collection);
+  }
+
+  /**
+   * Loads a page of entities with the provided pagination criteria, fetching the
+   * attributes of the given JPA entity graph along with them, as in
+   * {@link #loadPage(JPQLQuery, Pageable, Expression, Path...)}.
+   *
+   * The entity graph is not provided to the JPA provider as a query hint, as it would be
+   * applied to the count query too. Its attributes and subgraphs are fetched with left
+   * fetch joins instead, so the entity graph can't include collections when loading a page.
+   *
+   * @param <M> the entity type to load
+   * @param query the query with the pagination and ordering criteria already applied
+   * @param pageable the already applied pagination and ordering criteria, or null to load
+   * all the entities
+   * @param expression the entity to load
+   * @param entityGraphName the name of the entity graph with the attributes to load
+   * @return the loaded data page
+   * @throws IllegalArgumentException if a collection is fetched along with a page
+   */
+  protected <M> Page<M> loadPage(JPQLQuery<T> query, Pageable pageable, Expression<M> expression,
+      String entityGraphName) {
+    EntityManager entityManager = getEntityManager();
+    EntityGraph<?> entityGraph = entityManager.getEntityGraph(entityGraphName);
+    boolean collection =
+        FetchJoins.apply(query, getBuilder(), entityGraph, entityManager.getMetamodel());
+    return loadFetchedPage(query, pageable, expression, collection);
+  }
+
+  private <M> Page<M> loadFetchedPage(JPQLQuery<T> query, Pageable pageable,
+      Expression<M> expression, boolean collection) {
+    if (!collection) {
+      return loadPage(query, pageable, expression);
+    }
+    if (pageable != null) {
+      throw new IllegalArgumentException("Collections can't be fetched along with a page of "
+          + domainClass.getName() + ", as it would be paginated in memory. "
+          + "Use loadPageByIds instead");
+    }
+    // Fetching collections returns an entity for each element
+    List<M> results = new ArrayList<M>(new LinkedHashSet<M>(query.select(expression).fetch()));
+    return new PageImpl<M>(results);
+  }
+
+  /**
+   * Loads a page of entities in two phases, fetching the given associations along with
+   * them. Use it instead of {@link #loadPage(JPQLQuery, Pageable, Expression, Path...)}
+   * when fetching collections, as the JPA providers can't limit the rows of a query
+   * which fetches a collection, and Hibernate loads all the data to apply the
+   * pagination in memory.
+   *
+   * First, the identifiers of the entities of the page are loaded with the given query,
+   * counting the elements with the repository {@link CountStrategy}. Then, the entities
+   * with those identifiers are loaded with the fetch joins of the associations, and
+   * reordered in memory as the identifiers of the first query.
+   *
+   * The identifiers are not selected as _distinct_, as some databases, like PostgreSQL,
+   * don't allow to order a _distinct_ query by columns which are not selected. If the
+   * query joins collections, an identifier might be returned more than once, so the
+   * repeated identifiers are removed in memory. In that case, the page might contain
+   * fewer entities than the page size, and the total counts the joined rows. Filter by
+   * the collections with subqueries to avoid it.
+   *
+   * The associations must be relative to the default alias of the entity, the same one
+   * used by the QueryDsl generated class, as in
+   * `loadPageByIds(query, pageable, QOwner.owner.pets)`.
+   *
+   * @param query the query with the pagination and ordering criteria already applied
+   * @param pageable the already applied pagination and ordering criteria
+   * @param fetchedAssociations the associations of the entity to load along with it
+   * @return the loaded data page
+   */
+  protected Page<T> loadPageByIds(JPQLQuery<T> query, Pageable pageable,
+      Path<?>... fetchedAssociations) {
+    PathBuilder<Object> idPath = getEntityId();
+    Page<Object> idPage = loadPage(query, pageable, idPath);
+    // The joins of the query might repeat the identifiers
+    Set<Object> ids = new LinkedHashSet<Object>(idPage.getContent());
+    if (ids.isEmpty()) {
+      return new PageImpl<T>(new ArrayList<T>(), pageable, idPage.getTotalElements());
+    }
+
+    JPQLQuery<Object> fetchQuery = from(getBuilder());
+    FetchJoins.apply(fetchQuery, fetchedAssociations);
+    fetchQuery.where(idPath.in(ids));
+    List<Tuple> rows = fetchQuery.select(getBuilder(), idPath).fetch();
+
+    // Fetching collections returns an entity for each element, so they are also deduplicated
+    Map<Object, T> entities = new HashMap<Object, T>(ids.size());
+    for (Tuple row : rows) {
+      entities.put(row.get(1, Object.class), domainClass.cast(row.get(0, Object.class)));
+    }
+    List<T> results = new ArrayList<T>(ids.size());
+    for (Object id : ids) {
+      T entity = entities.get(id);
+      // The entity might have been removed between both queries
+      if (entity != null) {
+        results.add(entity);
+      }
+    }
+    return new PageImpl<T>(results, pageable, idPage.getTotalElements());
+  }
+
+  /**
+   * Returns the strategy used by default to obtain the total number of elements
+   * when loading a page of data.
+   * @return the count strategy
+   */
+  protected CountStrategy getCountStrategy() {
+    return countStrategy;
+  }
+
+  /**
+   * Sets the strategy to use by default to obtain the total number of elements
+   * when loading a page of data.
+   * @param countStrategy the count strategy
+   */
+  public void setCountStrategy(CountStrategy countStrategy) {
+    this.countStrategy = countStrategy;
+  }
+
+  /**
+   * Returns the total number of entities managed by this repository, without any filter.
+   * This is the value to provide as the _recordsTotal_ of a datatables response.
+   *
+   * If a total count cache has been set, the count is cached until its time to live
+   * expires or an entity is inserted or deleted, as notified by the
+   * {@link CountCacheEntityListener}.
+   *
+   * @return the total number of entities
+   * @see #setTotalCountCache(CountCache)
+   */
+  protected long countAll() {
+    return countAll(null);
+  }
+
+  /**
+   * Returns the total number of entities managed by this repository which meet a base
+   * condition, like the entities which belong to the current user. This is the value
+   * to provide as the _recordsTotal_ of a datatables response whose data is always
+   * filtered by that condition.
+   *
+   * If a total count cache has been set, the count is cached by the JPQL of the count
+   * query and the values of its parameters. The count is evicted when an entity is
+   * inserted or deleted, and also when it is updated if there is a condition, as
+   * notified by the {@link CountCacheEntityListener}.
+   *
+   * @param basePredicate the base condition, might be null
+   * @return the total number of entities which meet the condition
+   * @see #setTotalCountCache(CountCache)
+   */
+  protected long countAll(Predicate basePredicate) {
+    JPQLQuery<Object> query = from(getBuilder());
+    if (basePredicate != null) {
+      query.where(basePredicate);
+    }
+
+    CountCache cache = getTotalCountCache();
+    if (cache == null) {
+      return query.fetchCount();
+    }
+    Object key = CachedCountStrategy.getKey(query.getMetadata());
+    Long cachedCount = cache.get(domainClass, key);
+    if (cachedCount != null) {
+      return cachedCount;
+    }
+    long count = query.fetchCount();
+    cache.put(domainClass, key, count, basePredicate != null);
+    return count;
+  }
+
+  /**
+   * Returns the cache of the total number of entities.
+   * @return the total count cache, or null if the counts are not cached
+   */
+  protected CountCache getTotalCountCache() {
+    return totalCountCache;
+  }
+
+  /**
+   * Sets the cache to store the total number of entities returned by {@link #countAll()}.
+   * The cache is registered in the {@link CountCacheEntityListener}, so the counts are
+   * evicted when an entity is inserted or deleted, if the entity declares that listener.
+   * The same cache can be shared by many repositories. The previous cache, if any, is
+   * unregistered.
+   *
+   * @param totalCountCache the total count cache, or null to not cache the counts
+   */
+  public void setTotalCountCache(CountCache totalCountCache) {
+    CountCache previousCache = this.totalCountCache;
+    this.totalCountCache = totalCountCache;
+    if (totalCountCache == previousCache) {
+      return;
+    }
+    if (previousCache != null) {
+      CountCacheEntityListener.unregister(previousCache);
+    }
+    if (totalCountCache != null) {
+      CountCacheEntityListener.register(totalCountCache);
+    }
+  }
+
+  /**
+   * Loads all the data of a query, passing each element to the given callback instead of
+   * returning them in a {@link List}, so large results can be exported without loading
+   * all of them in memory. The query is filtered and ordered as usual, using
+   * {@link #applyGlobalSearch(GlobalSearch, JPQLQuery, Path...)} or
+   * {@link #applySorting(Sort, JPQLQuery, Map)}, but without pagination.
+   *
+   * The results are read with a scrollable cursor if the JPA provider supports it,
+   * as Hibernate does, loading them from the database in blocks of _fetchSize_ rows.
+   * After each block, the persistence context is cleared to release the already
+   * processed entities. Within a transaction, the pending changes, including the ones
+   * made by the callback, are flushed before iterating and before each clear, so they
+   * aren't lost.
+   *
+   * Sample:
+   *
+   * <pre class="code">
+   * streamAll(query, QEmployee.employee, 500, new RowCallback&lt;Employee&gt;() {
+   *
+   *   public void processRow(Employee employee) {
+   *     writer.writeNext(employee);
+   *   }
+   * });
+   * </pre>
+   *
+   * @param <M> the data type to load, usually a JPA Entity or a projection bean
+   * @param query the query without pagination
+   * @param expression the entity or projection to build with the query data
+   * @param fetchSize the number of rows to load from the database each time
+   * @param callback the callback to process each element
+   * @return the number of processed elements
+   */
+  protected <M> long streamAll(JPQLQuery<T> query, Expression<M> expression, int fetchSize,
+      RowCallback<? super M> callback) {
+    Assert.isTrue(fetchSize > 0, "The fetch size must be positive");
+    Assert.notNull(callback, "The row callback is required");
+
+    JPQLQuery<M> select = query.select(expression);
+    if (select instanceof AbstractJPAQuery) {
+      AbstractJPAQuery<?, ?> jpaQuery = (AbstractJPAQuery<?, ?>) select;
+      jpaQuery.setHint(HIBERNATE_FETCH_SIZE, fetchSize);
+      jpaQuery.setHint(ECLIPSELINK_FETCH_SIZE, fetchSize);
+    }
+
+    flushIfJoinedToTransaction();
+    long count = 0;
+    CloseableIterator<M> iterator = select.iterate();
+    try {
+      while (iterator.hasNext()) {
+        callback.processRow(iterator.next());
+        if (++count % fetchSize == 0) {
+          flushIfJoinedToTransaction();
+          getEntityManager().clear();
+        }
+      }
+    } finally {
+      iterator.close();
+    }
+    return count;
+  }
+
+  private void flushIfJoinedToTransaction() {
+    // Outside transactions there is nothing to flush, and flush() would fail
+    EntityManager entityManager = getEntityManager();
+    if (entityManager.isJoinedToTransaction()) {
+      entityManager.flush();
+    }
+  }
+
+  /**
+   * Loads a page of data using keyset (seek) pagination, instead of the offset based
+   * pagination of {@link #loadPage(JPQLQuery, Pageable, Expression)}. Deep pages are loaded
+   * as fast as the first one, as the query looks for the data placed after the last element
+   * of the previous page, given by the cursor, and it can use an index over the ordering
+   * attributes.
+   *
+   * The query is ordered by the sort of the {@link Pageable}, followed by the entity
+   * identifier as in {@link #applyOrderById(JPQLQuery)}, so the query must not have
+   * the paging and sorting criteria already applied.
+   *
+   * The cursor is only used to load the page it leads to, as it might be sent again
+   * to load another page, like when the user jumps to another page or changes the page
+   * size. If the cursor is null, it has been created with another ordering or it leads to
+   * another page, the page is loaded using the {@link Pageable} offset.
+   *
+   * Sample:
+   *
+   * <pre class="code">
+   * loadKeysetPage(query, pageable, cursor, QEmployee.employee);
+   * </pre>
+   *
+   * @param <M> the data type to load, usually a JPA Entity or a projection bean
+   * @param query the query without the pagination and ordering criteria
+   * @param pageable the pagination and ordering criteria
+   * @param cursor the position of the last element of the previous page, might be null
+   * @param expression the entity or projection to build with the query data
+   * @return the loaded data page, with the cursor to load the following page
+   */
+  protected <M> KeysetPage<M> loadKeysetPage(JPQLQuery<T> query, Pageable pageable,
+      KeysetCursor cursor, Expression<M> expression) {
+    return loadKeysetPage(query, pageable, cursor, expression,
+        Collections.<String, Path<?>[]>emptyMap());
+  }
+
+  /**
+   * Loads a page of data using keyset (seek) pagination, mapping the attributes
+   * to order as provided in the {@link Pageable} to real entity attributes, as in
+   * {@link #applyPagination(Pageable, JPQLQuery, AttributeMappingBuilder)}.
+   *
+   * @param <M> the data type to load, usually a JPA Entity or a projection bean
+   * @param query the query without the pagination and ordering criteria
+   * @param pageable the pagination and ordering criteria
+   * @param cursor the position of the last element of the previous page, might be null
+   * @param expression the entity or projection to build with the query data
+   * @param mapping definition of a mapping of order attribute names to
+   *        real entity ones
+   * @return the loaded data page, with the cursor to load the following page
+   * @see #loadKeysetPage(JPQLQuery, Pageable, KeysetCursor, Expression)
+   */
+  protected <M> KeysetPage<M> loadKeysetPage(JPQLQuery<T> query, Pageable pageable,
+      KeysetCursor cursor, Expression<M> expression, AttributeMappingBuilder mapping) {
+    return loadKeysetPage(query, pageable, cursor, expression, mapping.asMap());
+  }
+
+  /**
+   * Loads a page of data using keyset (seek) pagination, mapping the attributes
+   * to order as provided in the {@link Pageable} to real entity attributes.
+   *
+   * @param <M> the data type to load, usually a JPA Entity or a projection bean
+   * @param query the query without the pagination and ordering criteria
+   * @param pageable the pagination and ordering criteria
+   * @param cursor the position of the last element of the previous page, might be null
+   * @param expression the entity or projection to build with the query data
+   * @param attributeMapping definition of a mapping of order attribute names
+   *        to real entity ones
+   * @return the loaded data page, with the cursor to load the following page
+   * @see #loadKeysetPage(JPQLQuery, Pageable, KeysetCursor, Expression)
+   */
+  protected <M> KeysetPage<M> loadKeysetPage(JPQLQuery<T> query, Pageable pageable,
+      KeysetCursor cursor, Expression<M> expression, Map<String, Path<?>[]> attributeMapping) {
+    Assert.notNull(pageable, "The pagination criteria is required");
+
     long totalFound = query.fetchCount();
-    List<M> results = query.select(expression).fetch();
-    return new PageImpl<M>(results, pageable, totalFound);
+
+    Keyset keyset = createKeyset(pageable.getSort(), attributeMapping);
+    boolean seek = false;
+    if (keyset.isApplicable(cursor, pageable.getOffset())) {
+      try {
+        query.where(keyset.after(cursor));
+        seek = true;
+      } catch (IllegalArgumentException ex) {
+        LOG.debug("Invalid keyset cursor ({}), the page offset will be used instead", cursor);
+      }
+    }
+    if (!seek) {
+      query.offset(pageable.getOffset());
+    }
+    query.orderBy(keyset.getOrderSpecifiers());
+    // Load an additional element to know if there is a following page
+    query.limit(pageable.getPageSize() + 1L);
+
+    Expression<?>[] keys = keyset.getPaths();
+    Expression<?>[] selection = new Expression<?>[keys.length + 1];
+    selection[0] = expression;
+    System.arraycopy(keys, 0, selection, 1, keys.length);
+    List<Tuple> rows = query.select(selection).fetch();
+
+    int size = Math.min(rows.size(), pageable.getPageSize());
+    List<M> results = new ArrayList<M>(size);
+    for (int i = 0; i < size; i++) {
+      results.add(rows.get(i).get(expression));
+    }
+
+    KeysetCursor nextCursor = null;
+    if (rows.size() > size) {
+      Tuple last = rows.get(size - 1);
+      Object[] values = new Object[keys.length];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = last.get(i + 1, Object.class);
+      }
+      nextCursor = keyset.createCursor(values, pageable.getOffset() + pageable.getPageSize());
+    }
+    return new KeysetPage<M>(results, pageable, totalFound, nextCursor);
+  }
+
+  /**
+   * Creates the ordering attributes for keyset pagination from the given sort,
+   * always ending with the entity identifier.
+   */
+  private Keyset createKeyset(Sort sort, Map<String, Path<?>[]> attributeMapping) {
+    Keyset keyset = new Keyset();
+    String idProperty = getEntityId().getMetadata().getName();
+    boolean orderedById = false;
+    if (sort != null) {
+      for (Sort.Order order : sort) {
+        Order direction = order.isAscending() ? Order.ASC : Order.DESC;
+        List<String> properties = new ArrayList<String>();
+        if (attributeMapping.containsKey(order.getProperty())) {
+          for (Path<?> path : attributeMapping.get(order.getProperty())) {
+            properties.add(preparePropertyPath(path));
+          }
+        } else {
+          properties.add(order.getProperty());
+        }
+        for (String property : properties) {
+          PropertyPath propertyPath = PropertyPath.from(property, domainClass);
+          keyset.add(createPath(getBuilder(), propertyPath), direction);
+          orderedById |= idProperty.equals(property);
+        }
+      }
+    }
+    if (!orderedById) {
+      keyset.add(createPath(getBuilder(), PropertyPath.from(idProperty, domainClass)), Order.ASC);
+    }
+    return keyset;
   }
 
   /**
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.dsl.SimpleExpression;
+import com.querydsl.core.types.dsl.StringExpression;
+
+import io.springlets.data.domain.GlobalSearch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * {@link GlobalSearchStrategy} which performs the global searches whose text is a regular
+ * expression in the database, looking for the entities with any String or number attribute
+ * which contains a match of the regular expression. The searches whose text is not a regular
+ * expression are performed by another strategy, the {@link ContainsGlobalSearchStrategy}
+ * by default.
+ *
+ * JPQL doesn't provide regular expression support, so the condition is created with a
+ * template which calls the database function through the JPQL _function_ operator, as
+ * defined by the {@link Dialect} of the database. The regular expression syntax depends
+ * on the database, so the search text is only checked to be a valid Java regular
+ * expression. If it is not, it is searched as plain text.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class RegexpGlobalSearchStrategy implements GlobalSearchStrategy {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RegexpGlobalSearchStrategy.class);
+
+  /**
+   * Templates of the regular expression conditions for the supported databases,
+   * being _{0}_ the attribute and _{1}_ the regular expression.
+   */
+  public enum Dialect {
+
+    /**
+     * Oracle: the REGEXP_LIKE condition can't be called as a function, so
+     * REGEXP_INSTR is used instead.
+     */
+    ORACLE("function('regexp_instr', {0}, {1}) > 0"),
+
+    /**
+     * MySQL 8 and MariaDB 10.0.5 or later.
+     */
+    MYSQL("function('regexp_like', {0}, {1}) = 1"),
+
+    /**
+     * PostgreSQL: the function which implements the _~_ operator.
+     */
+    POSTGRESQL("function('textregexeq', {0}, {1}) = true"),
+
+    /**
+     * H2 1.4.193 or later.
+     */
+    H2("function('regexp_like', {0}, {1}) = true");
+
+    private final String template;
+
+    Dialect(String template) {
+      this.template = template;
+    }
+
+    /**
+     * Returns the template of the regular expression condition.
+     * @return the condition template
+     */
+    public String getTemplate() {
+      return template;
+    }
+  }
+
+  private final String template;
+
+  private final GlobalSearchStrategy textStrategy;
+
+  /**
+   * Creates a new regular expression global search strategy.
+   *
+   * @param dialect the database dialect
+   */
+  public RegexpGlobalSearchStrategy(Dialect dialect) {
+    this(dialect.getTemplate(), new ContainsGlobalSearchStrategy());
+  }
+
+  /**
+   * Creates a new regular expression global search strategy.
+   *
+   * @param dialect the database dialect
+   * @param textStrategy the strategy to perform the searches which are not
+   *        regular expressions
+   */
+  public RegexpGlobalSearchStrategy(Dialect dialect, GlobalSearchStrategy textStrategy) {
+    this(dialect.getTemplate(), textStrategy);
+  }
+
+  /**
+   * Creates a new regular expression global search strategy with a custom template,
+   * for databases without a {@link Dialect}.
+   *
+   * @param template the template of the regular expression condition, being
+   *        _{0}_ the attribute and _{1}_ the regular expression
+   * @param textStrategy the strategy to perform the searches which are not
+   *        regular expressions
+   */
+  public RegexpGlobalSearchStrategy(String template, GlobalSearchStrategy textStrategy) {
+    Assert.hasText(template, "The regular expression template is required");
+    Assert.notNull(textStrategy, "The text global search strategy is required");
+    this.template = template;
+    this.textStrategy = textStrategy;
+  }
+
+  @Override
+  public Predicate createPredicate(GlobalSearch globalSearch, Class<?> entityType,
+      SimpleExpression<?> idPath, Path<?>... attributes) {
+    if (!globalSearch.isRegexp() || !isValid(globalSearch)) {
+      return textStrategy.createPredicate(globalSearch, entityType, idPath, attributes);
+    }
+
+    BooleanBuilder searchCondition = new BooleanBuilder();
+    for (Path<?> path : attributes) {
+      StringExpression text = null;
+      if (path instanceof StringExpression) {
+        text = (StringExpression) path;
+      } else if (path instanceof NumberExpression) {
+        text = ((NumberExpression<?>) path).stringValue();
+      }
+      if (text != null) {
+        searchCondition.or(Expressions.booleanTemplate(template, text,
+            Expressions.constant(globalSearch.getText())));
+      }
+    }
+    return searchCondition.getValue();
+  }
+
+  private static boolean isValid(GlobalSearch globalSearch) {
+    try {
+      globalSearch.getPattern();
+      return true;
+    } catch (PatternSyntaxException ex) {
+      LOG.debug("Invalid regular expression ({}), it will be searched as text",
+          globalSearch.getText());
+      return false;
+    }
+  }
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.jpa.JPQLQuery;
+
+/**
+ * Callback to process, one by one, the elements loaded by a query without holding all of
+ * them in memory, as when exporting large results to a CSV or Excel file.
+ *
+ * @param <M> the type of the elements to process, usually a JPA Entity or a projection bean
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ * @see QueryDslRepositorySupportExt#streamAll(JPQLQuery, Expression, int, RowCallback)
+ */
+public interface RowCallback<M> {
+
+  /**
+   * Processes an element loaded by the query. The element might be detached
+   * once processed, so it shouldn't be kept.
+   *
+   * @param row the element to process
+   */
+  void processRow(M row);
+
+}
@@ -0,0 +1,461 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.ComparableExpression;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.dsl.SimpleExpression;
+import com.querydsl.core.types.dsl.StringExpression;
+
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.util.NumberUtils;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.text.DateFormat;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the predicates to search a text in entity attributes, taking into account
+ * the type of each attribute, so the predicates can use the database indexes:
+ *
+ * * Strings: case sensitive prefix search by default, which can use a regular index,
+ *   or as defined by the {@link StringMatchMode}, which might be configured for
+ *   each attribute.
+ * * Integer numbers: equality with the text parsed as the attribute number type.
+ * * Decimal numbers: range of the values which start with the text, like
+ *   _[12.5, 12.6)_ for the _12.5_ text.
+ * * Dates and calendars: range of the day of the text parsed as a date, either
+ *   in the ISO format (yyyy-MM-dd) or the short date format of the current locale.
+ * * Enums: in the constants whose name starts with the text, or whose translation
+ *   contains it, if a {@link MessageSource} is available. The translation of a constant
+ *   is the message with the code *enum_CLASS_NAME*, being *CLASS* the enum simple class
+ *   name, and *NAME* the constant name.
+ * * Booleans: equality with the text if it is _true_ or _false_.
+ *
+ * If the text can't be applied to the attribute type, no predicate is created.
+ *
+ * When searching the same text in many attributes, like in a global search, the text
+ * is parsed only once for each attribute type.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class SearchPredicateBuilder {
+
+  private static final String ISO_DATE_PATTERN = "yyyy-MM-dd";
+
+  private static final String ENUM_MESSAGE_CODE_PREFIX = "enum_";
+
+  private static final String ENUM_MESSAGE_CODE_SEPARATOR = "_";
+
+  /**
+   * How to compare a String attribute with the search text.
+   */
+  public enum StringMatchMode {
+
+    /**
+     * The attribute starts with the text. This is the only mode which can use
+     * a regular index over the attribute.
+     */
+    STARTS_WITH,
+
+    /**
+     * The attribute starts with the text, ignoring case. It can't use a regular index,
+     * only a function based index over the lower case attribute value, which has
+     * to be created in the database.
+     */
+    STARTS_WITH_IGNORE_CASE,
+
+    /**
+     * The attribute contains the text, ignoring case. It can't use an index.
+     */
+    CONTAINS_IGNORE_CASE,
+
+    /**
+     * The attribute is equal to the text.
+     */
+    EQUALS
+  }
+
+  private StringMatchMode stringMatchMode = StringMatchMode.STARTS_WITH;
+
+  private final Map<Path<?>, StringMatchMode> pathStringMatchModes =
+      new ConcurrentHashMap<Path<?>, StringMatchMode>();
+
+  private MessageSource messageSource;
+
+  /**
+   * Returns how String attributes are compared with the search text.
+   * @return the String match mode
+   */
+  public StringMatchMode getStringMatchMode() {
+    return stringMatchMode;
+  }
+
+  /**
+   * Sets how String attributes are compared with the search text.
+   * @param stringMatchMode the String match mode
+   */
+  public void setStringMatchMode(StringMatchMode stringMatchMode) {
+    this.stringMatchMode = stringMatchMode;
+  }
+
+  /**
+   * Sets how a String attribute is compared with the search text, instead of
+   * the default String match mode.
+   * @param path the String attribute
+   * @param stringMatchMode the String match mode for the attribute
+   */
+  public void setStringMatchMode(Path<?> path, StringMatchMode stringMatchMode) {
+    pathStringMatchModes.put(path, stringMatchMode);
+  }
+
+  /**
+   * Returns how a String attribute is compared with the search text.
+   * @param path the String attribute
+   * @return the String match mode for the attribute
+   */
+  public StringMatchMode getStringMatchMode(Path<?> path) {
+    StringMatchMode mode = pathStringMatchModes.get(path);
+    return mode == null ? stringMatchMode : mode;
+  }
+
+  /**
+   * Sets the source of the enum constant translations.
+   * @param messageSource the message source, might be null
+   */
+  public void setMessageSource(MessageSource messageSource) {
+    this.messageSource = messageSource;
+  }
+
+  /**
+   * Creates a predicate to search the given text in the given attribute.
+   *
+   * @param path the attribute to search in
+   * @param text the text to search
+   * @return the predicate, or null if the text can't be applied to the attribute type
+   */
+  public Predicate createPredicate(Path<?> path, String text) {
+    if (text == null || text.trim().isEmpty()) {
+      return null;
+    }
+    return createPredicate(path, new SearchText(text.trim()));
+  }
+
+  /**
+   * Creates a predicate to search the given text in any of the given attributes,
+   * parsing the text only once for each attribute type.
+   *
+   * @param text the text to search
+   * @param paths the attributes to search in
+   * @return the predicate, or null if the text can't be applied to any attribute type
+   */
+  public Predicate createGlobalPredicate(String text, Path<?>... paths) {
+    if (text == null || text.trim().isEmpty()) {
+      return null;
+    }
+    SearchText searchText = new SearchText(text.trim());
+    BooleanBuilder condition = new BooleanBuilder();
+    for (Path<?> path : paths) {
+      Predicate predicate = createPredicate(path, searchText);
+      if (predicate != null) {
+        condition.or(predicate);
+      }
+    }
+    return condition.getValue();
+  }
+
+  private Predicate createPredicate(Path<?> path, SearchText text) {
+    Class<?> type = path.getType();
+
+    if (path instanceof StringExpression) {
+      return createStringPredicate((StringExpression) path, text.getText(),
+          getStringMatchMode(path));
+    }
+    if (path instanceof NumberExpression && Number.class.isAssignableFrom(type)) {
+      return createNumberPredicate((NumberExpression<?>) path, text.getDecimal());
+    }
+    if (path instanceof BooleanExpression) {
+      Boolean value = text.getBoolean();
+      return value == null ? null : createBooleanPredicate((BooleanExpression) path, value);
+    }
+    if (type.isEnum() && path instanceof SimpleExpression) {
+      List<?> constants = text.getEnumConstants(type);
+      return constants.isEmpty() ? null
+          : createEnumPredicate((SimpleExpression<?>) path, constants);
+    }
+    if (path instanceof ComparableExpression
+        && (Date.class.isAssignableFrom(type) || Calendar.class.isAssignableFrom(type))) {
+      Date day = text.getDate();
+      return day == null ? null : createDatePredicate((ComparableExpression<?>) path, day);
+    }
+    return null;
+  }
+
+  /**
+   * Creates the predicate to compare a String attribute with the text.
+   *
+   * @param path the attribute
+   * @param text the text to search
+   * @param mode how to compare the attribute with the text
+   * @return the predicate
+   */
+  protected Predicate createStringPredicate(StringExpression path, String text,
+      StringMatchMode mode) {
+    switch (mode) {
+      case STARTS_WITH_IGNORE_CASE:
+        return path.startsWithIgnoreCase(text);
+      case CONTAINS_IGNORE_CASE:
+        return path.containsIgnoreCase(text);
+      case EQUALS:
+        return path.eq(text);
+      default:
+        return path.startsWith(text);
+    }
+  }
+
+  /**
+   * Creates the predicate to compare a number attribute with the text parsed as a number.
+   * Integer attributes must be equal to the number, and decimal attributes must be in the
+   * range of the values which start with the number.
+   *
+   * @param path the attribute
+   * @param number the text parsed as a number, or null if it is not a valid number
+   * @return the predicate, or null if the number is not valid for the attribute type
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  protected Predicate createNumberPredicate(NumberExpression<?> path, BigDecimal number) {
+    if (number == null) {
+      return null;
+    }
+    Class<Number> type = (Class<Number>) path.getType();
+    NumberExpression expression = path;
+    try {
+      if (!isDecimal(type)) {
+        return expression.eq(NumberUtils.convertNumberToTargetClass(
+            number.toBigIntegerExact(), type));
+      }
+      BigDecimal unit = BigDecimal.ONE.movePointLeft(Math.max(number.scale(), 0));
+      if (number.signum() >= 0) {
+        return expression.goe(NumberUtils.convertNumberToTargetClass(number, type))
+            .and(expression.lt(NumberUtils.convertNumberToTargetClass(number.add(unit), type)));
+      }
+      return expression.gt(NumberUtils.convertNumberToTargetClass(number.subtract(unit), type))
+          .and(expression.loe(NumberUtils.convertNumberToTargetClass(number, type)));
+    } catch (ArithmeticException ex) {
+      // Decimal value for an integer attribute
+      return null;
+    } catch (IllegalArgumentException ex) {
+      // Value out of the attribute type range
+      return null;
+    }
+  }
+
+  /**
+   * Creates the predicate to compare a boolean attribute with the text parsed as a boolean.
+   *
+   * @param path the attribute
+   * @param value the boolean value
+   * @return the predicate
+   */
+  protected Predicate createBooleanPredicate(BooleanExpression path, Boolean value) {
+    return value ? path.isTrue() : path.isFalse();
+  }
+
+  /**
+   * Creates the predicate to look for the given constants of an enum attribute.
+   *
+   * @param path the attribute
+   * @param constants the enum constants which match the text
+   * @return the predicate
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  protected Predicate createEnumPredicate(SimpleExpression<?> path, List<?> constants) {
+    return ((SimpleExpression) path).in(constants);
+  }
+
+  /**
+   * Creates the predicate to look for the values of a date attribute in the given day.
+   *
+   * @param path the attribute
+   * @param day the day represented by the text
+   * @return the predicate
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  protected Predicate createDatePredicate(ComparableExpression<?> path, Date day) {
+    Calendar start = Calendar.getInstance();
+    start.setTime(day);
+    Calendar end = (Calendar) start.clone();
+    end.add(Calendar.DAY_OF_MONTH, 1);
+
+    ComparableExpression comparable = path;
+    Class<?> type = path.getType();
+    return comparable.goe(toDateType(start, type)).and(comparable.lt(toDateType(end, type)));
+  }
+
+  /**
+   * Parses the text as a date, using the ISO format or the short date format
+   * of the current locale.
+   *
+   * @param text the text to parse
+   * @return the date, or null if the text is not a valid date
+   */
+  protected Date parseDate(String text) {
+    Date date = parseDate(text, new SimpleDateFormat(ISO_DATE_PATTERN));
+    if (date == null) {
+      date = parseDate(text,
+          DateFormat.getDateInstance(DateFormat.SHORT, LocaleContextHolder.getLocale()));
+    }
+    return date;
+  }
+
+  /**
+   * Returns the constants of an enum type which match the text: those whose name starts
+   * with the text, or whose translation contains it, ignoring case.
+   *
+   * @param enumType the enum type
+   * @param text the text to search
+   * @return the matching constants
+   */
+  protected List<Object> findEnumConstants(Class<?> enumType, String text) {
+    List<Object> matching = new ArrayList<Object>();
+    Locale locale = LocaleContextHolder.getLocale();
+    String lowerText = text.toLowerCase(Locale.ENGLISH);
+    String localeLowerText = text.toLowerCase(locale);
+    for (Object constant : enumType.getEnumConstants()) {
+      String name = ((Enum<?>) constant).name();
+      if (name.toLowerCase(Locale.ENGLISH).startsWith(lowerText)) {
+        matching.add(constant);
+      } else if (messageSource != null) {
+        String code = ENUM_MESSAGE_CODE_PREFIX + enumType.getSimpleName()
+            + ENUM_MESSAGE_CODE_SEPARATOR + name;
+        String message = messageSource.getMessage(code, null, null, locale);
+        if (message != null && message.toLowerCase(locale).contains(localeLowerText)) {
+          matching.add(constant);
+        }
+      }
+    }
+    return matching;
+  }
+
+  private static boolean isDecimal(Class<?> type) {
+    return Float.class.equals(type) || Double.class.equals(type)
+        || BigDecimal.class.equals(type);
+  }
+
+  private static Date parseDate(String text, DateFormat format) {
+    format.setLenient(false);
+    ParsePosition position = new ParsePosition(0);
+    Date date = format.parse(text, position);
+    return date != null && position.getIndex() == text.length() ? date : null;
+  }
+
+  private static Comparable<?> toDateType(Calendar calendar, Class<?> type) {
+    if (Calendar.class.isAssignableFrom(type)) {
+      return calendar;
+    }
+    long time = calendar.getTimeInMillis();
+    if (java.sql.Date.class.equals(type)) {
+      return new java.sql.Date(time);
+    }
+    if (Timestamp.class.equals(type)) {
+      return new Timestamp(time);
+    }
+    return new Date(time);
+  }
+
+  /**
+   * The text to search, with its values for each attribute type, which are
+   * parsed only the first time they are needed.
+   */
+  private final class SearchText {
+
+    private final String text;
+
+    private boolean decimalParsed;
+    private BigDecimal decimal;
+
+    private boolean dateParsed;
+    private Date date;
+
+    private Map<Class<?>, List<Object>> enumConstants;
+
+    SearchText(String text) {
+      this.text = text;
+    }
+
+    String getText() {
+      return text;
+    }
+
+    BigDecimal getDecimal() {
+      if (!decimalParsed) {
+        decimalParsed = true;
+        try {
+          decimal = new BigDecimal(text);
+        } catch (NumberFormatException ex) {
+          decimal = null;
+        }
+      }
+      return decimal;
+    }
+
+    Boolean getBoolean() {
+      if ("true".equalsIgnoreCase(text)) {
+        return Boolean.TRUE;
+      }
+      if ("false".equalsIgnoreCase(text)) {
+        return Boolean.FALSE;
+      }
+      return null;
+    }
+
+    Date getDate() {
+      if (!dateParsed) {
+        dateParsed = true;
+        date = parseDate(text);
+      }
+      return date;
+    }
+
+    List<Object> getEnumConstants(Class<?> enumType) {
+      if (enumConstants == null) {
+        enumConstants = new HashMap<Class<?>, List<Object>>();
+      }
+      List<Object> constants = enumConstants.get(enumType);
+      if (constants == null) {
+        constants = findEnumConstants(enumType, text);
+        enumConstants.put(enumType, constants);
+      }
+      return constants;
+    }
+  }
+
+}
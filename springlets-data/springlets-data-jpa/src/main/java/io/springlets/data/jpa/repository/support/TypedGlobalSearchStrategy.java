@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.SimpleExpression;
+
+import io.springlets.data.domain.GlobalSearch;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link GlobalSearchStrategy} which compares the search text with each attribute
+ * taking into account its type, as done by the {@link SearchPredicateBuilder}, so the
+ * query can use the indexes of the attributes. As an example, number attributes are
+ * compared by equality with the text parsed as a number, instead of converting every
+ * attribute value to text to look for the search text in it.
+ *
+ * The text is parsed only once for each attribute type. If it can't be applied to the
+ * type of any attribute, no entity will be found.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class TypedGlobalSearchStrategy implements GlobalSearchStrategy {
+
+  private final SearchPredicateBuilder searchPredicateBuilder;
+
+  /**
+   * Creates a new typed global search strategy with the default search predicates.
+   */
+  public TypedGlobalSearchStrategy() {
+    this(new SearchPredicateBuilder());
+  }
+
+  /**
+   * Creates a new typed global search strategy.
+   *
+   * @param searchPredicateBuilder the builder of the search predicates of each attribute
+   */
+  public TypedGlobalSearchStrategy(SearchPredicateBuilder searchPredicateBuilder) {
+    Assert.notNull(searchPredicateBuilder, "The search predicate builder is required");
+    this.searchPredicateBuilder = searchPredicateBuilder;
+  }
+
+  /**
+   * Returns the builder of the search predicates of each attribute.
+   * @return the search predicate builder
+   */
+  public SearchPredicateBuilder getSearchPredicateBuilder() {
+    return searchPredicateBuilder;
+  }
+
+  @Override
+  public Predicate createPredicate(GlobalSearch globalSearch, Class<?> entityType,
+      SimpleExpression<?> idPath, Path<?>... attributes) {
+    if (attributes.length == 0) {
+      return null;
+    }
+    Predicate predicate = searchPredicateBuilder.createGlobalPredicate(globalSearch.getText(),
+        attributes);
+    // If the text doesn't apply to any attribute, no entity can match it
+    return predicate == null ? idPath.isNull() : predicate;
+  }
+
+}
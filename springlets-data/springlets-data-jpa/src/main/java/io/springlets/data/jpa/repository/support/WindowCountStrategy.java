@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.CollectionExpression;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.MapExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.jpa.JPQLQuery;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link CountStrategy} which loads the data and the total number of elements in
+ * a single query, for databases which support window functions, adding the
+ * _count(*) over()_ window function to the selected columns. Every row contains the
+ * total number of rows of the query before the pagination is applied, so there isn't
+ * a second round trip to the database to count them.
+ *
+ * JPQL doesn't support window functions, so the count is selected with a template
+ * which depends on the JPA provider, as defined by the {@link Provider}:
+ *
+ * * {@link Provider#HIBERNATE}: calls the _count_over_ function, which has to be
+ *   registered in the Hibernate dialect to render the window function. As an example:
+ *   `registerFunction("count_over", new SQLFunctionTemplate(StandardBasicTypes.LONG,
+ *   "count(*) over()"))`.
+ * * {@link Provider#ECLIPSELINK}: uses the EclipseLink _sql_ operator.
+ *
+ * If the requested page is empty, there is no row with the total, so it is calculated
+ * as in {@link CountStrategies#skipWhenPossible()}.
+ *
+ * The window function is evaluated before the _distinct_ clause is applied, so it
+ * would count the duplicated rows too. The distinct queries and the queries which join
+ * collection associations, which may return duplicated rows, are also counted as in
+ * {@link CountStrategies#skipWhenPossible()}, with a second query when needed.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class WindowCountStrategy implements CountStrategy {
+
+  /**
+   * Templates of the window count for the supported JPA providers.
+   */
+  public enum Provider {
+
+    /**
+     * Hibernate, with the _count_over_ function registered in the dialect.
+     */
+    HIBERNATE("function('count_over')"),
+
+    /**
+     * EclipseLink 2.4 or later.
+     */
+    ECLIPSELINK("sql('count(*) over()')");
+
+    private final String template;
+
+    Provider(String template) {
+      this.template = template;
+    }
+
+    /**
+     * Returns the template of the window count.
+     * @return the window count template
+     */
+    public String getTemplate() {
+      return template;
+    }
+  }
+
+  private final NumberExpression<Long> totalCount;
+
+  /**
+   * Creates a new window count strategy.
+   *
+   * @param provider the JPA provider
+   */
+  public WindowCountStrategy(Provider provider) {
+    this(provider.getTemplate());
+  }
+
+  /**
+   * Creates a new window count strategy with a custom template, for JPA providers
+   * without a {@link Provider}.
+   *
+   * @param template the template which selects the _count(*) over()_ window function
+   */
+  public WindowCountStrategy(String template) {
+    Assert.hasText(template, "The window count template is required");
+    this.totalCount = Expressions.numberTemplate(Long.class, template);
+  }
+
+  @Override
+  public <M> Page<M> loadPage(JPQLQuery<?> query, Pageable pageable, Expression<M> expression) {
+    if (pageable == null) {
+      // Without pagination, the total is the number of loaded elements
+      return new PageImpl<M>(query.select(expression).fetch());
+    }
+
+    if (mayHaveDuplicates(query.getMetadata())) {
+      // The window count would include the rows removed by the distinct clause
+      return CountStrategies.getPage(query.select(expression).fetch(), pageable, query);
+    }
+
+    List<Tuple> rows = query.select(expression, totalCount).fetch();
+    if (rows.isEmpty()) {
+      return CountStrategies.getPage(new ArrayList<M>(), pageable, query);
+    }
+
+    List<M> results = new ArrayList<M>(rows.size());
+    for (Tuple row : rows) {
+      results.add(row.get(expression));
+    }
+    Number total = rows.get(0).get(1, Number.class);
+    return new PageImpl<M>(results, pageable, total.longValue());
+  }
+
+  private static boolean mayHaveDuplicates(QueryMetadata metadata) {
+    if (metadata.isDistinct()) {
+      return true;
+    }
+    for (JoinExpression join : metadata.getJoins()) {
+      Expression<?> target = join.getTarget();
+      if (target instanceof Operation && ((Operation<?>) target).getOperator() == Ops.ALIAS) {
+        target = ((Operation<?>) target).getArg(0);
+      }
+      if (target instanceof CollectionExpression || target instanceof MapExpression) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for the {@link CountCache} and {@link CountCacheEntityListener} classes.
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class CountCacheTest {
+
+  private long now = 1000L;
+
+  private final CountCache cache = new CountCache(10, TimeUnit.MILLISECONDS) {
+
+    @Override
+    protected long currentTimeMillis() {
+      return now;
+    }
+  };
+
+  @Test
+  public void shouldExpireCounts() {
+    // Prepare
+    cache.put(Integer.class, "key", 5L);
+
+    // Exercise
+    Long cached = cache.get(Integer.class, "key");
+    now += 10;
+    Long expired = cache.get(Integer.class, "key");
+
+    // Validate
+    assertThat(cached).isEqualTo(5L);
+    assertThat(expired).isNull();
+  }
+
+  @Test
+  public void shouldEvictRelatedEntityTypes() {
+    // Prepare
+    cache.put(Number.class, "key", 1L);
+    cache.put(Integer.class, "key", 2L);
+    cache.put(String.class, "key", 3L);
+
+    // Exercise
+    cache.evict(Integer.class);
+
+    // Validate
+    assertThat(cache.get(Number.class, "key")).isNull();
+    assertThat(cache.get(Integer.class, "key")).isNull();
+    assertThat(cache.get(String.class, "key")).isEqualTo(3L);
+  }
+
+  @Test
+  public void shouldLimitTheCountsByEntityType() {
+    // Prepare
+    cache.setMaxEntries(2);
+    cache.put(Integer.class, "a", 1L);
+    cache.put(Integer.class, "b", 2L);
+
+    // Exercise
+    cache.put(Integer.class, "c", 3L);
+
+    // Validate
+    assertThat(cache.get(Integer.class, "a")).isNull();
+    assertThat(cache.get(Integer.class, "c")).isEqualTo(3L);
+  }
+
+  @Test
+  public void shouldEvictCountsWhenEntitiesAreInsertedOrDeleted() {
+    // Prepare
+    cache.put(String.class, "", 10L);
+    cache.put(Integer.class, "", 20L);
+    CountCacheEntityListener.register(cache);
+
+    // Exercise
+    try {
+      new CountCacheEntityListener().evictCounts("new entity");
+    } finally {
+      CountCacheEntityListener.unregister(cache);
+    }
+
+    // Validate
+    assertThat(cache.get(String.class, "")).isNull();
+    assertThat(cache.get(Integer.class, "")).isEqualTo(20L);
+  }
+
+  @Test
+  public void listenerShouldEvictTheCountsOnceCommitted() {
+    // Prepare
+    cache.put(String.class, "", 10L);
+    CountCacheEntityListener.register(cache);
+    TransactionSynchronizationManager.initSynchronization();
+
+    // Exercise
+    Long beforeCommit;
+    try {
+      new CountCacheEntityListener().evictCounts("new entity");
+      beforeCommit = cache.get(String.class, "");
+      for (TransactionSynchronization synchronization : TransactionSynchronizationManager
+          .getSynchronizations()) {
+        synchronization.afterCommit();
+      }
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+      CountCacheEntityListener.unregister(cache);
+    }
+
+    // Validate
+    assertThat(beforeCommit).isEqualTo(10L);
+    assertThat(cache.get(String.class, "")).isNull();
+  }
+
+  @Test
+  public void listenerShouldKeepSharedCachesUntilUnregisteredByAll() {
+    // Prepare
+    cache.put(String.class, "", 10L);
+    CountCacheEntityListener.register(cache);
+    CountCacheEntityListener.register(cache);
+
+    // Exercise
+    CountCacheEntityListener.unregister(cache);
+    try {
+      new CountCacheEntityListener().evictCounts("new entity");
+    } finally {
+      CountCacheEntityListener.unregister(cache);
+    }
+
+    // Validate
+    assertThat(cache.get(String.class, "")).isNull();
+  }
+
+  @Test
+  public void listenerShouldOnlyEvictTheFilteredCountsOnUpdates() {
+    // Prepare
+    cache.put(String.class, "all", 10L, false);
+    cache.put(String.class, "filtered", 5L, true);
+    CountCacheEntityListener.register(cache);
+
+    // Exercise
+    try {
+      new CountCacheEntityListener().evictFilteredCounts("updated entity");
+    } finally {
+      CountCacheEntityListener.unregister(cache);
+    }
+
+    // Validate
+    assertThat(cache.get(String.class, "all")).isEqualTo(10L);
+    assertThat(cache.get(String.class, "filtered")).isNull();
+  }
+
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.JoinType;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QTuple;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.jpa.JPQLQuery;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for the {@link CountStrategy} implementations.
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CountStrategiesTest {
+
+  private final PathBuilder<String> entity = new PathBuilder<String>(String.class, "entity");
+
+  @Mock
+  private JPQLQuery<String> query;
+
+  @Mock
+  private JPQLQuery<Tuple> tupleQuery;
+
+  @Before
+  public void setUp() {
+    DefaultQueryMetadata metadata = new DefaultQueryMetadata();
+    metadata.addJoin(JoinType.DEFAULT, entity);
+    when(query.getMetadata()).thenReturn(metadata);
+    when(query.select(entity)).thenReturn(query);
+    when(query.fetchCount()).thenReturn(100L);
+  }
+
+  @Test
+  public void exactShouldAlwaysCount() {
+    // Prepare
+    when(query.fetch()).thenReturn(Arrays.asList("a"));
+
+    // Exercise
+    Page<String> page = CountStrategies.exact().loadPage(query, new PageRequest(0, 10), entity);
+
+    // Validate
+    assertThat(page.getTotalElements()).isEqualTo(100L);
+  }
+
+  @Test
+  public void skipWhenPossibleShouldNotCountSmallPages() {
+    // Prepare
+    when(query.fetch()).thenReturn(Arrays.asList("a", "b"));
+
+    // Exercise
+    Page<String> page =
+        CountStrategies.skipWhenPossible().loadPage(query, new PageRequest(2, 10), entity);
+
+    // Validate
+    assertThat(page.getTotalElements()).isEqualTo(22L);
+    verify(query, never()).fetchCount();
+  }
+
+  @Test
+  public void fetchOneMoreShouldKnowIfThereAreMorePagesWithoutCounting() {
+    // Prepare
+    when(query.fetch()).thenReturn(Arrays.asList("a", "b", "c"));
+
+    // Exercise
+    Page<String> page =
+        CountStrategies.fetchOneMore().loadPage(query, new PageRequest(1, 2), entity);
+
+    // Validate
+    verify(query).limit(3L);
+    verify(query, never()).fetchCount();
+    assertThat(page.getContent()).containsExactly("a", "b");
+    assertThat(page.isLast()).isFalse();
+  }
+
+  @Test
+  public void cachedShouldCountOnlyOnce() {
+    // Prepare
+    when(query.fetch()).thenReturn(Arrays.asList("a", "b"));
+    CachedCountStrategy strategy = new CachedCountStrategy(1, TimeUnit.MINUTES);
+
+    // Exercise
+    strategy.loadPage(query, new PageRequest(0, 2), entity);
+    Page<String> page = strategy.loadPage(query, new PageRequest(1, 2), entity);
+
+    // Validate
+    verify(query).fetchCount();
+    assertThat(page.getTotalElements()).isEqualTo(100L);
+  }
+
+  @Test
+  public void cachedShouldCountAgainOnceTheEntitiesChange() {
+    // Prepare
+    when(query.fetch()).thenReturn(Arrays.asList("a", "b"));
+    CachedCountStrategy strategy = new CachedCountStrategy(1, TimeUnit.MINUTES);
+
+    // Exercise
+    strategy.loadPage(query, new PageRequest(0, 2), entity);
+    CountCacheEntityListener.evict(String.class);
+    strategy.loadPage(query, new PageRequest(1, 2), entity);
+
+    // Validate
+    verify(query, times(2)).fetchCount();
+  }
+
+  @Test
+  public void cachedShouldIdentifyTheQueriesByTheirParameterValues() {
+    // Prepare
+    StringPath name = entity.getString("name");
+
+    // Exercise
+    Object key = CachedCountStrategy.getKey(createMetadata(name.eq("a")));
+    Object sameKey = CachedCountStrategy.getKey(createMetadata(name.eq("a")));
+    Object otherKey = CachedCountStrategy.getKey(createMetadata(name.eq("b")));
+
+    // Validate
+    assertThat(key).isEqualTo(sameKey);
+    assertThat(key).isNotEqualTo(otherKey);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void windowShouldLoadTheTotalWithTheData() {
+    // Prepare
+    QTuple row = Projections.tuple(entity, entity.getNumber("total", Long.class));
+    when(query.select(any(Expression.class), any(Expression.class))).thenReturn(tupleQuery);
+    when(tupleQuery.fetch()).thenReturn(Arrays.asList(row.newInstance("a", 12L),
+        row.newInstance("b", 12L)));
+    WindowCountStrategy strategy =
+        new WindowCountStrategy(WindowCountStrategy.Provider.HIBERNATE);
+
+    // Exercise
+    Page<String> page = strategy.loadPage(query, new PageRequest(1, 2), entity);
+
+    // Validate
+    verify(query, never()).fetchCount();
+    assertThat(page.getContent()).containsExactly("a", "b");
+    assertThat(page.getTotalElements()).isEqualTo(12L);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void windowShouldCountDistinctQueriesApart() {
+    // Prepare
+    DefaultQueryMetadata metadata = createMetadata(null);
+    metadata.setDistinct(true);
+    when(query.getMetadata()).thenReturn(metadata);
+    when(query.select(entity)).thenReturn(query);
+    when(query.fetch()).thenReturn(Arrays.asList("a", "b"));
+    when(query.fetchCount()).thenReturn(12L);
+    WindowCountStrategy strategy =
+        new WindowCountStrategy(WindowCountStrategy.Provider.HIBERNATE);
+
+    // Exercise
+    Page<String> page = strategy.loadPage(query, new PageRequest(1, 2), entity);
+
+    // Validate
+    verify(query, never()).select(any(Expression.class), any(Expression.class));
+    assertThat(page.getContent()).containsExactly("a", "b");
+    assertThat(page.getTotalElements()).isEqualTo(12L);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void windowShouldCountQueriesWithCollectionJoinsApart() {
+    // Prepare
+    DefaultQueryMetadata metadata = createMetadata(null);
+    metadata.addJoin(JoinType.LEFTJOIN, entity.getList("pets", String.class));
+    when(query.getMetadata()).thenReturn(metadata);
+    when(query.select(entity)).thenReturn(query);
+    when(query.fetch()).thenReturn(Arrays.asList("a", "b"));
+    when(query.fetchCount()).thenReturn(12L);
+    WindowCountStrategy strategy =
+        new WindowCountStrategy(WindowCountStrategy.Provider.HIBERNATE);
+
+    // Exercise
+    Page<String> page = strategy.loadPage(query, new PageRequest(1, 2), entity);
+
+    // Validate
+    verify(query, never()).select(any(Expression.class), any(Expression.class));
+    assertThat(page.getTotalElements()).isEqualTo(12L);
+  }
+
+  private DefaultQueryMetadata createMetadata(Predicate where) {
+    DefaultQueryMetadata metadata = new DefaultQueryMetadata();
+    metadata.addJoin(JoinType.DEFAULT, entity);
+    metadata.addWhere(where);
+    return metadata;
+  }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.springlets.data.domain.GlobalSearch;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.Metamodel;
+import javax.persistence.metamodel.Type;
+
+/**
+ * Unit tests for the {@link DatabaseGlobalSearchIndex} class.
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DatabaseGlobalSearchIndexTest {
+
+  @Mock
+  private EntityManager entityManager;
+
+  @Mock
+  private Query query;
+
+  @Mock
+  private Metamodel metamodel;
+
+  @Mock
+  private EntityType<?> entityType;
+
+  @Mock
+  private Type<?> idType;
+
+  /**
+   * Test method for {@link io.springlets.data.jpa.repository.support.DatabaseGlobalSearchIndex#findIds(java.lang.Class, io.springlets.data.domain.GlobalSearch, int)}.
+   */
+  @Test
+  public void shouldFindTheIdsWithTheRegisteredQuery() {
+    // Prepare
+    DatabaseGlobalSearchIndex index = new DatabaseGlobalSearchIndex(entityManager);
+    index.register(String.class, "select id from person where match(name) against (?1)");
+    when(entityManager.createNativeQuery("select id from person where match(name) against (?1)"))
+        .thenReturn(query);
+    when(query.setParameter(1, "smith")).thenReturn(query);
+    when(query.setMaxResults(10)).thenReturn(query);
+    when(query.getResultList())
+        .thenReturn(Arrays.<Object>asList(BigInteger.valueOf(3), BigInteger.valueOf(1)));
+    when(entityManager.getMetamodel()).thenReturn(metamodel);
+    doReturn(entityType).when(metamodel).entity(String.class);
+    doReturn(idType).when(entityType).getIdType();
+    doReturn(long.class).when(idType).getJavaType();
+
+    // Exercise
+    List<?> ids = index.findIds(String.class, new GlobalSearch("smith"), 10);
+
+    // Validate
+    assertThat(ids).containsExactly(3L, 1L);
+    verify(query).setMaxResults(10);
+  }
+
+  /**
+   * Test method for {@link io.springlets.data.jpa.repository.support.DatabaseGlobalSearchIndex#supports(java.lang.Class)}.
+   */
+  @Test
+  public void shouldSupportOnlyTheRegisteredTypes() {
+    // Prepare
+    DatabaseGlobalSearchIndex index = new DatabaseGlobalSearchIndex(entityManager);
+
+    // Exercise
+    index.register(String.class, "select id from person");
+
+    // Validate
+    assertThat(index.supports(String.class)).isTrue();
+    assertThat(index.supports(Integer.class)).isFalse();
+  }
+
+  /**
+   * Test method for {@link io.springlets.data.jpa.repository.support.DatabaseGlobalSearchIndex#postgresqlQuery(java.lang.String, java.lang.String, java.lang.String, java.lang.String[])}.
+   */
+  @Test
+  public void shouldCreateThePostgresqlQueryWithTheTextSearchConfig() {
+    assertThat(DatabaseGlobalSearchIndex.postgresqlQuery("english", "person", "id", "name",
+        "surname")).isEqualTo("select id from person where to_tsvector('english', "
+            + "coalesce(name, '') || ' ' || coalesce(surname, '')) "
+            + "@@ plainto_tsquery('english', ?1) order by ts_rank(to_tsvector('english', "
+            + "coalesce(name, '') || ' ' || coalesce(surname, '')), "
+            + "plainto_tsquery('english', ?1)) desc");
+  }
+
+  /**
+   * Test method for {@link io.springlets.data.jpa.repository.support.DatabaseGlobalSearchIndex#postgresqlQuery(java.lang.String, java.lang.String, java.lang.String, java.lang.String[])}.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldNotAcceptAnInvalidTextSearchConfig() {
+    DatabaseGlobalSearchIndex.postgresqlQuery("english') or ('1", "person", "id", "name");
+  }
+
+  /**
+   * Test method for {@link io.springlets.data.jpa.repository.support.DatabaseGlobalSearchIndex#mysqlQuery(java.lang.String, java.lang.String, java.lang.String[])}
+   * and {@link io.springlets.data.jpa.repository.support.DatabaseGlobalSearchIndex#oracleQuery(java.lang.String, java.lang.String, java.lang.String)}.
+   */
+  @Test
+  public void shouldCreateTheFullTextQueries() {
+    assertThat(DatabaseGlobalSearchIndex.mysqlQuery("person", "id", "name", "surname"))
+        .isEqualTo("select id from person where match(name,surname) "
+            + "against (?1 in natural language mode)");
+    assertThat(DatabaseGlobalSearchIndex.oracleQuery("person", "id", "name"))
+        .isEqualTo("select id from person where contains(name, ?1, 1) > 0 "
+            + "order by score(1) desc");
+  }
+
+}
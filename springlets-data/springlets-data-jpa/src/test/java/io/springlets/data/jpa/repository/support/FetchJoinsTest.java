@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.querydsl.core.types.dsl.ListPath;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.JPQLQuery;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+
+import javax.persistence.AttributeNode;
+import javax.persistence.EntityGraph;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.ManagedType;
+import javax.persistence.metamodel.Metamodel;
+
+/**
+ * Unit tests for the {@link FetchJoins} class.
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class FetchJoinsTest {
+
+  private final PathBuilder<Object> owner = new PathBuilder<Object>(Object.class, "owner");
+
+  @Mock
+  private JPQLQuery<Object> query;
+
+  @Mock
+  private EntityGraph<Object> entityGraph;
+
+  @Mock
+  private Metamodel metamodel;
+
+  @Mock
+  private ManagedType<Object> ownerType;
+
+  @Mock
+  private AttributeNode<Object> nameNode;
+
+  @Mock
+  private AttributeNode<Object> addressNode;
+
+  @Mock
+  private Attribute<Object, Object> nameAttribute;
+
+  @Mock
+  private Attribute<Object, Object> addressAttribute;
+
+  @Test
+  public void shouldFetchJoinEachAssociation() {
+    // Prepare
+    PathBuilder<Object> address = owner.get("address");
+    ListPath<Object, PathBuilder<Object>> pets = owner.getList("pets", Object.class);
+
+    // Exercise
+    boolean collection = FetchJoins.apply(query, address, pets);
+
+    // Validate
+    verify(query).leftJoin(address);
+    verify(query).leftJoin(pets);
+    verify(query, times(2)).fetchJoin();
+    assertThat(collection).isTrue();
+  }
+
+  @Test
+  public void shouldNotReportCollectionsForSingleValuedAssociations() {
+    // Exercise
+    boolean collection = FetchJoins.apply(query, owner.get("address"));
+
+    // Validate
+    assertThat(collection).isFalse();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldFetchJoinOnlyTheAssociationsOfTheEntityGraph() {
+    // Prepare
+    doReturn(ownerType).when(metamodel).managedType(Object.class);
+    doReturn(Arrays.asList(nameNode, addressNode)).when(entityGraph).getAttributeNodes();
+    when(nameNode.getAttributeName()).thenReturn("name");
+    when(addressNode.getAttributeName()).thenReturn("address");
+    doReturn(nameAttribute).when(ownerType).getAttribute("name");
+    doReturn(addressAttribute).when(ownerType).getAttribute("address");
+    when(addressAttribute.isAssociation()).thenReturn(true);
+    doReturn(Object.class).when(addressAttribute).getJavaType();
+
+    // Exercise
+    boolean collection = FetchJoins.apply(query, owner, entityGraph, metamodel);
+
+    // Validate
+    verify(query).leftJoin(owner.get("address", Object.class),
+        new PathBuilder<Object>(Object.class, "owner_address"));
+    verify(query).fetchJoin();
+    assertThat(collection).isFalse();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectPathsWhichAreNotAssociations() {
+    // Exercise
+    FetchJoins.apply(query, owner.getString("name"));
+  }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.core.types.dsl.StringPath;
+
+import io.springlets.data.domain.GlobalSearch;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Unit tests for the {@link IndexedGlobalSearchStrategy} and
+ * {@link GlobalSearchIndexEntityListener} classes.
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class IndexedGlobalSearchStrategyTest {
+
+  private final PathBuilder<Object> entity = new PathBuilder<Object>(Object.class, "entity");
+
+  private final NumberPath<Long> id = entity.getNumber("id", Long.class);
+
+  private final StringPath name = entity.getString("name");
+
+  @Mock
+  private GlobalSearchIndex index;
+
+  @After
+  public void tearDown() {
+    GlobalSearchIndexEntityListener.unregister(index);
+  }
+
+  @Test
+  public void shouldRestrictTheQueryToTheIndexedIds() {
+    // Prepare
+    GlobalSearch search = new GlobalSearch("smith");
+    when(index.supports(String.class)).thenReturn(true);
+    when(index.findIds(String.class, search, 1001)).thenReturn(Arrays.asList(3L, 1L));
+
+    // Exercise
+    Predicate predicate = new IndexedGlobalSearchStrategy(index).createPredicate(search,
+        String.class, id, name);
+
+    // Validate
+    assertThat(predicate).isEqualTo(id.in(Arrays.asList(3L, 1L)));
+  }
+
+  @Test
+  public void shouldFindNothingIfTheIndexFindsNothing() {
+    // Prepare
+    GlobalSearch search = new GlobalSearch("smith");
+    when(index.supports(String.class)).thenReturn(true);
+    when(index.findIds(eq(String.class), eq(search), anyInt()))
+        .thenReturn(Collections.emptyList());
+
+    // Exercise
+    Predicate predicate = new IndexedGlobalSearchStrategy(index).createPredicate(search,
+        String.class, id, name);
+
+    // Validate
+    assertThat(predicate).isEqualTo(id.isNull());
+  }
+
+  @Test
+  public void shouldUseTheFallbackStrategyIfTheIndexFindsTooManyEntities() {
+    // Prepare
+    GlobalSearch search = new GlobalSearch("smith");
+    when(index.supports(String.class)).thenReturn(true);
+    when(index.findIds(String.class, search, 3)).thenReturn(Arrays.asList(3L, 1L, 2L));
+    IndexedGlobalSearchStrategy strategy = new IndexedGlobalSearchStrategy(index);
+    strategy.setMaxResults(2);
+
+    // Exercise
+    Predicate predicate = strategy.createPredicate(search, String.class, id, name);
+
+    // Validate
+    assertThat(predicate).isEqualTo(name.containsIgnoreCase("smith"));
+  }
+
+  @Test
+  public void shouldUseTheFallbackStrategyForNotIndexedEntities() {
+    // Prepare
+    GlobalSearch search = new GlobalSearch("smith");
+
+    // Exercise
+    Predicate predicate = new IndexedGlobalSearchStrategy(index).createPredicate(search,
+        String.class, id, name);
+
+    // Validate
+    assertThat(predicate).isEqualTo(name.containsIgnoreCase("smith"));
+  }
+
+  @Test
+  public void shouldUseTheFallbackStrategyForRegularExpressions() {
+    // Prepare
+    GlobalSearch search = new GlobalSearch("smi.*", true);
+    when(index.supports(String.class)).thenReturn(true);
+
+    // Exercise
+    Predicate predicate = new IndexedGlobalSearchStrategy(index).createPredicate(search,
+        String.class, id, name);
+
+    // Validate
+    assertThat(predicate).isEqualTo(
+        new ContainsGlobalSearchStrategy().createPredicate(search, String.class, id, name));
+    verify(index, never()).findIds(eq(String.class), eq(search), anyInt());
+  }
+
+  @Test
+  public void shouldIndexTheChangedEntitiesOutsideTransactions() {
+    // Prepare
+    new IndexedGlobalSearchStrategy(index);
+    when(index.supports(String.class)).thenReturn(true);
+
+    // Exercise
+    new GlobalSearchIndexEntityListener().index("entity");
+    new GlobalSearchIndexEntityListener().remove("deleted");
+
+    // Validate
+    verify(index).index("entity");
+    verify(index).remove("deleted");
+  }
+
+}
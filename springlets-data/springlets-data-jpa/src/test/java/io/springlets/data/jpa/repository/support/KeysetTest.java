@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.OrderSpecifier.NullHandling;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.core.types.dsl.StringPath;
+
+import io.springlets.data.domain.KeysetCursor;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Unit tests for the {@link Keyset} class.
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class KeysetTest {
+
+  private final PathBuilder<Object> entity = new PathBuilder<Object>(Object.class, "entity");
+
+  private final StringPath name = entity.getString("name");
+
+  private final NumberPath<Long> id = entity.getNumber("id", Long.class);
+
+  @Test
+  public void shouldSeekAfterTheCursorValues() {
+    // Prepare
+    Keyset keyset = new Keyset().add(name, Order.DESC).add(id, Order.ASC);
+    KeysetCursor cursor = keyset.createCursor(new Object[] {"Smith", 42L}, 10);
+
+    // Exercise
+    Predicate predicate = keyset.after(cursor);
+
+    // Validate
+    assertThat(predicate).isEqualTo(name.lt("Smith").or(name.isNull())
+        .or(name.eq("Smith").and(id.gt(42L))));
+  }
+
+  @Test
+  public void shouldPlaceNullValuesFirstInAscendingOrder() {
+    // Prepare
+    Keyset keyset = new Keyset().add(name, Order.ASC).add(id, Order.ASC);
+    KeysetCursor cursor = keyset.createCursor(new Object[] {null, 7L}, 10);
+
+    // Exercise
+    Predicate predicate = keyset.after(cursor);
+    OrderSpecifier<?>[] specifiers = keyset.getOrderSpecifiers();
+
+    // Validate
+    assertThat(predicate).isEqualTo(name.isNotNull().or(name.isNull().and(id.gt(7L))));
+    assertThat(specifiers[0].getNullHandling()).isEqualTo(NullHandling.NullsFirst);
+  }
+
+  @Test
+  public void shouldIgnoreCursorsOfAnotherOrdering() {
+    // Prepare
+    Keyset keyset = new Keyset().add(name, Order.ASC).add(id, Order.ASC);
+    Keyset otherKeyset = new Keyset().add(name, Order.DESC).add(id, Order.ASC);
+    KeysetCursor cursor = otherKeyset.createCursor(new Object[] {"Smith", 42L}, 10);
+
+    // Exercise and validate
+    assertThat(keyset.isApplicable(cursor, 10)).isFalse();
+    assertThat(
+        keyset.isApplicable(new KeysetCursor(keyset.getSortKey(), 10, Arrays.asList("1")), 10))
+            .isFalse();
+    assertThat(otherKeyset.isApplicable(cursor, 10)).isTrue();
+  }
+
+  @Test
+  public void shouldIgnoreCursorsOfAnotherPage() {
+    // Prepare
+    Keyset keyset = new Keyset().add(name, Order.ASC).add(id, Order.ASC);
+    KeysetCursor cursor = keyset.createCursor(new Object[] {"Smith", 42L}, 10);
+
+    // Exercise and validate
+    assertThat(keyset.isApplicable(cursor, 10)).isTrue();
+    assertThat(keyset.isApplicable(cursor, 0)).isFalse();
+    assertThat(keyset.isApplicable(cursor, 30)).isFalse();
+  }
+
+  @Test
+  public void shouldConvertCursorValuesToTheAttributeType() {
+    // Prepare
+    Date date = new Date();
+
+    // Exercise and validate
+    assertThat(Keyset.fromString(Keyset.toString(date), Date.class)).isEqualTo(date);
+    assertThat(Keyset.fromString(Keyset.toString(42L), Long.class)).isEqualTo(42L);
+    assertThat(Keyset.fromString(Keyset.toString(Order.DESC), Order.class))
+        .isEqualTo(Order.DESC);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectInvalidCursorValues() {
+    // Exercise
+    Keyset.fromString("not a number", Long.class);
+  }
+
+}
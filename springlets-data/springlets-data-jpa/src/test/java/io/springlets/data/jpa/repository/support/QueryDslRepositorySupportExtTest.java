@@ -15,26 +15,59 @@
  */
 package io.springlets.data.jpa.repository.support;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.mysema.commons.lang.IteratorAdapter;
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.JoinType;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.OrderSpecifier.NullHandling;
 import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.ListPath;
+import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.JPQLQuery;
 
+import io.springlets.data.domain.KeysetPage;
+import io.springlets.data.web.datatables.DatatablesColumns;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
+import javax.persistence.EntityManager;
+
 /**
  * Unit tests for the {@link QueryDslRepositorySupportExt} class.
  * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
@@ -54,8 +87,27 @@ public class QueryDslRepositorySupportExtTest {
   @Mock
   private Iterator<Sort.Order> iterator;
 
+  @Mock
+  private JPQLQuery<Object> query;
+
+  @Mock
+  private JPQLQuery<Person> personQuery;
+
+  @Mock
+  private JPQLQuery<Tuple> tupleQuery;
+
+  @Mock
+  private JPQLQuery<Object> idQuery;
+
+  @Mock
+  private EntityManager entityManager;
+
   private QueryDslRepositorySupportExt<Object> support;
 
+  private final PathBuilder<Object> person = new PathBuilder<Object>(Person.class, "person");
+
+  private QueryDslRepositorySupportExt<Person> personSupport;
+
   /**
    * Test setup, creates a new {@link QueryDslRepositorySupportExt} to use in the test methods.
    */
@@ -66,6 +118,28 @@ public class QueryDslRepositorySupportExtTest {
       protected JPQLQuery<Object> applyPagination(Pageable pageable, JPQLQuery<Object> query) {
         return query;
       }
+
+      @Override
+      protected EntityManager getEntityManager() {
+        return entityManager;
+      }
+    };
+    personSupport = new QueryDslRepositorySupportExt<Person>(Person.class) {
+
+      @Override
+      protected PathBuilder<Object> getBuilder() {
+        return person;
+      }
+
+      @Override
+      protected PathBuilder<Object> getEntityId() {
+        return person.get("id");
+      }
+
+      @Override
+      protected JPQLQuery<Object> from(EntityPath<?>... paths) {
+        return query;
+      }
     };
   }
 
@@ -117,4 +191,274 @@ public class QueryDslRepositorySupportExtTest {
     // Exercise & verify
     support.applyPagination(null, null, attributeMapping);
   }
+
+  /**
+   * Test method for {@link io.springlets.data.jpa.repository.support.QueryDslRepositorySupportExt#streamAll(com.querydsl.jpa.JPQLQuery, com.querydsl.core.types.Expression, int, RowCallback)}.
+   */
+  @Test
+  public void streamAllShouldProcessEachRowClearingThePersistenceContextAfterEachBlock() {
+    // Prepare
+    PathBuilder<Object> entity = new PathBuilder<Object>(Object.class, "entity");
+    when(query.select(entity)).thenReturn(query);
+    when(query.iterate()).thenReturn(
+        new IteratorAdapter<Object>(Arrays.<Object>asList("a", "b", "c", "d", "e").iterator()));
+    final List<Object> rows = new ArrayList<Object>();
+
+    // Exercise
+    long count = support.streamAll(query, entity, 2, new RowCallback<Object>() {
+
+      @Override
+      public void processRow(Object row) {
+        rows.add(row);
+      }
+    });
+
+    // Validate
+    assertThat(count).isEqualTo(5L);
+    assertThat(rows).containsExactly("a", "b", "c", "d", "e");
+    verify(entityManager, times(2)).clear();
+  }
+
+  /**
+   * Test method for {@link io.springlets.data.jpa.repository.support.QueryDslRepositorySupportExt#streamAll(com.querydsl.jpa.JPQLQuery, com.querydsl.core.types.Expression, int, RowCallback)}.
+   */
+  @Test
+  public void streamAllShouldFlushThePendingChangesBeforeClearingThePersistenceContext() {
+    // Prepare
+    PathBuilder<Object> entity = new PathBuilder<Object>(Object.class, "entity");
+    when(query.select(entity)).thenReturn(query);
+    when(query.iterate()).thenReturn(
+        new IteratorAdapter<Object>(Arrays.<Object>asList("a", "b", "c").iterator()));
+    when(entityManager.isJoinedToTransaction()).thenReturn(true);
+
+    // Exercise
+    support.streamAll(query, entity, 2, new RowCallback<Object>() {
+
+      @Override
+      public void processRow(Object row) {
+        // Nothing to do
+      }
+    });
+
+    // Validate
+    InOrder inOrder = inOrder(entityManager, query);
+    inOrder.verify(entityManager).flush();
+    inOrder.verify(query).iterate();
+    inOrder.verify(entityManager).flush();
+    inOrder.verify(entityManager).clear();
+  }
+
+  /**
+   * Test method for {@link io.springlets.data.jpa.repository.support.QueryDslRepositorySupportExt#applyPagination(org.springframework.data.domain.Pageable, com.querydsl.jpa.JPQLQuery, java.util.Map)}.
+   */
+  @Test
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  public void applyPaginationWithMappedPropertiesShouldReuseTheOrderSpecifiers() {
+    // Prepare
+    Pageable request = new PageRequest(1, 10, Direction.DESC, "fullName");
+    ArgumentCaptor<OrderSpecifier> orderSpecifier = ArgumentCaptor.forClass(OrderSpecifier.class);
+
+    // Exercise
+    for (int i = 0; i < 2; i++) {
+      Map<String, Path<?>[]> attributeMapping = new HashMap<>();
+      attributeMapping.put("fullName", new Path<?>[] {person.getString("name")});
+      personSupport.applyPagination(request, personQuery, attributeMapping);
+    }
+
+    // Validate
+    verify(personQuery, times(2)).offset(10L);
+    verify(personQuery, times(2)).limit(10L);
+    verify(personQuery, times(2)).orderBy(orderSpecifier.capture());
+    List<OrderSpecifier> orderSpecifiers = orderSpecifier.getAllValues();
+    assertThat(orderSpecifiers.get(0))
+        .isEqualTo(new OrderSpecifier(Order.DESC, person.getString("name")));
+    assertThat(orderSpecifiers.get(1)).isSameAs(orderSpecifiers.get(0));
+  }
+
+  /**
+   * Test method for {@link io.springlets.data.jpa.repository.support.QueryDslRepositorySupportExt#applyPagination(org.springframework.data.domain.Pageable, com.querydsl.jpa.JPQLQuery, java.util.Map)}.
+   */
+  @Test
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  public void applyPaginationWithMappedPropertiesShouldApplyTheCaseAndNullHandling() {
+    // Prepare
+    Sort.Order sensitive = new Sort.Order(Direction.ASC, "fullName");
+    Sort.Order insensitive = new Sort.Order(Direction.ASC, "fullName",
+        Sort.NullHandling.NULLS_LAST).ignoreCase();
+    ArgumentCaptor<OrderSpecifier> orderSpecifier = ArgumentCaptor.forClass(OrderSpecifier.class);
+    Map<String, Path<?>[]> attributeMapping = new HashMap<>();
+    attributeMapping.put("fullName", new Path<?>[] {person.getString("name")});
+
+    // Exercise
+    personSupport.applyPagination(new PageRequest(0, 10, new Sort(sensitive)), personQuery,
+        attributeMapping);
+    personSupport.applyPagination(new PageRequest(0, 10, new Sort(insensitive)), personQuery,
+        attributeMapping);
+
+    // Validate
+    verify(personQuery, times(2)).orderBy(orderSpecifier.capture());
+    List<OrderSpecifier> orderSpecifiers = orderSpecifier.getAllValues();
+    assertThat(orderSpecifiers.get(0))
+        .isEqualTo(new OrderSpecifier(Order.ASC, person.getString("name")));
+    assertThat(orderSpecifiers.get(1)).isEqualTo(new OrderSpecifier(Order.ASC,
+        person.getString("name").lower(), NullHandling.NullsLast));
+  }
+
+  /**
+   * Test method for {@link io.springlets.data.jpa.repository.support.QueryDslRepositorySupportExt#applyColumnSearch(DatatablesColumns, com.querydsl.jpa.JPQLQuery, java.util.Map)}.
+   */
+  @Test
+  public void applyColumnSearchShouldSearchPrimitiveAttributesByType() {
+    // Prepare
+    DatatablesColumns columns = new DatatablesColumns(2);
+    columns.setData(0, "age");
+    columns.setSearchable(0, true);
+    columns.setSearch(0, "30");
+    columns.setData(1, "active");
+    columns.setSearchable(1, true);
+    columns.setSearch(1, "true");
+    ArgumentCaptor<Predicate> predicate = ArgumentCaptor.forClass(Predicate.class);
+
+    // Exercise
+    personSupport.applyColumnSearch(columns, personQuery, (Map<String, Path<?>[]>) null);
+
+    // Validate
+    verify(personQuery).where(predicate.capture());
+    assertThat(predicate.getValue().toString()).isEqualTo(
+        person.getNumber("age", Integer.class).eq(30).and(person.getBoolean("active").isTrue())
+            .toString());
+  }
+
+  /**
+   * Test method for {@link io.springlets.data.jpa.repository.support.QueryDslRepositorySupportExt#loadKeysetPage(com.querydsl.jpa.JPQLQuery, org.springframework.data.domain.Pageable, io.springlets.data.domain.KeysetCursor, com.querydsl.core.types.Expression)}.
+   */
+  @Test
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  public void loadKeysetPageShouldOrderByPrimitiveAttributes() {
+    // Prepare
+    when(personQuery.select(any(Expression.class), any(Expression.class), any(Expression.class)))
+        .thenReturn(tupleQuery);
+    when(tupleQuery.fetch()).thenReturn(new ArrayList<Tuple>());
+    Pageable request = new PageRequest(3, 10, Direction.DESC, "age");
+
+    // Exercise
+    KeysetPage<Object> page = personSupport.loadKeysetPage(personQuery, request, null, person);
+
+    // Validate
+    verify(personQuery).offset(30L);
+    verify(personQuery, never()).where(any(Predicate.class));
+    verify(personQuery).orderBy(
+        new OrderSpecifier(Order.DESC, person.getNumber("age", Integer.class),
+            NullHandling.NullsLast),
+        new OrderSpecifier(Order.ASC, person.getNumber("id", Long.class),
+            NullHandling.NullsFirst));
+    assertThat(page.getContent()).isEmpty();
+    assertThat(page.getNextCursor()).isNull();
+  }
+
+  /**
+   * Test method for {@link io.springlets.data.jpa.repository.support.QueryDslRepositorySupportExt#loadPage(com.querydsl.jpa.JPQLQuery, org.springframework.data.domain.Pageable, com.querydsl.core.types.Expression, com.querydsl.core.types.Path[])}.
+   */
+  @Test
+  public void loadPageShouldRejectFetchingCollectionsAlongWithAPage() {
+    // Prepare
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("loadPageByIds");
+
+    // Exercise
+    personSupport.loadPage(personQuery, new PageRequest(0, 10), person,
+        person.getList("pets", Object.class));
+  }
+
+  /**
+   * Test method for {@link io.springlets.data.jpa.repository.support.QueryDslRepositorySupportExt#loadPage(com.querydsl.jpa.JPQLQuery, org.springframework.data.domain.Pageable, com.querydsl.core.types.Expression, com.querydsl.core.types.Path[])}.
+   */
+  @Test
+  public void loadPageWithoutPaginationShouldDeduplicateTheFetchedEntities() {
+    // Prepare
+    Person alice = new Person();
+    Person bob = new Person();
+    when(personQuery.select(person)).thenReturn(query);
+    when(query.fetch()).thenReturn(Arrays.<Object>asList(alice, alice, bob, alice));
+
+    // Exercise
+    Page<Object> page =
+        personSupport.loadPage(personQuery, null, person, person.getList("pets", Object.class));
+
+    // Validate
+    assertThat(page.getContent()).containsExactly(alice, bob);
+    assertThat(page.getTotalElements()).isEqualTo(2L);
+    verify(personQuery, never()).distinct();
+  }
+
+  /**
+   * Test method for {@link io.springlets.data.jpa.repository.support.QueryDslRepositorySupportExt#loadPageByIds(com.querydsl.jpa.JPQLQuery, org.springframework.data.domain.Pageable, com.querydsl.core.types.Path[])}.
+   */
+  @Test
+  public void loadPageByIdsShouldLoadTheEntitiesInTheOrderOfTheIds() {
+    // Prepare
+    Person first = new Person();
+    Person second = new Person();
+    ListPath<Object, PathBuilder<Object>> pets = person.getList("pets", Object.class);
+    DefaultQueryMetadata metadata = new DefaultQueryMetadata();
+    metadata.addJoin(JoinType.DEFAULT, person);
+    metadata.addJoin(JoinType.INNERJOIN, pets);
+    when(personQuery.getMetadata()).thenReturn(metadata);
+    when(personQuery.fetchCount()).thenReturn(13L);
+    when(personQuery.select(person.get("id"))).thenReturn(idQuery);
+    // The join with the pets repeats the id 3, and the entity with id 2 is removed
+    // before loading the entities
+    when(idQuery.fetch()).thenReturn(Arrays.<Object>asList(3L, 1L, 3L, 2L));
+    when(query.select(person, person.get("id"))).thenReturn(tupleQuery);
+    // Fetching the pets returns an entity for each pet
+    when(tupleQuery.fetch()).thenReturn(
+        Arrays.asList(row(first, 1L), row(second, 3L), row(first, 1L)));
+
+    // Exercise
+    Page<Person> page = personSupport.loadPageByIds(personQuery, new PageRequest(1, 4), pets);
+
+    // Validate
+    verify(personQuery, never()).distinct();
+    verify(query)
+        .where(person.get("id").in(new LinkedHashSet<Object>(Arrays.asList(3L, 1L, 2L))));
+    assertThat(page.getContent()).containsExactly(second, first);
+    assertThat(page.getTotalElements()).isEqualTo(13L);
+  }
+
+  private static Tuple row(Object entity, Object id) {
+    Tuple row = mock(Tuple.class);
+    when(row.get(0, Object.class)).thenReturn(entity);
+    when(row.get(1, Object.class)).thenReturn(id);
+    return row;
+  }
+
+  /**
+   * Entity to test the ordering and searches.
+   */
+  public static class Person {
+
+    private long id;
+
+    private String name;
+
+    private int age;
+
+    private boolean active;
+
+    public long getId() {
+      return id;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public int getAge() {
+      return age;
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+  }
 }
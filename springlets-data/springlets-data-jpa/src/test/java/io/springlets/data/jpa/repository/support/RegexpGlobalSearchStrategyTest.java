@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.core.types.dsl.StringPath;
+
+import io.springlets.data.domain.GlobalSearch;
+import io.springlets.data.jpa.repository.support.RegexpGlobalSearchStrategy.Dialect;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link RegexpGlobalSearchStrategy} class.
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class RegexpGlobalSearchStrategyTest {
+
+  private final PathBuilder<Object> entity = new PathBuilder<Object>(Object.class, "entity");
+
+  private final NumberPath<Long> id = entity.getNumber("id", Long.class);
+
+  private final StringPath name = entity.getString("name");
+
+  private final RegexpGlobalSearchStrategy strategy =
+      new RegexpGlobalSearchStrategy(Dialect.POSTGRESQL);
+
+  @Test
+  public void shouldSearchRegularExpressionsInTheDatabase() {
+    // Prepare
+    GlobalSearch search = new GlobalSearch("^Sm.th$", true);
+
+    // Exercise
+    Predicate predicate = strategy.createPredicate(search, Object.class, id, name);
+
+    // Validate
+    assertThat(predicate).isEqualTo(Expressions.booleanTemplate(
+        "function('textregexeq', {0}, {1}) = true", name, Expressions.constant("^Sm.th$")));
+  }
+
+  @Test
+  public void shouldSearchTextAndInvalidRegularExpressionsAsText() {
+    // Prepare
+    GlobalSearch text = new GlobalSearch("smith");
+    GlobalSearch invalid = new GlobalSearch("sm(ith", true);
+
+    // Exercise
+    Predicate textPredicate = strategy.createPredicate(text, Object.class, id, name);
+    Predicate invalidPredicate = strategy.createPredicate(invalid, Object.class, id, name);
+
+    // Validate
+    assertThat(textPredicate).isEqualTo(name.containsIgnoreCase("smith"));
+    assertThat(invalidPredicate).isEqualTo(name.containsIgnoreCase("sm(ith"));
+  }
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.data.jpa.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanPath;
+import com.querydsl.core.types.dsl.EnumPath;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.core.types.dsl.StringPath;
+
+import io.springlets.data.jpa.repository.support.SearchPredicateBuilder.StringMatchMode;
+
+import org.junit.Test;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.support.StaticMessageSource;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Unit tests for the {@link SearchPredicateBuilder} class.
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class SearchPredicateBuilderTest {
+
+  private final PathBuilder<Object> entity = new PathBuilder<Object>(Object.class, "entity");
+
+  private final SearchPredicateBuilder builder = new SearchPredicateBuilder();
+
+  @Test
+  public void shouldSearchStringsByPrefix() {
+    // Prepare
+    StringPath name = entity.getString("name");
+
+    // Exercise
+    Predicate predicate = builder.createPredicate(name, " Al ");
+
+    // Validate
+    assertThat(predicate).isEqualTo(name.startsWith("Al"));
+  }
+
+  @Test
+  public void shouldSearchStringsWithTheConfiguredMode() {
+    // Prepare
+    StringPath name = entity.getString("name");
+    builder.setStringMatchMode(StringMatchMode.STARTS_WITH_IGNORE_CASE);
+
+    // Exercise
+    Predicate predicate = builder.createPredicate(name, "Al");
+
+    // Validate
+    assertThat(predicate).isEqualTo(name.startsWithIgnoreCase("Al"));
+  }
+
+  @Test
+  public void shouldSearchNumbersByEquality() {
+    // Prepare
+    NumberPath<Integer> age = entity.getNumber("age", Integer.class);
+
+    // Exercise
+    Predicate predicate = builder.createPredicate(age, "30");
+    Predicate notANumber = builder.createPredicate(age, "thirty");
+
+    // Validate
+    assertThat(predicate).isEqualTo(age.eq(30));
+    assertThat(notANumber).isNull();
+  }
+
+  @Test
+  public void shouldSearchEnumsByConstantPrefix() {
+    // Prepare
+    EnumPath<Color> color = entity.getEnum("color", Color.class);
+
+    // Exercise
+    Predicate predicate = builder.createPredicate(color, "bl");
+    Predicate noConstant = builder.createPredicate(color, "white");
+
+    // Validate
+    assertThat(predicate).isEqualTo(color.in(Arrays.asList(Color.BLUE, Color.BLACK)));
+    assertThat(noConstant).isNull();
+  }
+
+  @Test
+  public void shouldSearchBooleans() {
+    // Prepare
+    BooleanPath active = entity.getBoolean("active");
+
+    // Exercise
+    Predicate predicate = builder.createPredicate(active, "TRUE");
+    Predicate notABoolean = builder.createPredicate(active, "yes");
+
+    // Validate
+    assertThat(predicate).isEqualTo(active.isTrue());
+    assertThat(notABoolean).isNull();
+  }
+
+  @Test
+  public void shouldSearchDecimalsByRange() {
+    // Prepare
+    NumberPath<BigDecimal> price = entity.getNumber("price", BigDecimal.class);
+    NumberPath<Double> weight = entity.getNumber("weight", Double.class);
+
+    // Exercise
+    Predicate pricePredicate = builder.createPredicate(price, "12.5");
+    Predicate weightPredicate = builder.createPredicate(weight, "3");
+
+    // Validate
+    assertThat(pricePredicate).isEqualTo(
+        price.goe(new BigDecimal("12.5")).and(price.lt(new BigDecimal("12.6"))));
+    assertThat(weightPredicate).isEqualTo(weight.goe(3d).and(weight.lt(4d)));
+  }
+
+  @Test
+  public void shouldNotSearchIntegersWithDecimals() {
+    // Prepare
+    NumberPath<Integer> age = entity.getNumber("age", Integer.class);
+
+    // Exercise
+    Predicate predicate = builder.createPredicate(age, "30.5");
+
+    // Validate
+    assertThat(predicate).isNull();
+  }
+
+  @Test
+  public void shouldSearchStringsWithTheModeOfTheAttribute() {
+    // Prepare
+    StringPath name = entity.getString("name");
+    StringPath code = entity.getString("code");
+    builder.setStringMatchMode(code, StringMatchMode.EQUALS);
+
+    // Exercise
+    Predicate predicate = builder.createGlobalPredicate("Al", name, code);
+
+    // Validate
+    assertThat(predicate).isEqualTo(name.startsWith("Al").or(code.eq("Al")));
+  }
+
+  @Test
+  public void shouldSearchEnumsByTranslation() {
+    // Prepare
+    EnumPath<Color> color = entity.getEnum("color", Color.class);
+    StaticMessageSource messageSource = new StaticMessageSource();
+    messageSource.addMessage("enum_Color_RED", LocaleContextHolder.getLocale(), "Crimson red");
+    builder.setMessageSource(messageSource);
+
+    // Exercise
+    Predicate predicate = builder.createPredicate(color, "crimson");
+
+    // Validate
+    assertThat(predicate).isEqualTo(color.in(Arrays.asList(Color.RED)));
+  }
+
+  @Test
+  public void shouldOnlySearchTheAttributesTheTextAppliesTo() {
+    // Prepare
+    StringPath name = entity.getString("name");
+    NumberPath<Integer> age = entity.getNumber("age", Integer.class);
+    BooleanPath active = entity.getBoolean("active");
+
+    // Exercise
+    Predicate predicate = builder.createGlobalPredicate("30", name, age, active);
+
+    // Validate
+    assertThat(predicate).isEqualTo(name.startsWith("30").or(age.eq(30)));
+  }
+
+  public enum Color {
+    RED, BLUE, BLACK
+  }
+
+}
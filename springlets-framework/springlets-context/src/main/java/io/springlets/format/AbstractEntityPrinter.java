@@ -16,6 +16,7 @@
 package io.springlets.format;
 
 import org.springframework.core.convert.ConversionService;
+import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.common.TemplateParserContext;
 import org.springframework.format.Printer;
@@ -57,8 +58,16 @@ public abstract class AbstractEntityPrinter extends EntityExpressionSupport
 
   @Override
   public String print(Object object, Locale locale) {
-    String expression = getExpression(locale);
-    return convertToString(object, getExpressionOrDefault(expression));
+    return convertToString(object, getParsedExpression(locale));
+  }
+
+  /**
+   * Returns the parsed expression to apply based on the given {@link Locale}.
+   * @param locale to get the expression for
+   * @return the parsed expression
+   */
+  protected Expression getParsedExpression(Locale locale) {
+    return getCachedExpression(getExpressionOrDefault(getExpression(locale)));
   }
 
   /**
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.format;
+
+/**
+ * {@link EntityResolver} which is also able to retrieve many entities by its identifiers
+ * in a single operation, like a single query. Used to bind collection values of entities
+ * annotated with {@link EntityFormat}.
+ * 
+ * If an {@link EntityResolver} doesn't implement this interface, the entities will be
+ * retrieved one by one through the {@link EntityResolver#findOne(Object)} method.
+ * 
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public interface BatchEntityResolver<T, ID> extends EntityResolver<T, ID> {
+
+  /**
+   * Retrieves the entities with the given ids. The entities might be returned in any order.
+   * 
+   * @param ids must not be {@literal null}.
+   * @return the entities found with the given ids
+   * @throws IllegalArgumentException if {@code ids} is {@literal null}
+   */
+  Iterable<T> findAll(Iterable<ID> ids);
+
+  /**
+   * Returns the identifier of the given entity, used to return the entities in the 
+   * same order as the requested identifiers.
+   * 
+   * @param entity the entity to get the identifier from
+   * @return the entity identifier
+   */
+  ID getId(T entity);
+
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.format;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.Property;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A Printer for objects values whose expression is a template made only of property
+ * chains, like _#{firstName} #{lastName}_ or _#{owner.name}_. Instead of evaluating the
+ * expression with SpEL, the property values are read through {@link MethodHandle}s of the
+ * getter methods or public fields, resolved the first time each class is printed.
+ *
+ * The result is the same as the one provided by the {@link EntityPrinter}. If the expression
+ * isn't a plain property chain template, a property can't be resolved in a given class, or
+ * an intermediate property value is null, the SpEL expression is used instead.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class EntityAccessorPrinter extends EntityPrinter {
+
+  private static final TypeDescriptor STRING_TYPE = TypeDescriptor.valueOf(String.class);
+
+  private static final Pattern PROPERTY_CHAIN = Pattern.compile(
+      "\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*"
+          + "(\\.\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*)*");
+
+  private static final Set<String> SPEL_KEYWORDS = new HashSet<String>(Arrays.asList("true",
+      "false", "null", "and", "or", "not", "new", "t", "instanceof", "matches", "between", "div",
+      "mod", "eq", "ne", "lt", "gt", "le", "ge"));
+
+  private static final MethodType READER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  private static final Object FALLBACK = new Object();
+
+  private final List<Object> segments;
+
+  private final ConversionService conversionService;
+
+  /**
+   * Creates a new instance with the given expression and expression parser.
+   * @param expression expression to generate a String from the provided objects
+   * @param parser to parse the expression, when it is not a property chains template
+   * @param templateParserContext context to use to parse the expression
+   * @param conversionService the ConversionService to use to convert property values
+   * inside the expression
+   * @param defaultExpression expression to use if the expression to use in the conversion is empty
+   */
+  public EntityAccessorPrinter(String expression, ExpressionParser parser,
+      TemplateParserContext templateParserContext, ConversionService conversionService,
+      String defaultExpression) {
+    super(expression, parser, templateParserContext, conversionService, defaultExpression);
+    this.conversionService = conversionService == null
+        ? DefaultConversionService.getSharedInstance() : conversionService;
+    this.segments = parseTemplate(getExpressionOrDefault(expression), templateParserContext);
+  }
+
+  /**
+   * Returns if the given expression is a template made only of property chains, so it can
+   * be printed without SpEL.
+   * @param expression the expression to analyze
+   * @param templateParserContext context to use to parse the expression
+   * @return if the expression is supported by this printer
+   */
+  public static boolean isPropertyTemplate(String expression,
+      TemplateParserContext templateParserContext) {
+    return !StringUtils.isEmpty(expression)
+        && parseTemplate(expression, templateParserContext) != null;
+  }
+
+  @Override
+  public String print(Object object, Locale locale) {
+    if (segments == null || object == null) {
+      return super.print(object, locale);
+    }
+
+    StringBuilder result = new StringBuilder();
+    for (Object segment : segments) {
+      if (segment instanceof PropertyChain) {
+        Object value = ((PropertyChain) segment).readAsString(object, conversionService);
+        if (value == FALLBACK) {
+          return super.print(object, locale);
+        }
+        if (value != null) {
+          result.append(value);
+        }
+      } else {
+        result.append(segment);
+      }
+    }
+    return result.toString();
+  }
+
+  /**
+   * Splits the template in literal text and property chain segments.
+   * @return the template segments, or null if the template contains
+   * anything but property chains
+   */
+  private static List<Object> parseTemplate(String template, TemplateParserContext context) {
+    String prefix = context.getExpressionPrefix();
+    String suffix = context.getExpressionSuffix();
+    List<Object> segments = new ArrayList<Object>();
+    int position = 0;
+    while (position < template.length()) {
+      int start = template.indexOf(prefix, position);
+      if (start < 0) {
+        segments.add(template.substring(position));
+        break;
+      }
+      if (start > position) {
+        segments.add(template.substring(position, start));
+      }
+      int end = template.indexOf(suffix, start + prefix.length());
+      if (end < 0) {
+        return null;
+      }
+      String property = template.substring(start + prefix.length(), end).trim();
+      if (!isPropertyChain(property)) {
+        return null;
+      }
+      segments.add(new PropertyChain(StringUtils.delimitedListToStringArray(property, ".")));
+      position = end + suffix.length();
+    }
+    return segments.isEmpty() ? null : segments;
+  }
+
+  private static boolean isPropertyChain(String property) {
+    if (!PROPERTY_CHAIN.matcher(property).matches()) {
+      return false;
+    }
+    for (String name : StringUtils.delimitedListToStringArray(property, ".")) {
+      if (SPEL_KEYWORDS.contains(name.toLowerCase(Locale.ENGLISH))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * A chain of properties to read from the printed object, like _owner.name_.
+   */
+  private static final class PropertyChain {
+
+    private final PropertyStep[] steps;
+
+    PropertyChain(String[] names) {
+      this.steps = new PropertyStep[names.length];
+      for (int i = 0; i < names.length; i++) {
+        steps[i] = new PropertyStep(names[i]);
+      }
+    }
+
+    /**
+     * Reads the property chain value and converts it to String as SpEL would do.
+     * @return the value as String, null if the value is null, or {@link #FALLBACK} if
+     * the value can't be read without SpEL
+     */
+    Object readAsString(Object root, ConversionService conversionService) {
+      Object value = root;
+      PropertyReader reader = null;
+      for (PropertyStep step : steps) {
+        if (value == null) {
+          // Let SpEL report the error
+          return FALLBACK;
+        }
+        reader = step.getReader(value.getClass());
+        if (reader == PropertyReader.UNRESOLVED) {
+          return FALLBACK;
+        }
+        value = reader.read(value);
+      }
+      if (value == null || value instanceof String) {
+        return value;
+      }
+      return conversionService.convert(value, reader.getTypeDescriptor().narrow(value),
+          STRING_TYPE);
+    }
+  }
+
+  /**
+   * One of the properties of a {@link PropertyChain}, with its readers for each
+   * of the classes where the property has been read.
+   */
+  private static final class PropertyStep {
+
+    private final String name;
+
+    private final Map<Class<?>, PropertyReader> readers =
+        new ConcurrentReferenceHashMap<Class<?>, PropertyReader>(4);
+
+    PropertyStep(String name) {
+      this.name = name;
+    }
+
+    PropertyReader getReader(Class<?> clazz) {
+      PropertyReader reader = readers.get(clazz);
+      if (reader == null) {
+        reader = PropertyReader.resolve(clazz, name);
+        readers.put(clazz, reader);
+      }
+      return reader;
+    }
+  }
+
+  /**
+   * Reads a property value through a {@link MethodHandle} of its getter method or public field.
+   */
+  private static final class PropertyReader {
+
+    static final PropertyReader UNRESOLVED = new PropertyReader(null, null);
+
+    private final MethodHandle handle;
+
+    private final TypeDescriptor typeDescriptor;
+
+    PropertyReader(MethodHandle handle, TypeDescriptor typeDescriptor) {
+      this.handle = handle;
+      this.typeDescriptor = typeDescriptor;
+    }
+
+    static PropertyReader resolve(Class<?> clazz, String name) {
+      try {
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(clazz, name);
+        if (descriptor != null && descriptor.getReadMethod() != null) {
+          Method getter = descriptor.getReadMethod();
+          ReflectionUtils.makeAccessible(getter);
+          return new PropertyReader(MethodHandles.lookup().unreflect(getter).asType(READER_TYPE),
+              new TypeDescriptor(new Property(clazz, getter, null)));
+        }
+        Field field = ReflectionUtils.findField(clazz, name);
+        if (field != null && Modifier.isPublic(field.getModifiers())
+            && !Modifier.isStatic(field.getModifiers())) {
+          ReflectionUtils.makeAccessible(field);
+          return new PropertyReader(
+              MethodHandles.lookup().unreflectGetter(field).asType(READER_TYPE),
+              new TypeDescriptor(field));
+        }
+      } catch (IllegalAccessException ex) {
+        // Use SpEL instead
+      } catch (RuntimeException ex) {
+        // Use SpEL instead
+      }
+      return UNRESOLVED;
+    }
+
+    Object read(Object target) {
+      try {
+        return (Object) handle.invokeExact(target);
+      } catch (Throwable ex) {
+        ReflectionUtils.rethrowRuntimeException(ex);
+        return null;
+      }
+    }
+
+    TypeDescriptor getTypeDescriptor() {
+      return typeDescriptor;
+    }
+  }
+
+}
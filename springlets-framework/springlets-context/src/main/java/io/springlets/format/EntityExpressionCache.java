@@ -0,0 +1,200 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.format;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bounded and thread safe cache of parsed SpEL {@link Expression}s, keyed by the
+ * expression text. It is shared by all the {@link EntityExpressionSupport} instances,
+ * so each entity format expression is parsed only once.
+ *
+ * The parsed expressions don't hold any evaluation state, as the {@link EntityExpressionSupport}
+ * provides its own evaluation context on each evaluation.
+ *
+ * If a {@link SpelCompilerMode} other than {@link SpelCompilerMode#OFF} is provided,
+ * the SpEL expressions will be parsed with a {@link SpelExpressionParser} configured with
+ * that compiler mode, so they will be compiled to bytecode once they have been evaluated
+ * a number of times.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class EntityExpressionCache {
+
+  /**
+   * Default maximum number of expressions to cache.
+   */
+  public static final int DEFAULT_MAX_SIZE = 256;
+
+  private static final EntityExpressionCache DEFAULT_INSTANCE = new EntityExpressionCache();
+
+  private final int maxSize;
+
+  private final SpelCompilerMode compilerMode;
+
+  private final SpelExpressionParser compilerParser;
+
+  private final ConcurrentMap<CacheKey, Expression> expressions;
+
+  /**
+   * Creates a new cache with the {@link #DEFAULT_MAX_SIZE} and without expression compilation.
+   */
+  public EntityExpressionCache() {
+    this(DEFAULT_MAX_SIZE, SpelCompilerMode.OFF);
+  }
+
+  /**
+   * Creates a new cache.
+   * @param maxSize maximum number of parsed expressions to cache. If 0 or lower,
+   * the expressions won't be cached.
+   * @param compilerMode the SpEL compiler mode to apply to the parsed expressions
+   */
+  public EntityExpressionCache(int maxSize, SpelCompilerMode compilerMode) {
+    this.maxSize = maxSize;
+    this.compilerMode = compilerMode == null ? SpelCompilerMode.OFF : compilerMode;
+    this.compilerParser = SpelCompilerMode.OFF.equals(this.compilerMode) ? null
+        : new SpelExpressionParser(
+            new SpelParserConfiguration(this.compilerMode, ClassUtils.getDefaultClassLoader()));
+    this.expressions = new ConcurrentHashMap<>(maxSize > 0 ? maxSize : 16);
+  }
+
+  /**
+   * Returns the cache shared by default by all the {@link EntityExpressionSupport}
+   * instances which haven't been provided with a specific one.
+   * @return the default cache
+   */
+  public static EntityExpressionCache getDefault() {
+    return DEFAULT_INSTANCE;
+  }
+
+  /**
+   * Returns the parsed expression for the given text, parsing and caching it
+   * if it is not already available.
+   * @param expressionTxt the text of the expression to parse
+   * @param parser to parse the expression
+   * @param parserContext context to use to parse the expression
+   * @return the parsed expression
+   */
+  public Expression getExpression(String expressionTxt, ExpressionParser parser,
+      ParserContext parserContext) {
+    Assert.notNull(expressionTxt, "The expression to parse is required");
+    CacheKey key = new CacheKey(expressionTxt, parser, parserContext);
+    Expression expression = expressions.get(key);
+    if (expression == null) {
+      expression = parse(expressionTxt, parser, parserContext);
+      if (maxSize > 0) {
+        evictIfFull();
+        Expression previous = expressions.putIfAbsent(key, expression);
+        if (previous != null) {
+          expression = previous;
+        }
+      }
+    }
+    return expression;
+  }
+
+  /**
+   * Removes all the cached expressions.
+   */
+  public void clear() {
+    expressions.clear();
+  }
+
+  /**
+   * Returns the number of cached expressions.
+   * @return the cache size
+   */
+  public int size() {
+    return expressions.size();
+  }
+
+  /**
+   * Returns the maximum number of expressions to cache.
+   * @return the maximum cache size
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Returns the SpEL compiler mode applied to the parsed expressions.
+   * @return the compiler mode
+   */
+  public SpelCompilerMode getCompilerMode() {
+    return compilerMode;
+  }
+
+  private Expression parse(String expressionTxt, ExpressionParser parser,
+      ParserContext parserContext) {
+    ExpressionParser parserToUse =
+        compilerParser != null && parser instanceof SpelExpressionParser ? compilerParser : parser;
+    return parserToUse.parseExpression(expressionTxt, parserContext);
+  }
+
+  private void evictIfFull() {
+    // The entity format expressions are usually a small, fixed set, so an
+    // arbitrary eviction is enough to keep the cache bounded.
+    Iterator<CacheKey> keys = expressions.keySet().iterator();
+    while (expressions.size() >= maxSize && keys.hasNext()) {
+      keys.next();
+      keys.remove();
+    }
+  }
+
+  private static final class CacheKey {
+
+    private final String expression;
+    private final ExpressionParser parser;
+    private final ParserContext parserContext;
+
+    CacheKey(String expression, ExpressionParser parser, ParserContext parserContext) {
+      this.expression = expression;
+      this.parser = parser;
+      this.parserContext = parserContext;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof CacheKey)) {
+        return false;
+      }
+      CacheKey otherKey = (CacheKey) other;
+      return expression.equals(otherKey.expression) && parser == otherKey.parser
+          && parserContext == otherKey.parserContext;
+    }
+
+    @Override
+    public int hashCode() {
+      return expression.hashCode() * 31 + ObjectUtils.nullSafeHashCode(parserContext);
+    }
+  }
+
+}
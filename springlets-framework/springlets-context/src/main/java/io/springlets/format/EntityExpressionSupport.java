@@ -15,7 +15,9 @@
  */
 package io.springlets.format;
 
+import org.springframework.context.MessageSource;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.common.CompositeStringExpression;
@@ -25,12 +27,17 @@ import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.expression.spel.support.StandardTypeConverter;
 import org.springframework.util.StringUtils;
 
+import java.util.Locale;
+
 public class EntityExpressionSupport {
 
   private final ExpressionParser parser;
   private final TemplateParserContext templateParserContext;
   private final String defaultExpression;
   private final ConversionService conversionService;
+  private final EvaluationContext evaluationContext;
+  private EntityExpressionCache expressionCache = EntityExpressionCache.getDefault();
+  private EntityMessageExpressionCache messageExpressionCache = new EntityMessageExpressionCache();
 
   public EntityExpressionSupport(ExpressionParser parser,
       TemplateParserContext templateParserContext) {
@@ -54,6 +61,42 @@ public class EntityExpressionSupport {
     this.templateParserContext = templateParserContext;
     this.defaultExpression = defaultExpression;
     this.conversionService = conversionService;
+    this.evaluationContext = createEvaluationContext(conversionService);
+  }
+
+  /**
+   * Returns the cache of parsed expressions used by this instance.
+   * @return the expression cache
+   */
+  public EntityExpressionCache getExpressionCache() {
+    return expressionCache;
+  }
+
+  /**
+   * Sets the cache of parsed expressions to use. By default, the
+   * {@link EntityExpressionCache#getDefault() shared one} is used.
+   * @param expressionCache the expression cache to use
+   */
+  public void setExpressionCache(EntityExpressionCache expressionCache) {
+    this.expressionCache =
+        expressionCache == null ? EntityExpressionCache.getDefault() : expressionCache;
+  }
+
+  /**
+   * Returns the cache of expressions obtained from i18n messages used by this instance.
+   * @return the message expression cache
+   */
+  public EntityMessageExpressionCache getMessageExpressionCache() {
+    return messageExpressionCache;
+  }
+
+  /**
+   * Sets the cache of expressions obtained from i18n messages to use.
+   * @param messageExpressionCache the message expression cache to use
+   */
+  public void setMessageExpressionCache(EntityMessageExpressionCache messageExpressionCache) {
+    this.messageExpressionCache = messageExpressionCache == null
+        ? new EntityMessageExpressionCache() : messageExpressionCache;
   }
 
   /**
@@ -102,6 +145,45 @@ public class EntityExpressionSupport {
     return parsedExpression;
   }
 
+  /**
+   * Returns the parsed expression for the given text from the expression cache,
+   * parsing it only the first time.
+   * @param expression text of the expression
+   * @return the parsed expression
+   */
+  protected Expression getCachedExpression(String expression) {
+    return expressionCache.getExpression(expression, getParser(), getTemplateParserContext());
+  }
+
+  /**
+   * Returns the parsed expression provided by the given i18n message for a {@link Locale}.
+   * The message is resolved and parsed only the first time, as the result is stored in the 
+   * {@link EntityMessageExpressionCache}.
+   * @param messageSource to get the i18n message from
+   * @param messageCode the code of the message with the expression
+   * @param locale to get the message for
+   * @return the parsed expression, or the default one if the message is not available
+   */
+  protected Expression getMessageExpression(MessageSource messageSource, String messageCode,
+      Locale locale) {
+    Expression expression = messageExpressionCache.get(messageCode, locale);
+    if (expression == null) {
+      String expressionTxt = messageSource.getMessage(messageCode, null, null, locale);
+      expression = getCachedExpression(getExpressionOrDefault(expressionTxt));
+      messageExpressionCache.put(messageCode, locale, expression);
+    }
+    return expression;
+  }
+
+  private static EvaluationContext createEvaluationContext(ConversionService conversionService) {
+    if (conversionService == null) {
+      return null;
+    }
+    StandardEvaluationContext context = new StandardEvaluationContext();
+    context.setTypeConverter(new StandardTypeConverter(conversionService));
+    return context;
+  }
+
   private void registerConversionServiceInSpelExpressions(Expression parsedExpression) {
     if (conversionService == null) {
       return;
@@ -127,12 +209,27 @@ public class EntityExpressionSupport {
   }
 
   /**
-   * @param entity
-   * @param expressionTxt
-   * @return
+   * Evaluates the given expression over the entity. The parsed expression is 
+   * taken from the {@link EntityExpressionCache}.
+   * @param entity the object to convert
+   * @param expressionTxt text of the expression to apply
+   * @return the String generated by the expression
    */
   protected String convertToString(Object entity, String expressionTxt) {
-    return parseExpression(expressionTxt).getValue(entity, String.class);
+    return convertToString(entity, getCachedExpression(expressionTxt));
+  }
+
+  /**
+   * Evaluates the given already parsed expression over the entity.
+   * @param entity the object to convert
+   * @param expression the parsed expression to apply
+   * @return the String generated by the expression
+   */
+  protected String convertToString(Object entity, Expression expression) {
+    if (evaluationContext == null) {
+      return expression.getValue(entity, String.class);
+    }
+    return expression.getValue(evaluationContext, entity, String.class);
   }
 
 }
@@ -31,9 +31,7 @@ import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -56,10 +54,18 @@ public class EntityFormatAnnotationFormatterFactory extends EmbeddedValueResolut
 
   private final ConversionService conversionService;
 
-  private final Map<Class<?>, EntityResolver<?, ?>> entity2Resolver;
+  private final EntityResolverRegistry resolverRegistry;
 
   private String defaultExpression;
 
+  private EntityExpressionCache expressionCache = EntityExpressionCache.getDefault();
+
+  private EntityMessageExpressionCache messageExpressionCache = new EntityMessageExpressionCache();
+
+  private boolean accessorPrinters = false;
+
+  private EntityRequestCache requestCache;
+
   static {
     Set<Class<?>> fieldTypes = new HashSet<Class<?>>(1);
     fieldTypes.add(Object.class);
@@ -89,7 +95,57 @@ public class EntityFormatAnnotationFormatterFactory extends EmbeddedValueResolut
     this.messageSource = messageSource;
     this.conversionService = conversionService;
     this.defaultExpression = defaultExpression;
-    this.entity2Resolver = loadEntityResolvers(beanFactory);
+    this.resolverRegistry = new EntityResolverRegistry(beanFactory);
+  }
+
+  /**
+   * Sets the cache of parsed expressions to share between all the printers and converters
+   * created by this factory. By default, the {@link EntityExpressionCache#getDefault() shared
+   * one} is used.
+   * @param expressionCache the expression cache to use
+   */
+  public void setExpressionCache(EntityExpressionCache expressionCache) {
+    this.expressionCache =
+        expressionCache == null ? EntityExpressionCache.getDefault() : expressionCache;
+  }
+
+  /**
+   * Returns the cache of expressions obtained from i18n messages shared between all the 
+   * printers and converters created by this factory. Clear it if the messages are reloaded. 
+   * @return the message expression cache
+   */
+  public EntityMessageExpressionCache getMessageExpressionCache() {
+    return messageExpressionCache;
+  }
+
+  /**
+   * Sets the cache of expressions obtained from i18n messages to share between all the
+   * printers and converters created by this factory.
+   * @param messageExpressionCache the message expression cache to use
+   */
+  public void setMessageExpressionCache(EntityMessageExpressionCache messageExpressionCache) {
+    this.messageExpressionCache = messageExpressionCache == null
+        ? new EntityMessageExpressionCache() : messageExpressionCache;
+  }
+
+  /**
+   * Sets if the expressions which are just property chain templates, like 
+   * _#{firstName} #{lastName}_, must be printed with an {@link EntityAccessorPrinter}, 
+   * which reads the properties directly instead of evaluating the SpEL expression.
+   * Disabled by default.
+   * @param accessorPrinters if the {@link EntityAccessorPrinter} must be used when possible
+   */
+  public void setAccessorPrinters(boolean accessorPrinters) {
+    this.accessorPrinters = accessorPrinters;
+  }
+
+  /**
+   * Sets the cache of the entities already resolved in the current request, to be used
+   * by the created {@link EntityParser}s. Not used by default.
+   * @param requestCache the entity request cache to use, or null to not use a cache
+   */
+  public void setRequestCache(EntityRequestCache requestCache) {
+    this.requestCache = requestCache;
   }
 
   @Override
@@ -138,13 +194,15 @@ public class EntityFormatAnnotationFormatterFactory extends EmbeddedValueResolut
     Assert.notNull(annotation, "The EntityFormat annotation is required");
     Assert.notNull(fieldType, "The Class of the field to parse is required");
 
-    EntityResolver<?, ?> resolver = entity2Resolver.get(fieldType);
+    EntityResolver<?, ?> resolver = resolverRegistry.getResolver(fieldType);
     if (resolver == null) {
       throw new IllegalArgumentException(
           "Not found a required EntityService bean for the type: " + fieldType);
     }
 
-    return new EntityParser<>(resolver, conversionService);
+    EntityParser<?, ?> parser = new EntityParser<>(resolver, conversionService);
+    parser.setRequestCache(requestCache);
+    return parser;
   }
 
   /**
@@ -154,28 +212,48 @@ public class EntityFormatAnnotationFormatterFactory extends EmbeddedValueResolut
    * @return the entity to String converter
    */
   public ConditionalGenericConverter getToStringConverter() {
-    return new EntityToStringConverter(PARSER, PARSER_CONTEXT, messageSource, conversionService);
+    EntityToStringConverter converter =
+        new EntityToStringConverter(PARSER, PARSER_CONTEXT, messageSource, conversionService);
+    converter.setExpressionCache(expressionCache);
+    converter.setMessageExpressionCache(messageExpressionCache);
+    return converter;
   }
 
-  @SuppressWarnings({"rawtypes"})
-  private static Map<Class<?>, EntityResolver<?, ?>> loadEntityResolvers(
-      ListableBeanFactory beanFactory) {
-    Map<String, EntityResolver> entityServices = beanFactory.getBeansOfType(EntityResolver.class);
-    Map<Class<?>, EntityResolver<?, ?>> entity2Resolver = new HashMap<>(entityServices.size());
-    for (EntityResolver entityResolver : entityServices.values()) {
-      entity2Resolver.put(entityResolver.getEntityType(), entityResolver);
-    }
-    return entity2Resolver;
+  /**
+   * Creates a converter of entity identifiers to collections of entities, for collection
+   * fields annotated with {@link EntityFormat}. It retrieves all the entities of the 
+   * collection at once if the related {@link EntityResolver} is a {@link BatchEntityResolver}.
+   * 
+   * @return the String to entity collection converter
+   */
+  public ConditionalGenericConverter getCollectionParserConverter() {
+    StringToEntityCollectionConverter converter =
+        new StringToEntityCollectionConverter(resolverRegistry, conversionService);
+    converter.setRequestCache(requestCache);
+    return converter;
   }
 
   private EntityPrinter createPrinter(String expression) {
-    return new EntityPrinter(expression, PARSER, PARSER_CONTEXT, conversionService,
-        defaultExpression);
+    String expressionToUse = StringUtils.isEmpty(expression) ? defaultExpression : expression;
+    EntityPrinter printer;
+    if (accessorPrinters
+        && EntityAccessorPrinter.isPropertyTemplate(expressionToUse, PARSER_CONTEXT)) {
+      printer = new EntityAccessorPrinter(expression, PARSER, PARSER_CONTEXT, conversionService,
+          defaultExpression);
+    } else {
+      printer = new EntityPrinter(expression, PARSER, PARSER_CONTEXT, conversionService,
+          defaultExpression);
+    }
+    printer.setExpressionCache(expressionCache);
+    return printer;
   }
 
   private EntityMessagePrinter createMessagePrinter(String messageCode) {
-    return new EntityMessagePrinter(messageCode, messageSource, PARSER, PARSER_CONTEXT,
-        conversionService, defaultExpression);
+    EntityMessagePrinter printer = new EntityMessagePrinter(messageCode, messageSource, PARSER,
+        PARSER_CONTEXT, conversionService, defaultExpression);
+    printer.setExpressionCache(expressionCache);
+    printer.setMessageExpressionCache(messageExpressionCache);
+    return printer;
   }
 
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.format;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.springframework.expression.Expression;
+import org.springframework.util.ObjectUtils;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache of the parsed SpEL {@link Expression}s obtained from i18n messages,
+ * keyed by the message code and the {@link Locale}. Used to avoid a {@link MessageSource}
+ * lookup and an expression parse each time an entity is printed with the
+ * {@link EntityFormat#message()} attribute.
+ *
+ * As the messages might be reloaded, as in the {@link ReloadableResourceBundleMessageSource},
+ * the cached expressions expire after the same period of time the {@link MessageSource}
+ * caches its messages. Use the same value provided to the
+ * {@link ReloadableResourceBundleMessageSource#setCacheSeconds(int)} method.
+ * Also the cache must be cleared when the
+ * {@link ReloadableResourceBundleMessageSource#clearCache()} is called, either calling
+ * the {@link #clear()} method or, if the cache is a bean, publishing a
+ * {@link MessageSourceReloadedEvent}.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class EntityMessageExpressionCache
+    implements ApplicationListener<MessageSourceReloadedEvent> {
+
+  private final long cacheMillis;
+
+  private final ConcurrentMap<MessageKey, CachedExpression> expressions =
+      new ConcurrentHashMap<MessageKey, CachedExpression>(64);
+
+  /**
+   * Creates a new cache whose expressions never expire.
+   */
+  public EntityMessageExpressionCache() {
+    this(-1);
+  }
+
+  /**
+   * Creates a new cache whose expressions expire after the given number of seconds.
+   * @param cacheSeconds the number of seconds to cache the expressions. A negative value
+   * means the expressions never expire, and 0 disables the cache.
+   */
+  public EntityMessageExpressionCache(int cacheSeconds) {
+    this.cacheMillis = cacheSeconds * 1000L;
+  }
+
+  /**
+   * Returns the cached expression for the given message code and {@link Locale}.
+   * @param messageCode the code of the message with the expression
+   * @param locale the locale the message was resolved for
+   * @return the cached expression, or null if not available or expired
+   */
+  public Expression get(String messageCode, Locale locale) {
+    if (cacheMillis == 0) {
+      return null;
+    }
+    CachedExpression cached = expressions.get(new MessageKey(messageCode, locale));
+    if (cached == null) {
+      return null;
+    }
+    if (cacheMillis > 0 && System.currentTimeMillis() - cached.getTimestamp() > cacheMillis) {
+      return null;
+    }
+    return cached.getExpression();
+  }
+
+  /**
+   * Caches the expression parsed from the message with the given code and {@link Locale}.
+   * @param messageCode the code of the message with the expression
+   * @param locale the locale the message was resolved for
+   * @param expression the parsed expression
+   */
+  public void put(String messageCode, Locale locale, Expression expression) {
+    if (cacheMillis == 0) {
+      return;
+    }
+    expressions.put(new MessageKey(messageCode, locale),
+        new CachedExpression(expression, System.currentTimeMillis()));
+  }
+
+  /**
+   * Removes all the cached expressions, so they will be resolved again from the
+   * {@link MessageSource} the next time they are used.
+   */
+  public void clear() {
+    expressions.clear();
+  }
+
+  /**
+   * Removes all the cached expressions when the messages have been reloaded.
+   */
+  @Override
+  public void onApplicationEvent(MessageSourceReloadedEvent event) {
+    clear();
+  }
+
+  private static final class MessageKey {
+
+    private final String messageCode;
+    private final Locale locale;
+
+    MessageKey(String messageCode, Locale locale) {
+      this.messageCode = messageCode;
+      this.locale = locale;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof MessageKey)) {
+        return false;
+      }
+      MessageKey otherKey = (MessageKey) other;
+      return ObjectUtils.nullSafeEquals(messageCode, otherKey.messageCode)
+          && ObjectUtils.nullSafeEquals(locale, otherKey.locale);
+    }
+
+    @Override
+    public int hashCode() {
+      return ObjectUtils.nullSafeHashCode(messageCode) * 31 + ObjectUtils.nullSafeHashCode(locale);
+    }
+  }
+
+  private static final class CachedExpression {
+
+    private final Expression expression;
+    private final long timestamp;
+
+    CachedExpression(Expression expression, long timestamp) {
+      this.expression = expression;
+      this.timestamp = timestamp;
+    }
+
+    Expression getExpression() {
+      return expression;
+    }
+
+    long getTimestamp() {
+      return timestamp;
+    }
+  }
+
+}
@@ -17,8 +17,10 @@ package io.springlets.format;
 
 import org.springframework.context.MessageSource;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.util.StringUtils;
 
 import java.util.Locale;
 
@@ -70,6 +72,14 @@ public class EntityMessagePrinter extends AbstractEntityPrinter {
     this.messageSource = messageSource;
   }
 
+  @Override
+  protected Expression getParsedExpression(Locale locale) {
+    if (StringUtils.isEmpty(messageCode)) {
+      return super.getParsedExpression(locale);
+    }
+    return getMessageExpression(messageSource, messageCode, locale);
+  }
+
   @Override
   protected String getExpression(Locale locale) {
     return messageSource.getMessage(messageCode, null, null, locale);
@@ -19,7 +19,14 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.format.Parser;
 
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * A {@link Parser} for entities which is able to get the entity from its identifier in String form.
@@ -29,6 +36,7 @@ public class EntityParser<T, ID> implements Parser<T> {
 
   private EntityResolver<T, ID> entityResolver;
   private ConversionService conversionService;
+  private EntityRequestCache requestCache;
 
   /**
    * Creates a new {@link EntityParser}.
@@ -40,11 +48,97 @@ public class EntityParser<T, ID> implements Parser<T> {
     this.conversionService = conversionService;
   }
 
+  /**
+   * Sets the cache of the entities already resolved in the current request. If provided,
+   * the {@link EntityResolver} will be used only for the entities not available in the cache.
+   * @param requestCache the entity request cache to use, or null to not use a cache
+   */
+  public void setRequestCache(EntityRequestCache requestCache) {
+    this.requestCache = requestCache;
+  }
+
   @Override
   public T parse(String text, Locale locale) throws ParseException {
     ID idValue = conversionService.convert(text, entityResolver.getIdType());
 
-    return entityResolver.findOne(idValue);
+    if (requestCache == null || idValue == null) {
+      return entityResolver.findOne(idValue);
+    }
+
+    T entity = requestCache.get(entityResolver.getEntityType(), idValue);
+    if (entity == null) {
+      entity = entityResolver.findOne(idValue);
+      requestCache.put(entityResolver.getEntityType(), idValue, entity);
+    }
+    return entity;
+  }
+
+  /**
+   * Gets the entities for the given identifiers in String form. If the {@link EntityResolver}
+   * is a {@link BatchEntityResolver}, all the entities are retrieved in a single operation.
+   * Otherwise, they are retrieved one by one.
+   * 
+   * @param texts the identifiers of the entities
+   * @return the entities in the same order as the identifiers. If an entity is not found,
+   * the list will contain a null value in its position.
+   */
+  public List<T> parseAll(List<String> texts) {
+    List<ID> ids = new ArrayList<ID>(texts.size());
+    for (String text : texts) {
+      ids.add(conversionService.convert(text, entityResolver.getIdType()));
+    }
+
+    Map<ID, T> entities = findAll(ids);
+
+    List<T> result = new ArrayList<T>(ids.size());
+    for (ID id : ids) {
+      result.add(id == null ? null : entities.get(id));
+    }
+    return result;
+  }
+
+  private Map<ID, T> findAll(List<ID> ids) {
+    Set<ID> uniqueIds = new LinkedHashSet<ID>(ids);
+    uniqueIds.remove(null);
+    Map<ID, T> entities = new HashMap<ID, T>(uniqueIds.size());
+    if (requestCache != null) {
+      Iterator<ID> iterator = uniqueIds.iterator();
+      while (iterator.hasNext()) {
+        ID id = iterator.next();
+        T entity = requestCache.get(entityResolver.getEntityType(), id);
+        if (entity != null) {
+          entities.put(id, entity);
+          iterator.remove();
+        }
+      }
+    }
+    if (uniqueIds.isEmpty()) {
+      return entities;
+    }
+
+    if (entityResolver instanceof BatchEntityResolver) {
+      BatchEntityResolver<T, ID> batchResolver = (BatchEntityResolver<T, ID>) entityResolver;
+      for (T entity : batchResolver.findAll(uniqueIds)) {
+        if (entity != null) {
+          ID id = batchResolver.getId(entity);
+          entities.put(id, entity);
+          cache(id, entity);
+        }
+      }
+    } else {
+      for (ID id : uniqueIds) {
+        T entity = entityResolver.findOne(id);
+        entities.put(id, entity);
+        cache(id, entity);
+      }
+    }
+    return entities;
+  }
+
+  private void cache(ID id, T entity) {
+    if (requestCache != null) {
+      requestCache.put(entityResolver.getEntityType(), id, entity);
+    }
   }
 
 }
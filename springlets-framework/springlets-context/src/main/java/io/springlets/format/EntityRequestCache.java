@@ -0,0 +1,157 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.format;
+
+import org.springframework.util.ObjectUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * First level cache of the entities resolved by the {@link EntityParser}s during the
+ * current request, so parsing many times the same entity identifier in a request,
+ * like in nested forms or repeated hidden fields, only uses the {@link EntityResolver}
+ * the first time.
+ *
+ * The entities are stored as a request attribute, so the cache is only available
+ * when there is a current request bound through the {@link RequestContextHolder}.
+ * Otherwise, the entities are always retrieved through the {@link EntityResolver}.
+ *
+ * The number of cache hits and misses are available for monitoring purposes. The
+ * lookups performed without a current request are not counted.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class EntityRequestCache {
+
+  private static final String ENTITIES_ATTRIBUTE =
+      EntityRequestCache.class.getName() + ".ENTITIES";
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Returns the entity of the given type and identifier if it has already been
+   * resolved in the current request.
+   * @param entityType the class of the entity
+   * @param id the identifier of the entity
+   * @return the entity, or null if it is not available
+   */
+  public <T> T get(Class<T> entityType, Object id) {
+    if (RequestContextHolder.getRequestAttributes() == null) {
+      // Without a request there is no cache, so it is neither a hit nor a miss
+      return null;
+    }
+    Map<EntityKey, Object> entities = getEntities(false);
+    Object entity = entities == null ? null : entities.get(new EntityKey(entityType, id));
+    if (entity == null) {
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    return entityType.cast(entity);
+  }
+
+  /**
+   * Stores the entity resolved with the given type and identifier for the current request.
+   * Null entities are not stored.
+   * @param entityType the class of the entity
+   * @param id the identifier of the entity
+   * @param entity the resolved entity
+   */
+  public void put(Class<?> entityType, Object id, Object entity) {
+    if (entity == null) {
+      return;
+    }
+    Map<EntityKey, Object> entities = getEntities(true);
+    if (entities != null) {
+      entities.put(new EntityKey(entityType, id), entity);
+    }
+  }
+
+  /**
+   * Returns the number of entities found in the cache.
+   * @return the cache hits
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * Returns the number of entities not found in the cache, which had to be retrieved
+   * through an {@link EntityResolver}.
+   * @return the cache misses
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * Resets the hits and misses counters.
+   */
+  public void resetStatistics() {
+    hits.set(0);
+    misses.set(0);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<EntityKey, Object> getEntities(boolean create) {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes == null) {
+      return null;
+    }
+    Map<EntityKey, Object> entities = (Map<EntityKey, Object>) attributes
+        .getAttribute(ENTITIES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    if (entities == null && create) {
+      entities = new HashMap<EntityKey, Object>();
+      attributes.setAttribute(ENTITIES_ATTRIBUTE, entities, RequestAttributes.SCOPE_REQUEST);
+    }
+    return entities;
+  }
+
+  private static final class EntityKey {
+
+    private final Class<?> entityType;
+    private final Object id;
+
+    EntityKey(Class<?> entityType, Object id) {
+      this.entityType = entityType;
+      this.id = id;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof EntityKey)) {
+        return false;
+      }
+      EntityKey otherKey = (EntityKey) other;
+      return entityType.equals(otherKey.entityType) && ObjectUtils.nullSafeEquals(id, otherKey.id);
+    }
+
+    @Override
+    public int hashCode() {
+      return entityType.hashCode() * 31 + ObjectUtils.nullSafeHashCode(id);
+    }
+  }
+
+}
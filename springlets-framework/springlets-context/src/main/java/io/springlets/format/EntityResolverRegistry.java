@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.format;
+
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the {@link EntityResolver} beans available in a {@link ListableBeanFactory},
+ * by the type of the entities they resolve.
+ *
+ * The registry is populated lazily: the {@link EntityResolver} beans are not looked up
+ * until the first entity type is requested, and each bean is only initialized once a
+ * resolver for its entity type is needed, as long as the entity type can be obtained
+ * from the bean class generics. The resolvers exposed through FactoryBeans or factory
+ * methods are also found, which might require to initialize their factories.
+ *
+ * If no {@link EntityResolver} is available for a given type, the one for its closest
+ * superclass will be used, so subclasses and proxies, like the Hibernate ones, are also
+ * supported. If many {@link EntityResolver}s are available for the same entity type,
+ * the first one based on its order is used. The result of each lookup, even if no
+ * {@link EntityResolver} is found, is cached.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class EntityResolverRegistry {
+
+  private static final Object NO_RESOLVER = new Object();
+
+  private final ListableBeanFactory beanFactory;
+
+  private final Map<Class<?>, Object> resolvers =
+      new ConcurrentReferenceHashMap<Class<?>, Object>(64);
+
+  private volatile Map<Class<?>, List<String>> resolverNames;
+
+  /**
+   * Creates a new registry of the {@link EntityResolver} beans in the given bean factory.
+   * @param beanFactory to get the {@link EntityResolver} beans from
+   */
+  public EntityResolverRegistry(ListableBeanFactory beanFactory) {
+    this.beanFactory = beanFactory;
+  }
+
+  /**
+   * Returns the {@link EntityResolver} for the given entity type.
+   * @param entityType the class of the entities to resolve
+   * @return the entity resolver, or null if there isn't any for the given type
+   */
+  public EntityResolver<?, ?> getResolver(Class<?> entityType) {
+    Object resolver = resolvers.get(entityType);
+    if (resolver == null) {
+      resolver = findResolver(entityType);
+      if (resolver == null) {
+        resolver = NO_RESOLVER;
+      }
+      resolvers.put(entityType, resolver);
+    }
+    return resolver == NO_RESOLVER ? null : (EntityResolver<?, ?>) resolver;
+  }
+
+  /**
+   * Returns if there is an {@link EntityResolver} for the given entity type.
+   * @param entityType the class of the entities to resolve
+   * @return if the entity type can be resolved
+   */
+  public boolean hasResolver(Class<?> entityType) {
+    return getResolver(entityType) != null;
+  }
+
+  private EntityResolver<?, ?> findResolver(Class<?> entityType) {
+    Map<Class<?>, List<String>> names = getResolverNames();
+    for (Class<?> type = entityType; type != null; type = type.getSuperclass()) {
+      List<String> candidates = names.get(type);
+      if (candidates != null) {
+        return getFirstResolver(candidates);
+      }
+    }
+    return null;
+  }
+
+  private EntityResolver<?, ?> getFirstResolver(List<String> beanNames) {
+    List<EntityResolver<?, ?>> candidates = new ArrayList<EntityResolver<?, ?>>(beanNames.size());
+    for (String beanName : beanNames) {
+      candidates.add(beanFactory.getBean(beanName, EntityResolver.class));
+    }
+    AnnotationAwareOrderComparator.sort(candidates);
+    return candidates.get(0);
+  }
+
+  private Map<Class<?>, List<String>> getResolverNames() {
+    Map<Class<?>, List<String>> names = resolverNames;
+    if (names == null) {
+      synchronized (this) {
+        names = resolverNames;
+        if (names == null) {
+          names = loadResolverNames();
+          resolverNames = names;
+        }
+      }
+    }
+    return names;
+  }
+
+  private Map<Class<?>, List<String>> loadResolverNames() {
+    String[] beanNames = beanFactory.getBeanNamesForType(EntityResolver.class, true, true);
+    Map<Class<?>, List<String>> names = new HashMap<Class<?>, List<String>>(beanNames.length);
+    for (String beanName : beanNames) {
+      Class<?> entityType = getEntityType(beanName);
+      List<String> typeNames = names.get(entityType);
+      if (typeNames == null) {
+        typeNames = new ArrayList<String>(1);
+        names.put(entityType, typeNames);
+      }
+      typeNames.add(beanName);
+    }
+    return names;
+  }
+
+  /**
+   * Returns the type of the entities resolved by the given bean, from its class generics
+   * if available, so the bean doesn't need to be initialized.
+   */
+  private Class<?> getEntityType(String beanName) {
+    Class<?> beanType = beanFactory.getType(beanName);
+    if (beanType != null) {
+      Class<?> entityType =
+          ResolvableType.forClass(beanType).as(EntityResolver.class).getGeneric(0).resolve();
+      if (entityType != null) {
+        return entityType;
+      }
+    }
+    return beanFactory.getBean(beanName, EntityResolver.class).getEntityType();
+  }
+
+}
@@ -21,12 +21,15 @@ import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.converter.ConditionalGenericConverter;
+import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.StringUtils;
 
 import java.util.Collections;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -40,6 +43,8 @@ public class EntityToStringConverter extends EntityExpressionSupport
 
   private static final Set<ConvertiblePair> CONVERTIBLE_TYPES;
   private final MessageSource messageSource;
+  private final Map<Class<?>, EntityFormatMetadata> formatCache =
+      new ConcurrentReferenceHashMap<Class<?>, EntityFormatMetadata>(64);
 
   static {
     ConvertiblePair pair = new ConvertiblePair(Object.class, String.class);
@@ -84,35 +89,94 @@ public class EntityToStringConverter extends EntityExpressionSupport
     if (source == null) {
       return null;
     }
-    EntityFormat format = getAnnotation(sourceType.getType());
-
-    String expressionTxt = getDefaultExpression();
-    if (format != null) {
-      if (!StringUtils.isEmpty(format.message())) {
-        expressionTxt = messageSource.getMessage(format.message(), null, null, getCurrentLocale());
-      } else if (!StringUtils.isEmpty(format.expression())) {
-        expressionTxt = format.expression();
-      }
+    EntityFormatMetadata format = getFormatMetadata(sourceType.getType());
+
+    if (format.getMessageCode() != null) {
+      return convertToString(source,
+          getMessageExpression(messageSource, format.getMessageCode(), getCurrentLocale()));
+    }
+
+    if (format.getExpression() == null) {
+      return convertToString(source, getDefaultExpression());
     }
 
-    return convertToString(source, expressionTxt);
+    return convertToString(source, format.getExpression());
+  }
+
+  @Override
+  public void setExpressionCache(EntityExpressionCache expressionCache) {
+    super.setExpressionCache(expressionCache);
+    // Parsed expressions must be taken from the new cache
+    formatCache.clear();
   }
 
   @Override
   public boolean matches(TypeDescriptor sourceType, TypeDescriptor targetType) {
-    return (String.class.equals(targetType.getType()) && hasAnnotation(sourceType.getType()));
+    return (String.class.equals(targetType.getType())
+        && getFormatMetadata(sourceType.getType()).isAnnotated());
   }
 
   private Locale getCurrentLocale() {
     return LocaleContextHolder.getLocale();
   }
 
-  private boolean hasAnnotation(Class<?> clazz) {
-    return AnnotatedElementUtils.hasAnnotation(clazz, EntityFormat.class);
+  /**
+   * Returns the {@link EntityFormat} information resolved for the given class, 
+   * resolving and caching it the first time the class is converted.
+   * @param clazz the class to get the format for
+   * @return the resolved format
+   */
+  private EntityFormatMetadata getFormatMetadata(Class<?> clazz) {
+    EntityFormatMetadata metadata = formatCache.get(clazz);
+    if (metadata == null) {
+      metadata = resolveFormatMetadata(clazz);
+      formatCache.put(clazz, metadata);
+    }
+    return metadata;
   }
 
-  private EntityFormat getAnnotation(Class<?> clazz) {
-    return AnnotatedElementUtils.findMergedAnnotation(clazz, EntityFormat.class);
+  private EntityFormatMetadata resolveFormatMetadata(Class<?> clazz) {
+    EntityFormat format = AnnotatedElementUtils.findMergedAnnotation(clazz, EntityFormat.class);
+    if (format == null) {
+      return EntityFormatMetadata.NOT_ANNOTATED;
+    }
+
+    if (!StringUtils.isEmpty(format.message())) {
+      return new EntityFormatMetadata(true, format.message(), null);
+    }
+
+    String expressionTxt = getExpressionOrDefault(format.expression());
+    return new EntityFormatMetadata(true, null, getCachedExpression(expressionTxt));
+  }
+
+  /**
+   * {@link EntityFormat} information resolved for a given class.
+   */
+  private static final class EntityFormatMetadata {
+
+    static final EntityFormatMetadata NOT_ANNOTATED = new EntityFormatMetadata(false, null, null);
+
+    private final boolean annotated;
+    private final String messageCode;
+    private final Expression expression;
+
+    EntityFormatMetadata(boolean annotated, String messageCode, Expression expression) {
+      this.annotated = annotated;
+      this.messageCode = messageCode;
+      this.expression = expression;
+    }
+
+    boolean isAnnotated() {
+      return annotated;
+    }
+
+    String getMessageCode() {
+      return messageCode;
+    }
+
+    Expression getExpression() {
+      return expression;
+    }
   }
 
 }
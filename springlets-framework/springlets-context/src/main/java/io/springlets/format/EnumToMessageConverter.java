@@ -3,14 +3,19 @@
  */
 package io.springlets.format;
 
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.converter.GenericConverter;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Converts Enum type values to String. 
@@ -18,9 +23,17 @@ import java.util.Set;
  * the enum simple class name, and name the enum value name.
  * If the message is not found, the enum name will be used instead.
  * 
+ * The messages of all the values of an enum are resolved the first time a value of the
+ * enum is converted for a given {@link Locale}, and stored in a translation table, so
+ * the next conversions don't need to access the {@link MessageSource}. The translation 
+ * tables expire after the provided number of seconds, to take into account reloaded
+ * messages, and might also be removed through the {@link #clearCache()} method or,
+ * if the converter is a bean, publishing a {@link MessageSourceReloadedEvent}.
+ * 
  * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
  */
-public class EnumToMessageConverter implements GenericConverter {
+public class EnumToMessageConverter
+    implements GenericConverter, ApplicationListener<MessageSourceReloadedEvent> {
 
   private static final String SEPARATOR = "_";
   private static final String ENUM_MESSAGE_CODE_PREFIX = "enum_";
@@ -33,12 +46,29 @@ public class EnumToMessageConverter implements GenericConverter {
 
   private final MessageSource messageSource;
 
+  private final long cacheMillis;
+
+  private final ConcurrentMap<Class<?>, ConcurrentMap<Locale, TranslationTable>> tables =
+      new ConcurrentReferenceHashMap<Class<?>, ConcurrentMap<Locale, TranslationTable>>(64);
+
   /**
-   * Creates a new enum message converter.
+   * Creates a new enum message converter whose translations never expire.
    * @param messageSource to look for the i18n messages.
    */
   public EnumToMessageConverter(MessageSource messageSource) {
+    this(messageSource, -1);
+  }
+
+  /**
+   * Creates a new enum message converter.
+   * @param messageSource to look for the i18n messages.
+   * @param cacheSeconds the number of seconds to cache the enum translations. It should be 
+   * the same value used to cache the messages in the {@link MessageSource}. A negative value
+   * means the translations never expire, and 0 disables the cache.
+   */
+  public EnumToMessageConverter(MessageSource messageSource, int cacheSeconds) {
     this.messageSource = messageSource;
+    this.cacheMillis = cacheSeconds * 1000L;
   }
 
   @Override
@@ -52,16 +82,94 @@ public class EnumToMessageConverter implements GenericConverter {
       // Nothing to convert
       return null;
     }
-    @SuppressWarnings("rawtypes")
-    String name = ((Enum) source).name();
-    String code = ENUM_MESSAGE_CODE_PREFIX + source.getClass().getSimpleName() + SEPARATOR + name;
-    String message = messageSource.getMessage(code, null, name, getCurrentLocale());
+    Enum<?> value = (Enum<?>) source;
+    if (cacheMillis == 0) {
+      return getMessage(value, getCurrentLocale());
+    }
+    return getTranslationTable(value.getDeclaringClass(), getCurrentLocale()).get(value);
+  }
+
+  /**
+   * Removes all the enum translations, so they will be resolved again from the 
+   * {@link MessageSource}. Call it when the messages are reloaded.
+   */
+  public void clearCache() {
+    tables.clear();
+  }
 
-    return message;
+  /**
+   * Removes all the enum translations when the messages have been reloaded.
+   */
+  @Override
+  public void onApplicationEvent(MessageSourceReloadedEvent event) {
+    clearCache();
   }
 
   private Locale getCurrentLocale() {
     return LocaleContextHolder.getLocale();
   }
 
+  private String getMessage(Enum<?> value, Locale locale) {
+    String name = value.name();
+    String code = ENUM_MESSAGE_CODE_PREFIX + value.getClass().getSimpleName() + SEPARATOR + name;
+    return messageSource.getMessage(code, null, name, locale);
+  }
+
+  private TranslationTable getTranslationTable(Class<?> enumType, Locale locale) {
+    ConcurrentMap<Locale, TranslationTable> localeTables = tables.get(enumType);
+    if (localeTables == null) {
+      localeTables = new ConcurrentHashMap<Locale, TranslationTable>(4);
+      ConcurrentMap<Locale, TranslationTable> existing =
+          tables.putIfAbsent(enumType, localeTables);
+      if (existing != null) {
+        localeTables = existing;
+      }
+    }
+    TranslationTable table = localeTables.get(locale);
+    if (table == null) {
+      table = createTranslationTable(enumType, locale);
+      TranslationTable existing = localeTables.putIfAbsent(locale, table);
+      return existing == null ? table : existing;
+    }
+    if (table.isExpired(cacheMillis)) {
+      TranslationTable expired = table;
+      table = createTranslationTable(enumType, locale);
+      localeTables.replace(locale, expired, table);
+    }
+    return table;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private TranslationTable createTranslationTable(Class<?> enumType, Locale locale) {
+    EnumMap messages = new EnumMap(enumType);
+    for (Object constant : enumType.getEnumConstants()) {
+      Enum<?> value = (Enum<?>) constant;
+      messages.put(value, getMessage(value, locale));
+    }
+    return new TranslationTable(messages, System.currentTimeMillis());
+  }
+
+  /**
+   * The messages of all the values of an enum for a given {@link Locale}.
+   */
+  private static final class TranslationTable {
+
+    private final EnumMap<?, String> messages;
+
+    private final long timestamp;
+
+    TranslationTable(EnumMap<?, String> messages, long timestamp) {
+      this.messages = messages;
+      this.timestamp = timestamp;
+    }
+
+    String get(Enum<?> value) {
+      return messages.get(value);
+    }
+
+    boolean isExpired(long cacheMillis) {
+      return cacheMillis > 0 && System.currentTimeMillis() - timestamp > cacheMillis;
+    }
+  }
+
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.format;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+
+/**
+ * Event to publish when the messages of a {@link MessageSource} have been reloaded, so the
+ * caches of data obtained from i18n messages, like the {@link EntityMessageExpressionCache},
+ * remove their entries.
+ *
+ * The {@link ReloadableResourceBundleMessageSource} doesn't notify when its messages are
+ * reloaded, so the event must be published along with the call to its _clearCache()_
+ * method. As an example:
+ *
+ * <pre class="code">
+ * messageSource.clearCache();
+ * applicationEventPublisher.publishEvent(new MessageSourceReloadedEvent(messageSource));
+ * </pre>
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class MessageSourceReloadedEvent extends ApplicationEvent {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Creates a new event.
+   * @param messageSource the reloaded {@link MessageSource}
+   */
+  public MessageSourceReloadedEvent(MessageSource messageSource) {
+    super(messageSource);
+  }
+
+  /**
+   * Returns the reloaded {@link MessageSource}.
+   * @return the message source
+   */
+  public MessageSource getMessageSource() {
+    return (MessageSource) getSource();
+  }
+
+}
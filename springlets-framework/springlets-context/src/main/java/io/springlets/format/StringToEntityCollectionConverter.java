@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.format;
+
+import org.springframework.core.CollectionFactory;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.ConditionalGenericConverter;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Converts identifiers in String form to a collection of entities, for collection fields
+ * annotated with the {@link EntityFormat} annotation. The identifiers might be provided
+ * as an array of Strings, or as a String with the identifiers separated by commas.
+ *
+ * Instead of converting each identifier through an {@link EntityParser}, all the entities
+ * are retrieved in a single operation if the {@link EntityResolver} of the entities
+ * is a {@link BatchEntityResolver}. The entities are returned in the same order as
+ * their identifiers.
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class StringToEntityCollectionConverter implements ConditionalGenericConverter {
+
+  private static final Set<ConvertiblePair> CONVERTIBLE_TYPES;
+
+  static {
+    Set<ConvertiblePair> pairs = new HashSet<ConvertiblePair>(2);
+    pairs.add(new ConvertiblePair(String.class, Collection.class));
+    pairs.add(new ConvertiblePair(String[].class, Collection.class));
+    CONVERTIBLE_TYPES = Collections.unmodifiableSet(pairs);
+  }
+
+  private final EntityResolverRegistry resolverRegistry;
+
+  private final ConversionService conversionService;
+
+  private EntityRequestCache requestCache;
+
+  /**
+   * Creates a new converter.
+   * @param resolverRegistry the registry of the available {@link EntityResolver}s
+   * @param conversionService used to convert from String to the identifier type
+   */
+  public StringToEntityCollectionConverter(EntityResolverRegistry resolverRegistry,
+      ConversionService conversionService) {
+    this.resolverRegistry = resolverRegistry;
+    this.conversionService = conversionService;
+  }
+
+  /**
+   * Sets the cache of the entities already resolved in the current request.
+   * @param requestCache the entity request cache to use, or null to not use a cache
+   */
+  public void setRequestCache(EntityRequestCache requestCache) {
+    this.requestCache = requestCache;
+  }
+
+  @Override
+  public Set<ConvertiblePair> getConvertibleTypes() {
+    return CONVERTIBLE_TYPES;
+  }
+
+  @Override
+  public boolean matches(TypeDescriptor sourceType, TypeDescriptor targetType) {
+    if (!targetType.hasAnnotation(EntityFormat.class)) {
+      return false;
+    }
+    TypeDescriptor elementType = targetType.getElementTypeDescriptor();
+    return elementType != null && resolverRegistry.hasResolver(elementType.getType());
+  }
+
+  @Override
+  public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+    if (source == null) {
+      return null;
+    }
+
+    List<String> ids = getIds(source);
+    TypeDescriptor elementType = targetType.getElementTypeDescriptor();
+    EntityParser<?, ?> parser =
+        createParser(resolverRegistry.getResolver(elementType.getType()), conversionService);
+    parser.setRequestCache(requestCache);
+
+    Collection<Object> target = CollectionFactory.createCollection(targetType.getType(),
+        elementType.getType(), ids.size());
+    target.addAll(parser.parseAll(ids));
+    return target;
+  }
+
+  private static List<String> getIds(Object source) {
+    String[] values = source instanceof String[] ? (String[]) source
+        : StringUtils.commaDelimitedListToStringArray((String) source);
+    List<String> ids = new ArrayList<String>(values.length);
+    for (String value : values) {
+      String id = value.trim();
+      if (!id.isEmpty()) {
+        ids.add(id);
+      }
+    }
+    return ids;
+  }
+
+  private static <T, ID> EntityParser<T, ID> createParser(EntityResolver<T, ID> resolver,
+      ConversionService conversionService) {
+    return new EntityParser<T, ID>(resolver, conversionService);
+  }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.format.config;
+
+import io.springlets.format.EntityExpressionCache;
+
+import org.springframework.expression.spel.SpelCompilerMode;
+
+/**
+ * Springlets entity format configuration.
+ *
+ * This configuration is independent of any specific 3rd party library
+ * like the Spring Boot.
+ *
+ * To bind the property values from *Spring Boot* auto-configuration use
+ * the http://docs.spring.io/spring-boot/docs/current/reference/htmlsingle/#boot-features-external-config-3rd-party-configuration[Spring Boot third-party configuration].
+ *
+ * This class must manage the properties `springlets.entityformat`. It hosts the following
+ * nested properties:
+ *
+ * * `expression-cache`
+ * * `message-cache`
+ * * `request-cache`
+ *
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class SpringletsEntityFormatProperties {
+
+  /**
+   * `springlets.entityformat.expression-cache` properties.
+   */
+  private ExpressionCacheProperties expressionCache = new ExpressionCacheProperties();
+
+  /**
+   * `springlets.entityformat.message-cache` properties.
+   */
+  private MessageCacheProperties messageCache = new MessageCacheProperties();
+
+  /**
+   * `springlets.entityformat.accessor-printers` property: print the expressions which are
+   * only property chains, like `#{firstName} #{lastName}`, reading the properties directly
+   * instead of evaluating the SpEL expression.
+   */
+  private boolean accessorPrinters = false;
+
+  /**
+   * `springlets.entityformat.request-cache` properties.
+   */
+  private RequestCacheProperties requestCache = new RequestCacheProperties();
+
+  public boolean isAccessorPrinters() {
+    return accessorPrinters;
+  }
+
+  public void setAccessorPrinters(boolean accessorPrinters) {
+    this.accessorPrinters = accessorPrinters;
+  }
+
+  public ExpressionCacheProperties getExpressionCache() {
+    return expressionCache;
+  }
+
+  public void setExpressionCache(ExpressionCacheProperties expressionCacheProperties) {
+    this.expressionCache = expressionCacheProperties;
+  }
+
+  public MessageCacheProperties getMessageCache() {
+    return messageCache;
+  }
+
+  public void setMessageCache(MessageCacheProperties messageCacheProperties) {
+    this.messageCache = messageCacheProperties;
+  }
+
+  public RequestCacheProperties getRequestCache() {
+    return requestCache;
+  }
+
+  public void setRequestCache(RequestCacheProperties requestCacheProperties) {
+    this.requestCache = requestCacheProperties;
+  }
+
+  /**
+   * `springlets.entityformat.expression-cache` properties.
+   */
+  public static class ExpressionCacheProperties {
+
+    /**
+     * Maximum number of parsed SpEL expressions to cache. Use 0 to disable the cache.
+     */
+    private int maxSize = EntityExpressionCache.DEFAULT_MAX_SIZE;
+
+    /**
+     * SpEL compiler mode to apply to the cached expressions: `off`, `immediate` or `mixed`.
+     */
+    private SpelCompilerMode compilerMode = SpelCompilerMode.OFF;
+
+    public int getMaxSize() {
+      return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    public SpelCompilerMode getCompilerMode() {
+      return compilerMode;
+    }
+
+    public void setCompilerMode(SpelCompilerMode compilerMode) {
+      this.compilerMode = compilerMode;
+    }
+  }
+
+  /**
+   * `springlets.entityformat.message-cache` properties.
+   */
+  public static class MessageCacheProperties {
+
+    /**
+     * Number of seconds to cache the expressions and enum translations loaded from 
+     * i18n messages. It should
+     * be the same value used to cache the messages in the MessageSource. A negative value 
+     * means cache forever, and 0 disables the cache.
+     */
+    private int cacheSeconds = -1;
+
+    public int getCacheSeconds() {
+      return cacheSeconds;
+    }
+
+    public void setCacheSeconds(int cacheSeconds) {
+      this.cacheSeconds = cacheSeconds;
+    }
+  }
+
+  /**
+   * `springlets.entityformat.request-cache` properties.
+   */
+  public static class RequestCacheProperties {
+
+    /**
+     * `true` to cache the entities parsed from their identifiers during the current request.
+     */
+    private boolean enabled = false;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean on) {
+      this.enabled = on;
+    }
+  }
+}
@@ -15,13 +15,18 @@
  */
 package io.springlets.format.config;
 
+import io.springlets.format.EntityExpressionCache;
 import io.springlets.format.EntityFormat;
 import io.springlets.format.EntityFormatAnnotationFormatterFactory;
+import io.springlets.format.EntityMessageExpressionCache;
+import io.springlets.format.EntityRequestCache;
 import io.springlets.format.EnumToMessageConverter;
+import io.springlets.format.MessageSourceReloadedEvent;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.format.FormatterRegistry;
 import org.springframework.format.support.FormattingConversionService;
@@ -40,6 +45,12 @@ public class SpringletsEntityFormatWebConfiguration extends WebMvcConfigurerAdap
 
   private final ApplicationContext applicationContext;
 
+  @Autowired(required = false)
+  private SpringletsEntityFormatProperties entityFormatProperties;
+
+  @Autowired(required = false)
+  private EntityRequestCache requestCache;
+
   /**
    * Creates a new configuration of entity formatters and converters for Spring MVC.
    * @param messageSource to get i18n messages from
@@ -58,10 +69,83 @@ public class SpringletsEntityFormatWebConfiguration extends WebMvcConfigurerAdap
     super.addFormatters(registry);
     EntityFormatAnnotationFormatterFactory factory = new EntityFormatAnnotationFormatterFactory(
         messageSource, applicationContext, (FormattingConversionService) registry);
+    factory.setExpressionCache(expressionCache());
+    factory.setMessageExpressionCache(messageExpressionCache());
+    if (entityFormatProperties != null) {
+      factory.setAccessorPrinters(entityFormatProperties.isAccessorPrinters());
+    }
+    factory.setRequestCache(entityRequestCache());
     registry.addFormatterForFieldAnnotation(factory);
 
     registry.addConverter(factory.getToStringConverter());
-    registry.addConverter(new EnumToMessageConverter(messageSource));
+    registry.addConverter(factory.getCollectionParserConverter());
+    registry.addConverter(enumToMessageConverter());
+  }
+
+  /**
+   * Returns the {@link EntityRequestCache} to use, if any. An {@link EntityRequestCache}
+   * bean registered in the application context is always used, so its statistics are
+   * available for monitoring. The Springlets auto-configuration registers it when the
+   * `springlets.entityformat.request-cache.enabled` property is `true`. Otherwise, a
+   * new one is created if enabled through the {@link #entityFormatProperties}.
+   * 
+   * Note that if there isn't any {@link EntityRequestCache} bean and
+   * {@link #entityFormatProperties} is null or the request cache is not enabled, this
+   * method returns null, and the entities won't be cached.
+   * 
+   * @return the EntityRequestCache, or null if the entities must not be cached
+   */
+  private EntityRequestCache entityRequestCache() {
+    if (requestCache != null) {
+      return requestCache;
+    }
+    if (entityFormatProperties == null || !entityFormatProperties.getRequestCache().isEnabled()) {
+      return null;
+    }
+    return new EntityRequestCache();
+  }
+
+  /**
+   * Creates the cache of parsed expressions to share between all the entity formatters and 
+   * converters, configured with {@link #entityFormatProperties} if available.
+   * @return the expression cache
+   */
+  private EntityExpressionCache expressionCache() {
+    if (entityFormatProperties == null) {
+      return EntityExpressionCache.getDefault();
+    }
+    SpringletsEntityFormatProperties.ExpressionCacheProperties cacheProperties =
+        entityFormatProperties.getExpressionCache();
+    return new EntityExpressionCache(cacheProperties.getMaxSize(),
+        cacheProperties.getCompilerMode());
+  }
+
+  /**
+   * Creates the cache of expressions obtained from i18n messages, configured 
+   * with {@link #entityFormatProperties} if available. It is registered as a bean,
+   * so it is cleared when a {@link MessageSourceReloadedEvent} is published.
+   * @return the message expression cache
+   */
+  @Bean
+  public EntityMessageExpressionCache messageExpressionCache() {
+    return new EntityMessageExpressionCache(messageCacheSeconds());
+  }
+
+  /**
+   * Creates the converter of enum values to their i18n messages, whose translations
+   * are cached as configured with {@link #entityFormatProperties} if available. It is
+   * registered as a bean, so its translations are removed when a
+   * {@link MessageSourceReloadedEvent} is published.
+   * @return the enum converter
+   */
+  @Bean
+  public EnumToMessageConverter enumToMessageConverter() {
+    return new EnumToMessageConverter(messageSource, messageCacheSeconds());
+  }
+
+  private int messageCacheSeconds() {
+    return entityFormatProperties == null ? -1
+        : entityFormatProperties.getMessageCache().getCacheSeconds();
   }
 
 }
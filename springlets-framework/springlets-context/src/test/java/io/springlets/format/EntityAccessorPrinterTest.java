@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.format;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.util.Locale;
+
+/**
+ * Unit tests for the {@link EntityAccessorPrinter} class.
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class EntityAccessorPrinterTest {
+
+  private static final String TO_STRING_EXPRESSION = "#{toString()}";
+
+  private static final String TO_STRING = "A string";
+
+  private ExpressionParser parser = new SpelExpressionParser();
+  private TemplateParserContext context = new TemplateParserContext();
+  private ConversionService conversionService = new DefaultConversionService();
+
+  @Test
+  public void shouldDetectPropertyTemplates() {
+    assertThat(EntityAccessorPrinter.isPropertyTemplate("#{field1} - #{field2}", context))
+        .isTrue();
+    assertThat(EntityAccessorPrinter.isPropertyTemplate("#{child.field1}", context)).isTrue();
+    assertThat(EntityAccessorPrinter.isPropertyTemplate("#{toString()}", context)).isFalse();
+    assertThat(EntityAccessorPrinter.isPropertyTemplate("#{field1 + field2}", context)).isFalse();
+    assertThat(EntityAccessorPrinter.isPropertyTemplate("#{null}", context)).isFalse();
+    assertThat(EntityAccessorPrinter.isPropertyTemplate("", context)).isFalse();
+  }
+
+  @Test
+  public void shouldPrintLikeTheSpelPrinter() {
+    // Prepare
+    String expression = "#{field1} - #{field2} (#{child.field1})";
+    EntityAccessorPrinter printer = new EntityAccessorPrinter(expression, parser, context,
+        conversionService, TO_STRING_EXPRESSION);
+    EntityPrinter spelPrinter =
+        new EntityPrinter(expression, parser, context, conversionService, TO_STRING_EXPRESSION);
+    TestObject testObject = new TestObject();
+    testObject.child = new TestObject();
+
+    // Exercise
+    String result = printer.print(testObject, Locale.getDefault());
+
+    // Validate
+    assertThat(result).isEqualTo("value1 - 2 (value1)")
+        .isEqualTo(spelPrinter.print(testObject, Locale.getDefault()));
+  }
+
+  @Test
+  public void shouldPrintNullValuesAsEmpty() {
+    // Prepare
+    EntityAccessorPrinter printer = new EntityAccessorPrinter("#{field1}-#{child}", parser,
+        context, conversionService, TO_STRING_EXPRESSION);
+
+    // Exercise
+    String result = printer.print(new TestObject(), Locale.getDefault());
+
+    // Validate
+    assertThat(result).isEqualTo("value1-");
+  }
+
+  @Test
+  public void shouldFallbackToSpelWithNonPropertyExpressions() {
+    // Prepare
+    EntityAccessorPrinter printer = new EntityAccessorPrinter("", parser, context,
+        conversionService, TO_STRING_EXPRESSION);
+
+    // Exercise
+    String result = printer.print(new TestObject(), Locale.getDefault());
+
+    // Validate
+    assertThat(result).isEqualTo(TO_STRING);
+  }
+
+  public static class TestObject {
+    public String field1 = "value1";
+    private Long field2 = Long.valueOf(2);
+    public TestObject child;
+
+    public Long getField2() {
+      return field2;
+    }
+
+    @Override
+    public String toString() {
+      return TO_STRING;
+    }
+  }
+
+}
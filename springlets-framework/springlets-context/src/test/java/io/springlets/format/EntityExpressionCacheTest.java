@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.format;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+/**
+ * Unit tests for the {@link EntityExpressionCache} class.
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+public class EntityExpressionCacheTest {
+
+  private ExpressionParser parser = new SpelExpressionParser();
+  private TemplateParserContext context = new TemplateParserContext();
+
+  @Test
+  public void shouldReturnSameExpressionForSameText() {
+    // Prepare
+    EntityExpressionCache cache = new EntityExpressionCache();
+
+    // Exercise
+    Expression first = cache.getExpression("#{field1} - #{field2}", parser, context);
+    Expression second = cache.getExpression("#{field1} - #{field2}", parser, context);
+
+    // Validate
+    assertThat(second).isSameAs(first);
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldNotExceedMaxSize() {
+    // Prepare
+    EntityExpressionCache cache = new EntityExpressionCache(2, SpelCompilerMode.OFF);
+
+    // Exercise
+    cache.getExpression("#{field1}", parser, context);
+    cache.getExpression("#{field2}", parser, context);
+    cache.getExpression("#{field3}", parser, context);
+
+    // Validate
+    assertThat(cache.size()).isLessThanOrEqualTo(2);
+  }
+
+  @Test
+  public void shouldNotCacheWithZeroMaxSize() {
+    // Prepare
+    EntityExpressionCache cache = new EntityExpressionCache(0, SpelCompilerMode.OFF);
+
+    // Exercise
+    Expression expression = cache.getExpression("#{field1}", parser, context);
+
+    // Validate
+    assertThat(expression).isNotNull();
+    assertThat(cache.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldEvaluateCompiledExpressions() {
+    // Prepare
+    EntityExpressionCache cache = new EntityExpressionCache(10, SpelCompilerMode.MIXED);
+    Expression expression = cache.getExpression("#{field1} - #{field2}", parser, context);
+
+    // Exercise
+    String result = null;
+    for (int i = 0; i < 200; i++) {
+      result = expression.getValue(new TestObject(), String.class);
+    }
+
+    // Validate
+    assertThat(result).isEqualTo("value1 - 2");
+  }
+
+  public static class TestObject {
+    public String field1 = "value1";
+    public Long field2 = Long.valueOf(2);
+  }
+
+}
@@ -16,7 +16,7 @@
 package io.springlets.format;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import org.junit.Before;
@@ -33,7 +33,6 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.format.Parser;
 import org.springframework.format.Printer;
 
-import java.util.HashMap;
 import java.util.Set;
 
 /**
@@ -63,20 +62,28 @@ public class EntityFormatAnnotationFormatterFactoryTest {
 
   private EntityFormatAnnotationFormatterFactory factory;
 
-  @SuppressWarnings("unchecked")
   @Before
   public void setup() {
     // Prepare
     when(resolver.getEntityType()).thenReturn(Object.class);
 
-    HashMap<String, EntityResolver<?, ?>> map = new HashMap<>(0);
-    map.put("bean", resolver);
-    when(beanFactory.getBeansOfType(any(Class.class))).thenReturn(map);
+    when(beanFactory.getBeanNamesForType(EntityResolver.class, true, true))
+        .thenReturn(new String[] {"bean"});
+    when(beanFactory.getBean("bean", EntityResolver.class)).thenReturn(resolver);
 
     factory =
         new EntityFormatAnnotationFormatterFactory(messageSource, beanFactory, conversionService);
   }
 
+  /**
+   * Test method for {@link io.springlets.format.EntityFormatAnnotationFormatterFactory#EntityFormatAnnotationFormatterFactory(MessageSource, ListableBeanFactory, ConversionService)}.
+   */
+  @Test
+  public void shouldNotLoadResolversOnCreation() {
+    // Verify
+    verifyZeroInteractions(beanFactory);
+  }
+
   /**
    * Test method for {@link io.springlets.format.EntityFormatAnnotationFormatterFactory#getFieldTypes()}.
    */
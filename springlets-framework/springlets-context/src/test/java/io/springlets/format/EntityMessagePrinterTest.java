@@ -19,6 +19,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.junit.Rule;
@@ -106,6 +108,63 @@ public class EntityMessagePrinterTest {
     assertThat(result).isNotEmpty().isEqualTo(testObject.field1 + " - " + testObject.field2);
   }
 
+  @Test
+  public void shouldResolveMessageOnlyOncePerLocale() {
+    // Prepare
+    when(messageSource.getMessage("message", null, null, locale))
+        .thenReturn("#{field1} - #{field2}");
+    printer =
+        new EntityMessagePrinter("message", messageSource, parser, context, conversionService,
+            TO_STRING_EXPRESSION);
+
+    // Exercise
+    printer.print(testObject, locale);
+    String result = printer.print(testObject, locale);
+
+    // Validate
+    assertThat(result).isEqualTo(testObject.field1 + " - " + testObject.field2);
+    verify(messageSource, times(1)).getMessage("message", null, null, locale);
+  }
+
+  @Test
+  public void shouldResolveMessageAgainAfterClearingTheCache() {
+    // Prepare
+    when(messageSource.getMessage("message", null, null, locale))
+        .thenReturn("#{field1}", "#{field2}");
+    printer =
+        new EntityMessagePrinter("message", messageSource, parser, context, conversionService,
+            TO_STRING_EXPRESSION);
+
+    // Exercise
+    String first = printer.print(testObject, locale);
+    printer.getMessageExpressionCache().clear();
+    String second = printer.print(testObject, locale);
+
+    // Validate
+    assertThat(first).isEqualTo(testObject.field1);
+    assertThat(second).isEqualTo(String.valueOf(testObject.field2));
+  }
+
+  @Test
+  public void shouldResolveMessageAgainAfterTheMessagesAreReloaded() {
+    // Prepare
+    when(messageSource.getMessage("message", null, null, locale))
+        .thenReturn("#{field1}", "#{field2}");
+    printer =
+        new EntityMessagePrinter("message", messageSource, parser, context, conversionService,
+            TO_STRING_EXPRESSION);
+
+    // Exercise
+    String first = printer.print(testObject, locale);
+    printer.getMessageExpressionCache()
+        .onApplicationEvent(new MessageSourceReloadedEvent(messageSource));
+    String second = printer.print(testObject, locale);
+
+    // Validate
+    assertThat(first).isEqualTo(testObject.field1);
+    assertThat(second).isEqualTo(String.valueOf(testObject.field2));
+  }
+
   private class TestObject {
     public String field1 = "value1";
     public Long field2 = Long.valueOf(2);
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.format;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Unit tests for the {@link EntityParser} class.
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class EntityParserTest {
+
+  @Mock
+  private BatchEntityResolver<TestEntity, Long> batchResolver;
+
+  @Mock
+  private EntityResolver<TestEntity, Long> resolver;
+
+  @Mock
+  private RequestAttributes requestAttributes;
+
+  private ConversionService conversionService = new DefaultConversionService();
+
+  @After
+  public void resetRequest() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldParseAllInASingleOperationPreservingOrder() {
+    // Prepare
+    TestEntity one = new TestEntity(1L);
+    TestEntity two = new TestEntity(2L);
+    when(batchResolver.getIdType()).thenReturn(Long.class);
+    when(batchResolver.findAll(any(Iterable.class))).thenReturn(Arrays.asList(one, two));
+    when(batchResolver.getId(one)).thenReturn(1L);
+    when(batchResolver.getId(two)).thenReturn(2L);
+    EntityParser<TestEntity, Long> parser =
+        new EntityParser<TestEntity, Long>(batchResolver, conversionService);
+
+    // Exercise
+    List<TestEntity> entities = parser.parseAll(Arrays.asList("2", "1", "2"));
+
+    // Validate
+    assertThat(entities).containsExactly(two, one, two);
+    verify(batchResolver, times(1)).findAll(any(Iterable.class));
+    verify(batchResolver, never()).findOne(anyLong());
+  }
+
+  @Test
+  public void shouldParseAllOneByOneWithoutBatchResolver() {
+    // Prepare
+    TestEntity one = new TestEntity(1L);
+    TestEntity two = new TestEntity(2L);
+    when(resolver.getIdType()).thenReturn(Long.class);
+    when(resolver.findOne(1L)).thenReturn(one);
+    when(resolver.findOne(2L)).thenReturn(two);
+    EntityParser<TestEntity, Long> parser =
+        new EntityParser<TestEntity, Long>(resolver, conversionService);
+
+    // Exercise
+    List<TestEntity> entities = parser.parseAll(Arrays.asList("2", "1", "2"));
+
+    // Validate
+    assertThat(entities).containsExactly(two, one, two);
+    verify(resolver, times(1)).findOne(2L);
+  }
+
+  @Test
+  public void shouldResolveEachEntityOnlyOncePerRequest() throws Exception {
+    // Prepare
+    TestEntity one = new TestEntity(1L);
+    when(resolver.getIdType()).thenReturn(Long.class);
+    when(resolver.getEntityType()).thenReturn(TestEntity.class);
+    when(resolver.findOne(1L)).thenReturn(one);
+    when(requestAttributes.getAttribute(anyString(), anyInt()))
+        .thenReturn(new HashMap<Object, Object>());
+    RequestContextHolder.setRequestAttributes(requestAttributes);
+    EntityRequestCache requestCache = new EntityRequestCache();
+    EntityParser<TestEntity, Long> parser =
+        new EntityParser<TestEntity, Long>(resolver, conversionService);
+    parser.setRequestCache(requestCache);
+
+    // Exercise
+    TestEntity first = parser.parse("1", Locale.getDefault());
+    TestEntity second = parser.parse("1", Locale.getDefault());
+
+    // Validate
+    assertThat(first).isSameAs(one);
+    assertThat(second).isSameAs(one);
+    verify(resolver, times(1)).findOne(1L);
+    assertThat(requestCache.getHits()).isEqualTo(1);
+    assertThat(requestCache.getMisses()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldNotCountTheLookupsWithoutARequest() throws Exception {
+    // Prepare
+    TestEntity one = new TestEntity(1L);
+    when(resolver.getIdType()).thenReturn(Long.class);
+    when(resolver.getEntityType()).thenReturn(TestEntity.class);
+    when(resolver.findOne(1L)).thenReturn(one);
+    EntityRequestCache requestCache = new EntityRequestCache();
+    EntityParser<TestEntity, Long> parser =
+        new EntityParser<TestEntity, Long>(resolver, conversionService);
+    parser.setRequestCache(requestCache);
+
+    // Exercise
+    TestEntity entity = parser.parse("1", Locale.getDefault());
+
+    // Validate
+    assertThat(entity).isSameAs(one);
+    assertThat(requestCache.getHits()).isEqualTo(0);
+    assertThat(requestCache.getMisses()).isEqualTo(0);
+  }
+
+  private static class TestEntity {
+    private final Long id;
+
+    TestEntity(Long id) {
+      this.id = id;
+    }
+
+    @Override
+    public String toString() {
+      return "TestEntity " + id;
+    }
+  }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.springlets.format;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.beans.factory.ListableBeanFactory;
+
+/**
+ * Unit tests for the {@link EntityResolverRegistry} class.
+ * @author Cèsar Ordiñana at http://www.disid.com[DISID Corporation S.L.]
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class EntityResolverRegistryTest {
+
+  @Mock
+  private ListableBeanFactory beanFactory;
+
+  private EntityResolverRegistry registry;
+
+  private TestEntityResolver resolver = new TestEntityResolver();
+
+  @Before
+  public void setup() {
+    when(beanFactory.getBeanNamesForType(EntityResolver.class, true, true))
+        .thenReturn(new String[] {"testEntityResolver"});
+    Mockito.<Class<?>>when(beanFactory.getType("testEntityResolver"))
+        .thenReturn(TestEntityResolver.class);
+    when(beanFactory.getBean("testEntityResolver", EntityResolver.class)).thenReturn(resolver);
+
+    registry = new EntityResolverRegistry(beanFactory);
+  }
+
+  @Test
+  public void shouldResolveEntityTypeWithoutInitializingTheResolver() {
+    // Exercise
+    boolean hasResolver = registry.hasResolver(String.class);
+
+    // Validate
+    assertThat(hasResolver).isFalse();
+    verify(beanFactory, never()).getBean("testEntityResolver", EntityResolver.class);
+  }
+
+  @Test
+  public void shouldReturnResolverForSubclasses() {
+    // Exercise
+    EntityResolver<?, ?> found = registry.getResolver(TestEntitySubclass.class);
+
+    // Validate
+    assertThat(found).isSameAs(resolver);
+  }
+
+  @Test
+  public void shouldCacheLookups() {
+    // Exercise
+    registry.getResolver(TestEntity.class);
+    registry.getResolver(TestEntity.class);
+    registry.getResolver(String.class);
+    registry.getResolver(String.class);
+
+    // Validate
+    verify(beanFactory, times(1)).getBeanNamesForType(EntityResolver.class, true, true);
+    verify(beanFactory, times(1)).getBean("testEntityResolver", EntityResolver.class);
+  }
+
+  public static class TestEntity {
+  }
+
+  public static class TestEntitySubclass extends TestEntity {
+  }
+
+  public static class TestEntityResolver implements EntityResolver<TestEntity, Long> {
+
+    @Override
+    public TestEntity findOne(Long id) {
+      return new TestEntity();
+    }
+
+    @Override
+    public Class<TestEntity> getEntityType() {
+      return TestEntity.class;
+    }
+
+    @Override
+    public Class<Long> getIdType() {
+      return Long.class;
+    }
+  }
+
+}
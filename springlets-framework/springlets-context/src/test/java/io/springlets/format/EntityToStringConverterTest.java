@@ -33,6 +33,7 @@ import org.springframework.core.convert.converter.GenericConverter.ConvertiblePa
 import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
 
 import java.util.Set;
 
@@ -118,4 +119,34 @@ public class EntityToStringConverterTest {
     assertThat(matches).isTrue();
   }
 
+  /**
+   * Test method for {@link io.springlets.format.EntityToStringConverter#convert(java.lang.Object, org.springframework.core.convert.TypeDescriptor, org.springframework.core.convert.TypeDescriptor)}
+   * with the format resolved from the class level annotation.
+   */
+  @Test
+  public void shouldConvertUsingTheClassLevelExpression() {
+    // Prepare
+    EntityToStringConverter spelConverter = new EntityToStringConverter(
+        new SpelExpressionParser(), new TemplateParserContext(), messageSource, conversionService);
+    TypeDescriptor annotatedType = TypeDescriptor.valueOf(AnnotatedObject.class);
+    TypeDescriptor stringType = TypeDescriptor.valueOf(String.class);
+
+    // Exercise
+    boolean matches = spelConverter.matches(annotatedType, stringType);
+    Object first = spelConverter.convert(new AnnotatedObject(), annotatedType, stringType);
+    Object second = spelConverter.convert(new AnnotatedObject(), annotatedType, stringType);
+
+    // Validate
+    assertThat(matches).isTrue();
+    assertThat(first).isEqualTo("value1 - 2");
+    assertThat(second).isEqualTo(first);
+    assertThat(spelConverter.matches(TypeDescriptor.valueOf(Object.class), stringType)).isFalse();
+  }
+
+  @EntityFormat("#{field1} - #{field2}")
+  public static class AnnotatedObject {
+    public String field1 = "value1";
+    public Long field2 = Long.valueOf(2);
+  }
+
 }
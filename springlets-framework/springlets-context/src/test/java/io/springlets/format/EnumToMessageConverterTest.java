@@ -18,6 +18,8 @@ package io.springlets.format;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.junit.Before;
@@ -111,6 +113,53 @@ public class EnumToMessageConverterTest {
     assertThat(converted).isEqualTo("one");
   }
 
+  @Test
+  public void checkResolvesEnumMessagesOnlyOnce() {
+    // Prepare
+    when(messageSource.getMessage(anyString(), any(Object[].class), anyString(), any(Locale.class)))
+        .thenAnswer(new Answer<String>() {
+
+          @Override
+          public String answer(InvocationOnMock invocation) throws Throwable {
+            String name = invocation.getArgumentAt(2, String.class);
+            return name.toLowerCase();
+          }
+
+        });
+
+    // Exercise
+    Object one = converter.convert(TestEnum.ONE, TypeDescriptor.valueOf(TestEnum.class),
+        TypeDescriptor.valueOf(String.class));
+    Object two = converter.convert(TestEnum.TWO, TypeDescriptor.valueOf(TestEnum.class),
+        TypeDescriptor.valueOf(String.class));
+    converter.convert(TestEnum.ONE, TypeDescriptor.valueOf(TestEnum.class),
+        TypeDescriptor.valueOf(String.class));
+
+    // Validate
+    assertThat(one).isEqualTo("one");
+    assertThat(two).isEqualTo("two");
+    verify(messageSource, times(1)).getMessage("enum_TestEnum_ONE", null, "ONE",
+        Locale.getDefault());
+  }
+
+  @Test
+  public void checkResolvesEnumMessagesAgainAfterTheMessagesAreReloaded() {
+    // Prepare
+    when(messageSource.getMessage("enum_TestEnum_ONE", null, "ONE", Locale.getDefault()))
+        .thenReturn("one", "uno");
+
+    // Exercise
+    Object before = converter.convert(TestEnum.ONE, TypeDescriptor.valueOf(TestEnum.class),
+        TypeDescriptor.valueOf(String.class));
+    converter.onApplicationEvent(new MessageSourceReloadedEvent(messageSource));
+    Object after = converter.convert(TestEnum.ONE, TypeDescriptor.valueOf(TestEnum.class),
+        TypeDescriptor.valueOf(String.class));
+
+    // Validate
+    assertThat(before).isEqualTo("one");
+    assertThat(after).isEqualTo("uno");
+  }
+
   @Test
   public void convertNullShouldReturnNull() {
     // Prepare